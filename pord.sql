@@ -0,0 +1,98 @@
+-- 接口测试步骤（JSON数组）
+ALTER TABLE test_case ADD COLUMN api_steps TEXT NULL AFTER precondition;
+
+-- 自动化用例标识，用于匹配CI上报的测试结果
+ALTER TABLE test_case ADD COLUMN automation_key VARCHAR(500) NULL AFTER api_steps;
+ALTER TABLE test_case ADD UNIQUE INDEX uk_test_case_automation_key (automation_key);
+
+-- 测试结果
+CREATE TABLE test_result (
+    id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    run_id VARCHAR(36) NOT NULL,
+    test_case_id INT NULL,
+    automation_key VARCHAR(500) NULL,
+    status VARCHAR(20) NOT NULL,
+    duration_ms BIGINT NULL,
+    message TEXT NULL,
+    created_at DATETIME NOT NULL,
+    INDEX idx_test_result_run (run_id),
+    INDEX idx_test_result_case (test_case_id, created_at)
+);
+
+-- 定时执行计划
+CREATE TABLE scheduled_run (
+    id INT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(200) NOT NULL,
+    cron_expression VARCHAR(100) NOT NULL,
+    case_ids TEXT NULL,
+    requirement_id INT NULL,
+    enabled TINYINT(1) NOT NULL DEFAULT 1,
+    next_fire_time DATETIME(6) NULL,
+    last_fire_time DATETIME(6) NULL,
+    last_run_id VARCHAR(36) NULL,
+    created_at DATETIME NULL,
+    updated_at DATETIME NULL,
+    INDEX idx_scheduled_run_due (enabled, next_fire_time)
+);
+
+-- 主键号段表，test_case 改为按号段分配主键，以支持批量插入
+CREATE TABLE id_sequence (
+    name VARCHAR(64) NOT NULL PRIMARY KEY,
+    next_val BIGINT NOT NULL
+);
+INSERT INTO id_sequence (name, next_val) SELECT 'test_case', COALESCE(MAX(id), 0) + 1 FROM test_case;
+
+-- 游标分页：按 (created_at, id) 降序翻页的复合索引
+-- created_at 为空的行既无法生成游标也不满足范围条件，先回填（没有更新时间的排到最后）再改为非空
+UPDATE test_case SET created_at = COALESCE(updated_at, '1970-01-01 00:00:00') WHERE created_at IS NULL;
+ALTER TABLE test_case MODIFY COLUMN created_at DATETIME NOT NULL;
+CREATE INDEX idx_test_case_created_at_id ON test_case (created_at, id);
+
+-- 增量同步：按 (updated_at, id) 升序范围扫描的复合索引
+UPDATE test_case SET updated_at = created_at WHERE updated_at IS NULL;
+UPDATE requirement SET updated_at = created_at WHERE updated_at IS NULL;
+CREATE INDEX idx_test_case_updated_at_id ON test_case (updated_at, id);
+CREATE INDEX idx_requirement_updated_at_id ON requirement (updated_at, id);
+
+-- 删除墓碑，增量同步据此通知客户端删除本地副本
+CREATE TABLE change_tombstone (
+    seq BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    entity_type VARCHAR(20) NOT NULL,
+    entity_id INT NOT NULL,
+    deleted_at DATETIME(6) NOT NULL,
+    INDEX idx_change_tombstone_type_seq (entity_type, seq),
+    INDEX idx_change_tombstone_deleted_at (deleted_at)
+);
+
+-- 需求执行者分配表，取代 requirement.executor_ids 逗号字符串上的 LIKE 查询
+CREATE TABLE requirement_executor (
+    id INT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    requirement_id INT NOT NULL,
+    user_id BIGINT NOT NULL,
+    created_at DATETIME NULL,
+    UNIQUE INDEX uk_requirement_executor (requirement_id, user_id),
+    INDEX idx_requirement_executor_user (user_id, requirement_id)
+);
+
+-- 由已有的 executor_ids 回填，按逗号逐段拆分（数字序列最多 255 段，原列长度为 255），
+-- 空段、非数字片段（如 "1,,2"、"1,a"）和已不存在的用户逐段忽略，不影响同一需求的其他片段
+INSERT IGNORE INTO requirement_executor (requirement_id, user_id, created_at)
+WITH RECURSIVE seq (n) AS (
+    SELECT 1
+    UNION ALL
+    SELECT n + 1 FROM seq WHERE n < 255
+),
+segment AS (
+    SELECT r.id AS requirement_id,
+           SUBSTRING_INDEX(SUBSTRING_INDEX(REPLACE(r.executor_ids, ' ', ''), ',', seq.n), ',', -1) AS value
+    FROM requirement r
+    JOIN seq ON seq.n <= 1 + LENGTH(r.executor_ids) - LENGTH(REPLACE(r.executor_ids, ',', ''))
+    WHERE r.executor_ids IS NOT NULL AND r.executor_ids <> ''
+)
+SELECT s.requirement_id, u.id, NOW()
+FROM segment s
+JOIN `user` u ON u.id = CAST(s.value AS UNSIGNED)
+WHERE s.value REGEXP '^[0-9]{1,18}$';  -- 限制位数，避免超长数字转换时溢出
+
+-- executor_ids 只作展示，去掉 255 字符的长度限制
+ALTER TABLE requirement MODIFY COLUMN executor_ids TEXT NULL;
@@ -7,6 +7,7 @@ import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
@@ -45,10 +46,19 @@ public class LogAspect {
         Object result = point.proceed();
 
         // 记录响应信息
-        log.info("Response    : {}", objectMapper.writeValueAsString(result));
+        log.info("Response    : {}", describe(result));
         log.info("Time Cost   : {} ms", System.currentTimeMillis() - beginTime);
         log.info("===================请求结束===================");
 
         return result;
     }
+
+    // 预先编码的响应体只记录长度
+    private String describe(Object result) throws Exception {
+        if (result instanceof ResponseEntity && ((ResponseEntity<?>) result).getBody() instanceof byte[]) {
+            ResponseEntity<?> entity = (ResponseEntity<?>) result;
+            return entity.getStatusCode() + " <" + ((byte[]) entity.getBody()).length + " bytes>";
+        }
+        return objectMapper.writeValueAsString(result);
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.testplatform.common;
+
+import org.springframework.util.StringUtils;
+
+/**
+ * 分页查询的总数计算方式
+ */
+public enum TotalMode {
+    /** 每次执行 COUNT(*) 返回精确总数 */
+    EXACT,
+    /** 总数按查询条件缓存一段时间，可能与最新数据有偏差 */
+    APPROXIMATE,
+    /** 不计算总数，只返回是否有下一页 */
+    NONE;
+
+    public static TotalMode of(String value) {
+        if (!StringUtils.hasText(value)) {
+            return EXACT;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("不支持的总数模式: " + value);
+        }
+    }
+}
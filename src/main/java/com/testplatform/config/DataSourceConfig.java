@@ -0,0 +1,107 @@
+package com.testplatform.config;
+
+import com.testplatform.datasource.ReadYourWritesTracker;
+import com.testplatform.datasource.ReplicaProperties;
+import com.testplatform.datasource.ReplicaRoutingDataSource;
+import com.testplatform.datasource.ReplicaRoutingJpaDialect;
+import com.testplatform.util.RedisUtil;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.JpaProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.orm.jpa.JpaVendorAdapter;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 读写分离数据源配置
+ * 配置了 datasource.replica.nodes 时生效：主库仍按 spring.datasource 配置，
+ * 服务层的只读事务路由到副本。未配置副本时使用Spring Boot默认的单数据源。
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.replica.nodes[0].url")
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class DataSourceConfig {
+
+    /**
+     * 主库连接池，连接池参数沿用 spring.datasource.hikari
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public ReplicaRoutingDataSource routingDataSource(HikariDataSource primaryDataSource,
+                                                     DataSourceProperties properties,
+                                                     ReplicaProperties replicaProperties,
+                                                     MeterRegistry meterRegistry) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        List<ReplicaProperties.Node> nodes = replicaProperties.getNodes();
+        for (int i = 0; i < nodes.size(); i++) {
+            ReplicaProperties.Node node = nodes.get(i);
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + i);
+            replica.setJdbcUrl(node.getUrl());
+            replica.setUsername(StringUtils.hasText(node.getUsername()) ? node.getUsername() : properties.determineUsername());
+            replica.setPassword(node.getPassword() != null ? node.getPassword() : properties.determinePassword());
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setMaximumPoolSize(replicaProperties.getMaximumPoolSize());
+            // 副本宕机时请求线程只等待很短时间就改用主库，而不是默认的30秒
+            replica.setConnectionTimeout(replicaProperties.getConnectionTimeoutMs());
+            replica.setValidationTimeout(replicaProperties.getValidationTimeoutMs());
+            replica.setReadOnly(true);
+            replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.put(replica.getPoolName(), replica);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, replicaProperties.getMaxLagSeconds(),
+            replicaProperties.getHealthCheckIntervalMs());
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(RedisUtil redisUtil, ReplicaProperties replicaProperties) {
+        return new ReadYourWritesTracker(redisUtil, replicaProperties.getReadYourWritesMs());
+    }
+
+    /**
+     * 替换默认的 JpaVendorAdapter 以使用按事务路由的方言，其余设置与Spring Boot默认一致
+     */
+    @Bean
+    public JpaVendorAdapter jpaVendorAdapter(JpaProperties properties,
+                                             ReplicaRoutingDataSource routingDataSource,
+                                             ReadYourWritesTracker readYourWritesTracker) {
+        HibernateJpaDialect jpaDialect = new ReplicaRoutingJpaDialect(routingDataSource, readYourWritesTracker);
+        HibernateJpaVendorAdapter adapter = new HibernateJpaVendorAdapter() {
+            @Override
+            public HibernateJpaDialect getJpaDialect() {
+                return jpaDialect;
+            }
+        };
+        adapter.setShowSql(properties.isShowSql());
+        if (properties.getDatabase() != null) {
+            adapter.setDatabase(properties.getDatabase());
+        }
+        if (properties.getDatabasePlatform() != null) {
+            adapter.setDatabasePlatform(properties.getDatabasePlatform());
+        }
+        adapter.setGenerateDdl(properties.isGenerateDdl());
+        return adapter;
+    }
+}
@@ -0,0 +1,111 @@
+package com.testplatform.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 线程池配置类
+ */
+@Configuration
+public class ExecutorConfig {
+
+    /**
+     * 登录专用线程池
+     * BCrypt校验耗CPU，放到独立的有界线程池中执行，避免登录高峰占满Tomcat工作线程。
+     * 队列满时直接拒绝（抛出 TaskRejectedException），由调用方快速返回503。
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor loginExecutor(
+            @Value("${auth.login-executor.core-size:4}") int coreSize,
+            @Value("${auth.login-executor.max-size:4}") int maxSize,
+            @Value("${auth.login-executor.queue-capacity:100}") int queueCapacity,
+            MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("login-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+
+        // 暴露队列深度、活跃线程数等指标（executor.queued / executor.active ...）
+        new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), "loginExecutor", Tags.empty())
+            .bindTo(meterRegistry);
+        return executor;
+    }
+
+    /**
+     * SSE推送线程池
+     * 订阅者的事件先进入各自的有界队列，再由该线程池中的少量线程写出，
+     * 空闲连接不占用线程，写得慢的客户端也不会阻塞Redis订阅线程。
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor sseExecutor(
+            @Value("${execution.sse.dispatch-threads:8}") int threads,
+            @Value("${execution.sse.dispatch-queue-capacity:10000}") int queueCapacity,
+            MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("sse-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+
+        new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), "sseExecutor", Tags.empty())
+            .bindTo(meterRegistry);
+        return executor;
+    }
+
+    /**
+     * 用例导入线程池
+     * 导入任务会长时间占用一个数据库连接，限制并发数，超出队列容量时拒绝新任务。
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor importExecutor(
+            @Value("${test-case.import.threads:2}") int threads,
+            @Value("${test-case.import.queue-capacity:10}") int queueCapacity,
+            MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("case-import-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+
+        new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), "importExecutor", Tags.empty())
+            .bindTo(meterRegistry);
+        return executor;
+    }
+
+    /**
+     * 数据导出线程池
+     * 作为Spring MVC异步请求的执行器，StreamingResponseBody在这里写出响应，不占用Tomcat工作线程。
+     * 每个导出占用两个数据库连接（流式游标 + 批量查询关联数据），线程数需小于连接池大小的一半。
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor exportExecutor(
+            @Value("${export.threads:4}") int threads,
+            @Value("${export.queue-capacity:20}") int queueCapacity,
+            MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("export-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+
+        new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), "exportExecutor", Tags.empty())
+            .bindTo(meterRegistry);
+        return executor;
+    }
+}
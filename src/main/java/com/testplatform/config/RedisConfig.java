@@ -2,15 +2,26 @@ package com.testplatform.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.testplatform.entity.User;
+import com.testplatform.serializer.BinaryRedisSerializer;
+import com.testplatform.serializer.CodecRegistry;
+import com.testplatform.serializer.StandardCodecs;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 @Configuration
 public class RedisConfig {
+
+    @Value("${redis.serializer.compress-threshold:512}")
+    private int compressThreshold;  // 值超过该字节数时压缩
+
+    private final CodecRegistry codecRegistry = StandardCodecs.createRegistry();
     
     @Bean
     public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
@@ -21,8 +32,12 @@ public class RedisConfig {
         ObjectMapper objectMapper = new ObjectMapper();
         objectMapper.registerModule(new JavaTimeModule()); // 添加Java 8时间模块支持
         
-        Jackson2JsonRedisSerializer<Object> serializer = new Jackson2JsonRedisSerializer<>(Object.class);
-        serializer.setObjectMapper(objectMapper);
+        Jackson2JsonRedisSerializer<Object> jsonSerializer = new Jackson2JsonRedisSerializer<>(Object.class);
+        jsonSerializer.setObjectMapper(objectMapper);
+        
+        // 使用二进制序列化器，仍可读取旧的JSON数据
+        BinaryRedisSerializer serializer = new BinaryRedisSerializer(
+            codecRegistry, jsonSerializer, objectMapper, compressThreshold);
         
         template.setValueSerializer(serializer);
         template.setHashValueSerializer(serializer);
@@ -33,4 +48,39 @@ public class RedisConfig {
         template.afterPropertiesSet();
         return template;
     }
+
+    /**
+     * 用户缓存专用的RedisTemplate
+     * 旧的JSON数据按User类型解析，读取时直接得到User对象
+     */
+    @Bean
+    public RedisTemplate<String, User> userRedisTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, User> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        
+        Jackson2JsonRedisSerializer<User> jsonSerializer = new Jackson2JsonRedisSerializer<>(User.class);
+        jsonSerializer.setObjectMapper(objectMapper);
+        
+        BinaryRedisSerializer serializer = new BinaryRedisSerializer(
+            codecRegistry, jsonSerializer, objectMapper, compressThreshold);
+        
+        template.setValueSerializer(serializer);
+        template.setKeySerializer(new StringRedisSerializer());
+        
+        template.afterPropertiesSet();
+        return template;
+    }
+
+    /**
+     * Redis消息监听容器，用于节点间的发布/订阅通知
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,59 @@
+package com.testplatform.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hibernate二级缓存配置
+ * 模块、用户、需求读多写少，实体缓存在进程内（JCache接口，由Caffeine实现）；未启用查询缓存。
+ * 缓存区域在这里按配置逐个创建，未声明的区域启动时直接报错，避免意外创建不限容量的缓存。
+ * 跨节点失效见 SecondLevelCacheInvalidator。
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    public static final String MODULE_REGION = "module";
+    public static final String USER_REGION = "user";
+    public static final String REQUIREMENT_REGION = "requirement";
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(
+            @Value("${l2-cache.entity.max-size:10000}") long entityMaxSize,
+            @Value("${l2-cache.entity.ttl-seconds:3600}") long entityTtlSeconds) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+            .getCacheManager();
+        for (String region : new String[]{MODULE_REGION, USER_REGION, REQUIREMENT_REGION}) {
+            createCache(cacheManager, region, entityMaxSize, entityTtlSeconds);
+        }
+
+        return properties -> {
+            properties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    private static void createCache(CacheManager cacheManager, String name, long maxSize, long ttlSeconds) {
+        if (cacheManager.getCache(name) != null) {
+            return;
+        }
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setStoreByValue(false);  // 缓存条目为Hibernate拆解后的状态，无需再复制
+        if (maxSize > 0) {
+            configuration.setMaximumSize(OptionalLong.of(maxSize));
+        }
+        if (ttlSeconds > 0) {
+            configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(ttlSeconds)));
+        }
+        cacheManager.createCache(name, configuration);
+    }
+}
@@ -0,0 +1,28 @@
+package com.testplatform.config;
+
+import com.testplatform.metrics.RequestStatisticsFactory;
+import com.testplatform.metrics.SqlStatementInspector;
+import com.testplatform.metrics.SqlTimingSessionListener;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.internal.StatisticsInitiator;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * SQL统计配置
+ * 向Hibernate注册语句检查器、会话事件监听和统计工厂，按请求汇总见 SqlMetricsFilter。
+ * 只统计经由Hibernate执行的语句，JdbcTemplate直接执行的语句不计入。
+ */
+@Configuration
+public class SqlMetricsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlMetricsCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementInspector());
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, SqlTimingSessionListener.class.getName());
+            properties.put(StatisticsInitiator.STATS_BUILDER, new RequestStatisticsFactory());
+        };
+    }
+}
@@ -1,6 +1,10 @@
 package com.testplatform.config;
 
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -9,6 +13,25 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
  */
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
+
+    private final ThreadPoolTaskExecutor exportExecutor;
+    private final long asyncTimeoutMillis;
+
+    public WebConfig(@Qualifier("exportExecutor") ThreadPoolTaskExecutor exportExecutor,
+                     @Value("${export.timeout-millis:1800000}") long asyncTimeoutMillis) {
+        this.exportExecutor = exportExecutor;
+        this.asyncTimeoutMillis = asyncTimeoutMillis;
+    }
+
+    /**
+     * 异步请求配置
+     * 流式导出的响应体在导出线程池中写出；默认的异步超时较短，大数据量导出会被中断
+     */
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(exportExecutor);
+        configurer.setDefaultTimeout(asyncTimeoutMillis);
+    }
     
     @Override
     public void addCorsMappings(CorsRegistry registry) {
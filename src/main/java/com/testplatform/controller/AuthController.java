@@ -11,14 +11,21 @@ import com.testplatform.util.JwtUtil;
 import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
 @RestController
 @RequestMapping("/api/auth")
 @RequiredArgsConstructor
@@ -28,6 +35,10 @@ public class AuthController {
     private final UserService userService;
     private final JwtUtil jwtUtil;
     private final AuthenticationManager authenticationManager;
+    private final ThreadPoolTaskExecutor loginExecutor;
+
+    @Value("${auth.login-executor.retry-after-seconds:2}")
+    private int retryAfterSeconds;
 
     @PostMapping("/register")
     public ResponseEntity<Result<User>> register(@RequestBody RegisterRequest request) {
@@ -53,10 +64,25 @@ public class AuthController {
         }
     }
 
+    /**
+     * 登录
+     * 密码校验在登录专用线程池中异步执行，不占用Tomcat工作线程；线程池排队已满时直接返回503
+     */
     @PostMapping("/login")
-    public ResponseEntity<Result<LoginResponse>> login(@RequestBody LoginRequest loginRequest) {
+    public CompletableFuture<ResponseEntity<Result<LoginResponse>>> login(@RequestBody LoginRequest loginRequest) {
         log.debug("尝试登录用户: {}", loginRequest.getUsername());
         
+        try {
+            return CompletableFuture.supplyAsync(() -> doLogin(loginRequest), loginExecutor);
+        } catch (RejectedExecutionException e) {
+            log.warn("登录请求过多，拒绝用户: {}", loginRequest.getUsername());
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(Result.error(503, "登录请求过多，请稍后重试")));
+        }
+    }
+
+    private ResponseEntity<Result<LoginResponse>> doLogin(LoginRequest loginRequest) {
         try {
             // 调用 service 层的登录方法
             LoginResponse loginResponse = userService.login(
@@ -99,7 +125,7 @@ public class AuthController {
         try {
             String actualToken = token.substring(7);
             Claims claims = jwtUtil.getClaimsFromToken(actualToken);
-            userService.logout(claims.getSubject());
+            userService.logout(actualToken, claims);
             return ResponseEntity.ok(Result.success(null));
         } catch (Exception e) {
             return ResponseEntity.status(401)
@@ -0,0 +1,131 @@
+package com.testplatform.controller;
+
+import com.testplatform.common.Result;
+import com.testplatform.dto.ExecutionRequest;
+import com.testplatform.entity.ExecutionTask;
+import com.testplatform.entity.enums.TaskStatus;
+import com.testplatform.service.ExecutionEventBroadcaster;
+import com.testplatform.service.ExecutionQueueService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 执行任务控制器
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/executions")
+@RequiredArgsConstructor
+public class ExecutionController {
+
+    private final ExecutionQueueService executionQueueService;
+    private final ExecutionEventBroadcaster executionEventBroadcaster;
+
+    /**
+     * 提交执行任务，每个用例生成一个任务
+     */
+    @PostMapping
+    public ResponseEntity<Result<List<ExecutionTask>>> submit(@RequestBody ExecutionRequest request) {
+        log.info("接收到提交执行任务请求: {}", request.getCaseIds());
+        try {
+            if (request.getCaseIds() == null || request.getCaseIds().isEmpty()) {
+                throw new IllegalArgumentException("用例ID不能为空");
+            }
+            List<ExecutionTask> tasks = executionQueueService.enqueue(request.getCaseIds().stream()
+                .map(String::valueOf)
+                .collect(Collectors.toList()));
+            return ResponseEntity.ok(Result.success(tasks));
+        } catch (Exception e) {
+            log.error("提交执行任务失败: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(Result.error(400, e.getMessage()));
+        }
+    }
+
+    /**
+     * 订阅执行事件（SSE），可按批次过滤
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events(@RequestParam(required = false) String runId) {
+        return executionEventBroadcaster.subscribe(runId);
+    }
+
+    /**
+     * 获取批次执行进度
+     */
+    @GetMapping("/runs/{runId}")
+    public ResponseEntity<Result<Map<String, Long>>> getRunProgress(@PathVariable String runId) {
+        try {
+            return ResponseEntity.ok(Result.success(executionQueueService.getRunProgress(runId)));
+        } catch (Exception e) {
+            log.error("获取批次进度失败: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(Result.error(400, e.getMessage()));
+        }
+    }
+
+    /**
+     * 获取执行任务详情
+     */
+    @GetMapping("/{taskId}")
+    public ResponseEntity<Result<ExecutionTask>> getTask(@PathVariable String taskId) {
+        try {
+            return ResponseEntity.ok(Result.success(executionQueueService.getTask(taskId)));
+        } catch (Exception e) {
+            log.error("获取执行任务失败: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(Result.error(400, e.getMessage()));
+        }
+    }
+
+    /**
+     * 批量获取执行任务状态
+     */
+    @GetMapping
+    public ResponseEntity<Result<List<ExecutionTask>>> getTasks(@RequestParam List<String> taskIds) {
+        try {
+            return ResponseEntity.ok(Result.success(executionQueueService.getTasks(taskIds)));
+        } catch (Exception e) {
+            log.error("批量获取执行任务失败: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(Result.error(400, e.getMessage()));
+        }
+    }
+
+    /**
+     * 批量获取执行任务状态（只返回状态），不存在的任务不包含在结果中
+     */
+    @GetMapping("/statuses")
+    public ResponseEntity<Result<Map<String, TaskStatus>>> getTaskStatuses(@RequestParam List<String> taskIds) {
+        try {
+            return ResponseEntity.ok(Result.success(executionQueueService.getTaskStatuses(taskIds)));
+        } catch (Exception e) {
+            log.error("批量获取执行任务状态失败: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(Result.error(400, e.getMessage()));
+        }
+    }
+
+    /**
+     * 取消排队中的执行任务
+     */
+    @PostMapping("/{taskId}/cancel")
+    public ResponseEntity<Result<ExecutionTask>> cancel(@PathVariable String taskId) {
+        log.info("接收到取消执行任务请求: {}", taskId);
+        try {
+            return ResponseEntity.ok(Result.success(executionQueueService.cancel(taskId)));
+        } catch (Exception e) {
+            log.error("取消执行任务失败: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(Result.error(400, e.getMessage()));
+        }
+    }
+}
@@ -1,15 +1,18 @@
 package com.testplatform.controller;
 
 import com.testplatform.common.Result;
+import com.testplatform.dto.ModuleCatalogSnapshot;
 import com.testplatform.entity.Module;
 import com.testplatform.service.ModuleService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @Slf4j
 @RestController
 @RequestMapping("/api/modules")
@@ -20,14 +23,26 @@ public class ModuleController {
 
     /**
      * 获取所有启用的模块
+     * 直接返回预先编码的快照；客户端带上一次的ETag且模块未变更时返回304
      */
     @GetMapping
-    public ResponseEntity<Result<List<Module>>> getAllModules() {
+    public ResponseEntity<?> getAllModules(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("接收到获取模块列表请求");
         try {
-            List<Module> modules = moduleService.getAllActiveModules();
-            log.info("成功获取{}个模块", modules.size());
-            return ResponseEntity.ok(Result.success(modules));
+            ModuleCatalogSnapshot snapshot = moduleService.getCatalogSnapshot();
+            if (snapshot.matches(ifNoneMatch)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(snapshot.getEtag())
+                        .cacheControl(CacheControl.noCache())
+                        .build();
+            }
+            log.info("成功获取{}个模块", snapshot.getModules().size());
+            return ResponseEntity.ok()
+                    .eTag(snapshot.getEtag())
+                    .cacheControl(CacheControl.noCache())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(snapshot.getJson());
         } catch (Exception e) {
             log.error("获取模块列表失败: {}", e.getMessage());
             return ResponseEntity.badRequest()
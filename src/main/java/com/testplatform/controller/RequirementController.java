@@ -1,25 +1,36 @@
 package com.testplatform.controller;
 
 import com.testplatform.common.Result;
+import com.testplatform.dto.ChangeSet;
+import com.testplatform.dto.PageResult;
 import com.testplatform.dto.RequirementRequest;
 import com.testplatform.dto.RequirementDTO;
 import com.testplatform.dto.RequirementSearchRequest;
 import com.testplatform.dto.RequirementSearchDTO;
+import com.testplatform.dto.RequirementSuggestion;
 import com.testplatform.entity.Requirement;
+import com.testplatform.export.ExportFormat;
+import com.testplatform.service.ChangeFeedService;
+import com.testplatform.service.ExportService;
 import com.testplatform.service.RequirementService;
+import com.testplatform.service.RequirementSuggestService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @Slf4j
 @RestController
@@ -28,6 +39,9 @@ import java.util.stream.Collectors;
 public class RequirementController {
 
     private final RequirementService requirementService;
+    private final ExportService exportService;
+    private final RequirementSuggestService requirementSuggestService;
+    private final ChangeFeedService changeFeedService;
 
     /**
      * 获取需求列表
@@ -38,24 +52,24 @@ public class RequirementController {
             @RequestParam(required = false) String reqName,
             @RequestParam(required = false) Integer moduleId,
             @RequestParam(required = false) String reqStatus,
+            @RequestParam(required = false) Long executorId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String totalMode,
+            @RequestParam(required = false) String fields,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int pageSize) {
         
         log.info("接收到获取需求列表请求");
         try {
-            Page<Requirement> requirementPage = requirementService.findRequirements(
-                reqCode, reqName, moduleId, reqStatus, PageRequest.of(page, pageSize));
+            // 指定了 fields 时只查询这些列
+            PageResult<?> result = StringUtils.hasText(fields)
+                ? requirementService.findRequirementFields(reqCode, reqName, moduleId, reqStatus, executorId,
+                    fields, cursor, totalMode, PageRequest.of(page, pageSize))
+                : requirementService.findRequirements(reqCode, reqName, moduleId, reqStatus, executorId,
+                    cursor, totalMode, PageRequest.of(page, pageSize)).map(RequirementDTO::fromEntity);
             
-            List<RequirementDTO> dtoList = requirementPage.getContent().stream()
-                .map(RequirementDTO::fromEntity)
-                .collect(Collectors.toList());
-            
-            Map<String, Object> response = new HashMap<>();
-            response.put("total", requirementPage.getTotalElements());
-            response.put("list", dtoList);
-            
-            log.info("成功获取需求列表，总数：{}", requirementPage.getTotalElements());
-            return ResponseEntity.ok(Result.success(response));
+            log.info("成功获取需求列表，总数：{}", result.getTotal());
+            return ResponseEntity.ok(Result.success(toResponse(result)));
         } catch (Exception e) {
             log.error("获取需求列表失败: {}", e.getMessage());
             return ResponseEntity.badRequest()
@@ -132,26 +146,103 @@ public class RequirementController {
             // 将页码转换为从0开始
             int pageNumber = Math.max(0, request.getPage() - 1);
             
-            Page<Requirement> requirementPage = requirementService.searchRequirements(
+            PageResult<Requirement> requirementPage = requirementService.searchRequirements(
                 request.getKeyword(),
+                request.getCursor(),
+                request.getTotalMode(),
                 PageRequest.of(pageNumber, request.getPageSize())
             );
             
             // 转换为DTO
-            List<RequirementSearchDTO> dtoList = requirementPage.getContent().stream()
-                .map(RequirementSearchDTO::fromEntity)
-                .collect(Collectors.toList());
-            
-            Map<String, Object> response = new HashMap<>();
-            response.put("total", requirementPage.getTotalElements());
-            response.put("list", dtoList);
+            PageResult<RequirementSearchDTO> result = requirementPage.map(RequirementSearchDTO::fromEntity);
             
-            log.info("需求搜索成功，找到 {} 条记录", requirementPage.getTotalElements());
-            return ResponseEntity.ok(Result.success(response));
+            log.info("需求搜索成功，找到 {} 条记录", result.getTotal());
+            return ResponseEntity.ok(Result.success(toResponse(result)));
         } catch (Exception e) {
             log.error("需求搜索失败: {}", e.getMessage());
             return ResponseEntity.badRequest()
                     .body(Result.error(400, e.getMessage()));
         }
     }
-} 
\ No newline at end of file
+
+    /**
+     * 需求联想
+     * 关联需求时输入框每次按键调用，从内存索引返回编号或名称包含关键字的前 limit 个需求
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<Result<List<RequirementSuggestion>>> suggestRequirements(
+            @RequestParam(required = false) String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        try {
+            return ResponseEntity.ok(Result.success(requirementSuggestService.suggest(q, limit)));
+        } catch (Exception e) {
+            log.error("需求联想失败: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(Result.error(400, e.getMessage()));
+        }
+    }
+
+    /**
+     * 增量同步需求
+     * 首次不传 cursor，之后传上次返回的 nextCursor；hasMore 为 true 时应立即继续拉取
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<Result<ChangeSet<RequirementDTO>>> getRequirementChanges(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "200") int limit) {
+        try {
+            ChangeSet<RequirementDTO> changes = changeFeedService.findRequirementChanges(cursor, limit)
+                    .map(RequirementDTO::fromEntity);
+            return ResponseEntity.ok(Result.success(changes));
+        } catch (Exception e) {
+            log.error("增量同步需求失败: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(Result.error(400, e.getMessage()));
+        }
+    }
+
+    /**
+     * 导出需求
+     * 过滤条件与需求列表相同，导出全部匹配的需求
+     */
+    @GetMapping("/export")
+    public ResponseEntity<?> exportRequirements(
+            @RequestParam(required = false) String reqCode,
+            @RequestParam(required = false) String reqName,
+            @RequestParam(required = false) Integer moduleId,
+            @RequestParam(required = false) String reqStatus,
+            @RequestParam(required = false) Long executorId,
+            @RequestParam(defaultValue = "csv") String format) {
+
+        log.info("接收到导出需求请求，格式: {}", format);
+        try {
+            ExportFormat exportFormat = ExportFormat.of(format);
+            StreamingResponseBody body = out -> exportService.exportRequirements(
+                reqCode, reqName, moduleId, reqStatus, executorId, exportFormat, out);
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                            .filename("需求." + exportFormat.getExtension(), StandardCharsets.UTF_8)
+                            .build().toString())
+                    .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                    .body(body);
+        } catch (Exception e) {
+            log.error("导出需求失败: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(Result.error(400, e.getMessage()));
+        }
+    }
+
+    /**
+     * 构建分页响应数据
+     * total 在 totalMode=none 或游标分页时为 null；nextCursor 仅游标分页时返回
+     */
+    private static Map<String, Object> toResponse(PageResult<?> result) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("total", result.getTotal());
+        response.put("approximate", result.isApproximate());
+        response.put("hasNext", result.isHasNext());
+        response.put("nextCursor", result.getNextCursor());
+        response.put("list", result.getContent());
+        return response;
+    }
+}
\ No newline at end of file
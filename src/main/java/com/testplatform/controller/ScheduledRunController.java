@@ -0,0 +1,117 @@
+package com.testplatform.controller;
+
+import com.testplatform.common.Result;
+import com.testplatform.entity.ScheduledRun;
+import com.testplatform.service.ScheduledRunService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * 定时执行计划控制器
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/schedules")
+@RequiredArgsConstructor
+public class ScheduledRunController {
+
+    private final ScheduledRunService scheduledRunService;
+
+    /**
+     * 获取所有执行计划
+     */
+    @GetMapping
+    public ResponseEntity<Result<List<ScheduledRun>>> getAllScheduledRuns() {
+        try {
+            return ResponseEntity.ok(Result.success(scheduledRunService.getAllScheduledRuns()));
+        } catch (Exception e) {
+            log.error("获取执行计划列表失败: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(Result.error(400, e.getMessage()));
+        }
+    }
+
+    /**
+     * 创建执行计划
+     */
+    @PostMapping
+    public ResponseEntity<Result<ScheduledRun>> createScheduledRun(@RequestBody ScheduledRun scheduledRun) {
+        log.info("接收到创建执行计划请求: {}", scheduledRun.getName());
+        try {
+            return ResponseEntity.ok(Result.success(scheduledRunService.createScheduledRun(scheduledRun)));
+        } catch (Exception e) {
+            log.error("创建执行计划失败: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(Result.error(400, e.getMessage()));
+        }
+    }
+
+    /**
+     * 更新执行计划
+     */
+    @PutMapping("/{id}")
+    public ResponseEntity<Result<ScheduledRun>> updateScheduledRun(
+            @PathVariable Integer id,
+            @RequestBody ScheduledRun scheduledRun) {
+        log.info("接收到更新执行计划请求: {}", id);
+        try {
+            return ResponseEntity.ok(Result.success(scheduledRunService.updateScheduledRun(id, scheduledRun)));
+        } catch (Exception e) {
+            log.error("更新执行计划失败: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(Result.error(400, e.getMessage()));
+        }
+    }
+
+    /**
+     * 获取执行计划详情
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<Result<ScheduledRun>> getScheduledRun(@PathVariable Integer id) {
+        try {
+            return ResponseEntity.ok(Result.success(scheduledRunService.getScheduledRun(id)));
+        } catch (Exception e) {
+            log.error("获取执行计划详情失败: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(Result.error(400, e.getMessage()));
+        }
+    }
+
+    /**
+     * 启用/停用执行计划
+     */
+    @PutMapping("/{id}/status")
+    public ResponseEntity<Result<Void>> toggleScheduledRun(
+            @PathVariable Integer id,
+            @RequestParam Boolean enabled) {
+        log.info("接收到切换执行计划状态请求: {} -> {}", id, enabled);
+        try {
+            scheduledRunService.toggleScheduledRun(id, enabled);
+            return ResponseEntity.ok(Result.success(null));
+        } catch (Exception e) {
+            log.error("切换执行计划状态失败: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(Result.error(400, e.getMessage()));
+        }
+    }
+
+    /**
+     * 删除执行计划
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Result<Void>> deleteScheduledRun(@PathVariable Integer id) {
+        log.info("接收到删除执行计划请求: {}", id);
+        try {
+            scheduledRunService.deleteScheduledRun(id);
+            return ResponseEntity.ok(Result.success(null));
+        } catch (Exception e) {
+            log.error("删除执行计划失败: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(Result.error(400, e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.testplatform.controller;
+
+import com.testplatform.common.Result;
+import com.testplatform.dto.SearchHit;
+import com.testplatform.service.SearchService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * 全文检索控制器
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/search")
+@RequiredArgsConstructor
+public class SearchController {
+
+    private final SearchService searchService;
+
+    /**
+     * 检索用例、需求和模块，按相关度排序
+     * @param q 关键词，也可以是需求编号或自动化标识
+     * @param types 逗号分隔的类型：test_case、requirement、module，不传时检索全部
+     */
+    @GetMapping
+    public ResponseEntity<Result<List<SearchHit>>> search(
+            @RequestParam String q,
+            @RequestParam(required = false) String types,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            return ResponseEntity.ok(Result.success(searchService.search(q, types, limit)));
+        } catch (Exception e) {
+            log.error("检索失败: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(Result.error(400, e.getMessage()));
+        }
+    }
+
+    /**
+     * 在后台重建当前节点的索引
+     */
+    @PostMapping("/rebuild")
+    public ResponseEntity<Result<String>> rebuild() {
+        log.info("接收到重建索引请求");
+        try {
+            searchService.rebuildAsync();
+            return ResponseEntity.accepted().body(Result.success("索引重建已开始"));
+        } catch (Exception e) {
+            log.error("重建索引失败: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(Result.error(400, e.getMessage()));
+        }
+    }
+}
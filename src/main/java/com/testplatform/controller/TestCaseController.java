@@ -1,18 +1,24 @@
 package com.testplatform.controller;
 
+import com.testplatform.dto.ChangeSet;
+import com.testplatform.dto.PageResult;
 import com.testplatform.dto.TestCaseDTO;
 import com.testplatform.dto.TestCaseDetailDTO;
 import com.testplatform.dto.TestCaseQueryRequest;
 import com.testplatform.entity.TestCase;
 import com.testplatform.entity.enums.TestCasePriority;
+import com.testplatform.export.ExportFormat;
+import com.testplatform.service.ChangeFeedService;
+import com.testplatform.service.ExportService;
+import com.testplatform.service.TestCaseImportService;
 import com.testplatform.service.TestCaseService;
 import com.testplatform.common.Result;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
 import com.testplatform.entity.enums.TestCaseStatus;
 import com.testplatform.dto.TestCaseCreateRequest;
@@ -21,13 +27,18 @@ import org.slf4j.LoggerFactory;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import com.testplatform.dto.TestCaseUpdateRequest;
+import com.testplatform.dto.ImportJob;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 
 import javax.persistence.criteria.Predicate;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
  * 测试用例控制器
@@ -40,6 +51,9 @@ import java.util.stream.Collectors;
 public class TestCaseController {
 
     private final TestCaseService testCaseService;  // 注入测试用例服务
+    private final TestCaseImportService testCaseImportService;  // 注入用例导入服务
+    private final ExportService exportService;  // 注入数据导出服务
+    private final ChangeFeedService changeFeedService;  // 注入增量同步服务
 
     /**
      * 创建测试用例
@@ -99,29 +113,30 @@ public class TestCaseController {
 
     /**
      * 分页查询测试用例
-     * @param request 查询请求体，包含查询条件和分页信息
+     * @param request 查询请求体，包含查询条件和分页信息；传 cursor 时按游标分页，totalMode 控制总数计算方式，
+     *                fields 指定返回字段（如 id,title,priority,status,creatorName）
      * @return 查询到的测试用例列表及分页信息
      */
     @GetMapping
     public ResponseEntity<Result<Map<String, Object>>> getTestCases(TestCaseQueryRequest request) {
         log.info("接收到查询测试用例请求: {}", request);
         try {
-            // 调用服务层查询测试用例
-            Page<TestCase> page = testCaseService.findTestCases(request);
-            
-            // 转换为DTO
-            List<TestCaseDTO> dtoList = page.getContent().stream()
-                .map(TestCaseDTO::fromEntity)
-                .collect(Collectors.toList());
+            // 调用服务层查询测试用例：指定了字段时只查询这些列，否则加载完整用例并转换为DTO
+            PageResult<?> result = StringUtils.hasText(request.getFields())
+                ? testCaseService.findTestCaseFields(request)
+                : testCaseService.findTestCases(request).map(TestCaseDTO::fromEntity);
             
             // 构建响应数据
             Map<String, Object> response = new HashMap<>();
-            response.put("total", page.getTotalElements());  // 总记录数
+            response.put("total", result.getTotal());  // 总记录数，totalMode=none 或游标分页时为 null
+            response.put("approximate", result.isApproximate());  // 总数是否为近似值
             response.put("page", request.getPage());        // 当前页码
             response.put("pageSize", request.getPageSize()); // 每页大小
-            response.put("list", dtoList);                   // 测试用例列表
+            response.put("hasNext", result.isHasNext());     // 是否有下一页
+            response.put("nextCursor", result.getNextCursor());  // 下一页游标
+            response.put("list", result.getContent());       // 测试用例列表
             
-            log.info("查询到{}条测试用例", page.getTotalElements());
+            log.info("查询到{}条测试用例", result.getContent().size());
             return ResponseEntity.ok(Result.success(response));  // 返回查询结果
         } catch (Exception e) {
             log.error("查询测试用例失败: {}", e.getMessage(), e);
@@ -167,4 +182,94 @@ public class TestCaseController {
                     .body(Result.error(400, e.getMessage()));  // 返回错误信息
         }
     }
-} 
\ No newline at end of file
+
+    /**
+     * 批量导入测试用例
+     * @param file 用例文件，支持 csv、xlsx、xmind
+     * @param userDetails 当前认证用户的信息，作为导入用例的创建者
+     * @return 导入任务，通过任务ID查询进度
+     */
+    @PostMapping("/import")
+    public ResponseEntity<Result<ImportJob>> importTestCases(
+            @RequestParam("file") MultipartFile file,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        log.info("接收到导入测试用例请求: {}, 大小: {}", file.getOriginalFilename(), file.getSize());
+        try {
+            if (userDetails == null) {
+                log.error("用户未认证");
+                return ResponseEntity.status(401)
+                        .body(Result.error(401, "用户未认证"));
+            }
+            ImportJob job = testCaseImportService.submit(file, userDetails.getUsername());
+            return ResponseEntity.accepted().body(Result.success(job));  // 返回202，导入在后台进行
+        } catch (Exception e) {
+            log.error("提交导入任务失败: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(Result.error(400, e.getMessage()));
+        }
+    }
+
+    /**
+     * 增量同步测试用例
+     * @param cursor 上次返回的 nextCursor，首次同步不传
+     * @param limit 每次最多返回的变更数
+     * @return 游标之后新增/修改的用例和已删除的用例ID
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<Result<ChangeSet<TestCaseDTO>>> getTestCaseChanges(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "200") int limit) {
+        try {
+            ChangeSet<TestCaseDTO> changes = changeFeedService.findTestCaseChanges(cursor, limit)
+                    .map(TestCaseDTO::fromEntity);
+            return ResponseEntity.ok(Result.success(changes));
+        } catch (Exception e) {
+            log.error("增量同步测试用例失败: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(Result.error(400, e.getMessage()));
+        }
+    }
+
+    /**
+     * 查询导入任务进度
+     * @param jobId 导入任务ID
+     * @return 导入任务的进度和错误信息
+     */
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<Result<ImportJob>> getImportJob(@PathVariable String jobId) {
+        try {
+            return ResponseEntity.ok(Result.success(testCaseImportService.getJob(jobId)));
+        } catch (Exception e) {
+            log.error("查询导入任务失败: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(Result.error(400, e.getMessage()));
+        }
+    }
+
+    /**
+     * 导出测试用例
+     * 过滤条件与分页查询相同，分页参数被忽略，导出全部匹配的用例
+     * @param request 查询条件
+     * @param format 导出格式：csv、ndjson、xlsx
+     * @return 流式写出的文件
+     */
+    @GetMapping("/export")
+    public ResponseEntity<?> exportTestCases(TestCaseQueryRequest request,
+                                             @RequestParam(defaultValue = "csv") String format) {
+        log.info("接收到导出测试用例请求: {}, 格式: {}", request, format);
+        try {
+            ExportFormat exportFormat = ExportFormat.of(format);
+            StreamingResponseBody body = out -> exportService.exportTestCases(request, exportFormat, out);
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                            .filename("测试用例." + exportFormat.getExtension(), StandardCharsets.UTF_8)
+                            .build().toString())
+                    .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                    .body(body);
+        } catch (Exception e) {
+            log.error("导出测试用例失败: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(Result.error(400, e.getMessage()));
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,52 @@
+package com.testplatform.controller;
+
+import com.testplatform.common.Result;
+import com.testplatform.dto.IngestionResult;
+import com.testplatform.service.TestResultIngestionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * 测试结果控制器
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/test-results")
+@RequiredArgsConstructor
+public class TestResultController {
+
+    private final TestResultIngestionService testResultIngestionService;
+
+    /**
+     * 上传JUnit XML报告（支持 .gz 压缩）
+     */
+    @PostMapping("/junit")
+    public ResponseEntity<Result<IngestionResult>> uploadJUnit(@RequestParam("file") MultipartFile file) {
+        log.info("接收到JUnit报告上传请求: {}, 大小: {}", file.getOriginalFilename(), file.getSize());
+        try (InputStream in = openReport(file)) {
+            IngestionResult result = testResultIngestionService.ingestJUnit(in, file.getOriginalFilename());
+            return ResponseEntity.ok(Result.success(result));
+        } catch (Exception e) {
+            log.error("导入JUnit报告失败: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(Result.error(400, e.getMessage()));
+        }
+    }
+
+    private static InputStream openReport(MultipartFile file) throws IOException {
+        InputStream in = new BufferedInputStream(file.getInputStream(), 64 * 1024);
+        String filename = file.getOriginalFilename();
+        if (filename != null && filename.endsWith(".gz")) {
+            return new GZIPInputStream(in, 64 * 1024);
+        }
+        return in;
+    }
+}
@@ -0,0 +1,98 @@
+package com.testplatform.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.testplatform.util.RedisUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 读己之写
+ * 用户提交写事务后的一段时间内，其只读查询仍走主库，避免因复制延迟读不到刚写入的数据。
+ * 写入记录同时保存在本地和Redis中，请求被负载均衡到其他节点时同样生效；
+ * 同一请求内只查询一次Redis。
+ */
+@Slf4j
+public class ReadYourWritesTracker {
+
+    private static final String REQUEST_ATTRIBUTE = ReadYourWritesTracker.class.getName() + ".recentWrite";
+
+    private final RedisUtil redisUtil;
+    private final long windowMillis;
+    private final Cache<String, Boolean> localWrites;
+
+    public ReadYourWritesTracker(RedisUtil redisUtil, long windowMillis) {
+        this.redisUtil = redisUtil;
+        this.windowMillis = windowMillis;
+        this.localWrites = Caffeine.newBuilder()
+                .expireAfterWrite(windowMillis, TimeUnit.MILLISECONDS)
+                .maximumSize(100000)
+                .build();
+    }
+
+    /**
+     * 记录当前用户的写入；后台任务等没有登录用户的线程不记录
+     */
+    public void recordWrite() {
+        String username = currentUsername();
+        if (username == null) {
+            return;
+        }
+        localWrites.put(username, Boolean.TRUE);
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(REQUEST_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        }
+        try {
+            redisUtil.markRecentWrite(username, windowMillis);
+        } catch (Exception e) {
+            log.warn("记录写入时间失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 当前用户是否刚刚写入过
+     */
+    public boolean hasRecentWrite() {
+        String username = currentUsername();
+        if (username == null) {
+            return false;
+        }
+        if (localWrites.getIfPresent(username) != null) {
+            return true;
+        }
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        Object cached = attributes != null
+                ? attributes.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) : null;
+        if (cached != null) {
+            return (Boolean) cached;
+        }
+        boolean recent;
+        try {
+            recent = redisUtil.hasRecentWrite(username);
+        } catch (Exception e) {
+            // Redis不可用时无法判断，保守起见走主库
+            log.warn("读取写入时间失败: {}", e.getMessage());
+            recent = true;
+        }
+        if (attributes != null) {
+            attributes.setAttribute(REQUEST_ATTRIBUTE, recent, RequestAttributes.SCOPE_REQUEST);
+        }
+        return recent;
+    }
+
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken
+                || !authentication.isAuthenticated()) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
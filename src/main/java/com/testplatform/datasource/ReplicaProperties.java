@@ -0,0 +1,37 @@
+package com.testplatform.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 只读副本配置
+ * 副本的用户名、密码未配置时与主库相同
+ */
+@Data
+@ConfigurationProperties(prefix = "datasource.replica")
+public class ReplicaProperties {
+
+    private List<Node> nodes = new ArrayList<>();
+
+    private int maximumPoolSize = 10;  // 每个副本的连接池大小
+
+    private long connectionTimeoutMs = 1000;  // 从副本连接池获取连接的最长等待时间，超时后改用主库
+
+    private long validationTimeoutMs = 500;  // 副本连接校验的超时时间
+
+    private long healthCheckIntervalMs = 5000;  // 副本健康检查间隔
+
+    private long maxLagSeconds = 10;  // 复制延迟超过该值的副本暂停使用，0 表示不检查
+
+    private long readYourWritesMs = 3000;  // 用户写入后该时长内的只读查询仍走主库
+
+    @Data
+    public static class Node {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
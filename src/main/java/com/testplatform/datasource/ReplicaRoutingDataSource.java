@@ -0,0 +1,193 @@
+package com.testplatform.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import javax.annotation.PostConstruct;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 读写分离数据源
+ * 默认使用主库；ReplicaRoutingJpaDialect 在只读事务开始时绑定一个副本，事务的连接从该副本获取。
+ * 在独立线程中定时检查副本的连通性和复制延迟，不可用的副本暂停使用，恢复后自动重新加入；
+ * 副本宕机时探测会阻塞到连接超时，因此不放在共用的 @Scheduled 线程池中执行。
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final ThreadLocal<String> CURRENT_REPLICA = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final Map<String, DataSource> replicas;
+    private final long maxLagSeconds;
+    private final long healthCheckIntervalMs;
+    private final Set<String> healthyReplicas = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger counter = new AtomicInteger();
+    private ScheduledExecutorService healthChecker;
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, long maxLagSeconds,
+                                    long healthCheckIntervalMs) {
+        this.primary = primary;
+        this.replicas = new LinkedHashMap<>(replicas);
+        this.maxLagSeconds = maxLagSeconds;
+        this.healthCheckIntervalMs = healthCheckIntervalMs;
+        this.healthyReplicas.addAll(replicas.keySet());
+        setDefaultTargetDataSource(primary);
+        setTargetDataSources(new HashMap<>(replicas));
+    }
+
+    /**
+     * 绑定当前线程使用的副本，返回之前绑定的值以便恢复；null 表示主库
+     */
+    public static String bind(String replica) {
+        String previous = CURRENT_REPLICA.get();
+        if (replica == null) {
+            CURRENT_REPLICA.remove();
+        } else {
+            CURRENT_REPLICA.set(replica);
+        }
+        return previous;
+    }
+
+    /**
+     * 轮询选择一个可用副本，全部不可用时返回 null
+     */
+    public String chooseReplica() {
+        List<String> candidates = new ArrayList<>();
+        for (String name : replicas.keySet()) {
+            if (healthyReplicas.contains(name)) {
+                candidates.add(name);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return null;
+        }
+        return candidates.get(Math.floorMod(counter.getAndIncrement(), candidates.size()));
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return CURRENT_REPLICA.get();
+    }
+
+    /**
+     * 副本获取连接失败时标记为不可用并改用主库
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        String replica = CURRENT_REPLICA.get();
+        if (replica == null) {
+            return primary.getConnection();
+        }
+        try {
+            return determineTargetDataSource().getConnection();
+        } catch (SQLException e) {
+            markDown(replica, e.getMessage());
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    @PostConstruct
+    public void start() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("replica-health-");
+        threadFactory.setDaemon(true);
+        healthChecker = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        healthChecker.scheduleWithFixedDelay(this::checkReplicas, healthCheckIntervalMs, healthCheckIntervalMs,
+            TimeUnit.MILLISECONDS);
+    }
+
+    public void checkReplicas() {
+        for (Map.Entry<String, DataSource> entry : replicas.entrySet()) {
+            String name = entry.getKey();
+            String problem;
+            try {
+                problem = probe(entry.getValue());
+            } catch (RuntimeException e) {
+                problem = e.getMessage();  // 异常不能抛出，否则定时执行会被取消
+            }
+            if (problem != null) {
+                markDown(name, problem);
+            } else if (healthyReplicas.add(name)) {
+                log.info("只读副本恢复可用: {}", name);
+            }
+        }
+    }
+
+    public void close() {
+        if (healthChecker != null) {
+            healthChecker.shutdownNow();
+        }
+        for (DataSource dataSource : replicas.values()) {
+            if (dataSource instanceof AutoCloseable) {
+                try {
+                    ((AutoCloseable) dataSource).close();
+                } catch (Exception e) {
+                    log.warn("关闭只读副本连接池失败: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * 检查副本是否可用，可用时返回 null，否则返回原因
+     */
+    private String probe(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!connection.isValid(2)) {
+                return "连接校验失败";
+            }
+            if (maxLagSeconds <= 0) {
+                return null;
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.setQueryTimeout(2);
+                ResultSet rs = statement.executeQuery("SHOW SLAVE STATUS");
+                if (rs.next()) {
+                    long lag = rs.getLong("Seconds_Behind_Master");
+                    if (rs.wasNull()) {
+                        return "复制已停止";
+                    }
+                    if (lag > maxLagSeconds) {
+                        return "复制延迟" + lag + "秒";
+                    }
+                }
+            } catch (SQLTimeoutException e) {
+                return "复制状态查询超时";
+            } catch (SQLException e) {
+                // 账号没有 REPLICATION CLIENT 权限时只检查连通性
+                log.debug("无法读取副本复制状态: {}", e.getMessage());
+            }
+            return null;
+        } catch (SQLException e) {
+            return e.getMessage();
+        }
+    }
+
+    private void markDown(String name, String reason) {
+        if (healthyReplicas.remove(name)) {
+            log.warn("只读副本暂停使用: {}, 原因: {}", name, reason);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.testplatform.datasource;
+
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceException;
+import java.sql.SQLException;
+
+/**
+ * 按事务类型选择数据源的JPA方言
+ * 服务层声明的只读事务（当前用户近期没有写入时）在开始时绑定一个副本，事务内的连接从副本获取；其余事务使用主库。
+ * Spring Data 仓库方法自带的只读事务不路由，缓存加载、快照重建等直接调用仓库的读取不会读到副本上的旧数据。
+ * 路由到副本的事务：
+ * - 不向二级缓存写入，避免把副本上尚未同步的旧数据放进缓存；
+ * - 结束后断开会话的连接，OpenEntityManagerInView 下同一请求的后续操作重新从主库获取连接。
+ */
+public class ReplicaRoutingJpaDialect extends HibernateJpaDialect {
+
+    private static final String SERVICE_PACKAGE = "com.testplatform.service.";
+
+    private final ReplicaRoutingDataSource routingDataSource;
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    public ReplicaRoutingJpaDialect(ReplicaRoutingDataSource routingDataSource,
+                                    ReadYourWritesTracker readYourWritesTracker) {
+        this.routingDataSource = routingDataSource;
+        this.readYourWritesTracker = readYourWritesTracker;
+    }
+
+    @Override
+    public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition)
+            throws PersistenceException, SQLException, TransactionException {
+        String replica = null;
+        if (definition.isReadOnly() && definition.getName() != null
+                && definition.getName().startsWith(SERVICE_PACKAGE) && !readYourWritesTracker.hasRecentWrite()) {
+            replica = routingDataSource.chooseReplica();
+        }
+        if (replica == null) {
+            Object transactionData = super.beginTransaction(entityManager, definition);
+            return new RoutedTransactionData(transactionData, null, null, !definition.isReadOnly());
+        }
+
+        Session session = entityManager.unwrap(Session.class);
+        // 会话已持有主库连接（如视图中的延迟加载）时先释放，事务开始时从副本重新获取
+        session.disconnect();
+        String previous = ReplicaRoutingDataSource.bind(replica);
+        try {
+            Object transactionData = super.beginTransaction(entityManager, definition);
+            CacheMode previousCacheMode = session.getCacheMode();
+            session.setCacheMode(CacheMode.GET);
+            return new RoutedTransactionData(transactionData, session, previousCacheMode, false);
+        } finally {
+            // 连接在事务开始时已获取并由会话持有到事务结束
+            ReplicaRoutingDataSource.bind(previous);
+        }
+    }
+
+    @Override
+    public void cleanupTransaction(Object transactionData) {
+        RoutedTransactionData data = (RoutedTransactionData) transactionData;
+        super.cleanupTransaction(data.delegate);
+        if (data.replicaSession != null && data.replicaSession.isOpen()) {
+            data.replicaSession.setCacheMode(data.previousCacheMode);
+            data.replicaSession.disconnect();
+        }
+        if (data.write) {
+            readYourWritesTracker.recordWrite();
+        }
+    }
+
+    private static class RoutedTransactionData {
+        private final Object delegate;
+        private final Session replicaSession;
+        private final CacheMode previousCacheMode;
+        private final boolean write;
+
+        RoutedTransactionData(Object delegate, Session replicaSession, CacheMode previousCacheMode, boolean write) {
+            this.delegate = delegate;
+            this.replicaSession = replicaSession;
+            this.previousCacheMode = previousCacheMode;
+            this.write = write;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.testplatform.dto;
+
+import lombok.Data;
+
+/**
+ * 接口响应断言
+ */
+@Data
+public class ApiAssertion {
+    private Type type;
+
+    private String path;  // JSON_PATH 断言的 JSON Pointer（如 /code），HEADER 断言的响应头名称
+
+    private String expected;
+
+    public enum Type {
+        STATUS,         // 响应状态码等于 expected
+        BODY_CONTAINS,  // 响应体包含 expected
+        JSON_PATH,      // 响应JSON中 path 位置的值等于 expected
+        HEADER,         // 响应头 path 的值等于 expected
+        MAX_LATENCY     // 响应耗时（毫秒）不超过 expected
+    }
+}
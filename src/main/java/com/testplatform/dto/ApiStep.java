@@ -0,0 +1,31 @@
+package com.testplatform.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 接口测试步骤
+ * url、headers、body 中可以使用 ${变量名} 引用前面步骤提取的变量
+ */
+@Data
+public class ApiStep {
+    private String name;
+
+    private String method = "GET";
+
+    private String url;  // 绝对地址，或相对于 execution.http.base-url 的路径
+
+    private Map<String, String> headers = new LinkedHashMap<>();
+
+    private String body;
+
+    private Integer timeoutMs;  // 为空时使用 execution.http.request-timeout-ms
+
+    private List<ApiAssertion> assertions = new ArrayList<>();
+
+    private Map<String, String> extract = new LinkedHashMap<>();  // 变量名 -> 响应JSON Pointer，如 /data/token
+}
@@ -0,0 +1,26 @@
+package com.testplatform.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 增量同步结果
+ * 客户端先按 upserts 新增或覆盖本地副本，再删除 deletes 中的ID，下次用 nextCursor 继续拉取
+ */
+@Data
+@AllArgsConstructor
+public class ChangeSet<T> {
+    private List<T> upserts;
+    private List<Integer> deletes;
+    private String nextCursor;
+    private boolean hasMore;  // 为 true 时应立即再次拉取
+
+    public <R> ChangeSet<R> map(Function<? super T, ? extends R> mapper) {
+        List<R> mapped = upserts.stream().map(mapper).collect(Collectors.toList());
+        return new ChangeSet<>(mapped, deletes, nextCursor, hasMore);
+    }
+}
@@ -0,0 +1,22 @@
+package com.testplatform.dto;
+
+import com.testplatform.entity.enums.TaskStatus;
+import lombok.Data;
+
+import java.util.Map;
+
+/**
+ * 执行任务状态变更事件
+ * 批量入队时只发送一条批次事件（taskId 为空），其余事件对应单个任务的状态变更
+ */
+@Data
+public class ExecutionEvent {
+    private String taskId;
+    private String caseId;
+    private String runId;
+    private TaskStatus status;
+    private String workerId;
+    private String message;
+    private Long timestamp;
+    private Map<String, Long> progress;  // 批次进度：total 及各状态的任务数
+}
@@ -0,0 +1,10 @@
+package com.testplatform.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ExecutionRequest {
+    private List<Integer> caseIds;
+}
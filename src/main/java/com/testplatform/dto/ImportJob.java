@@ -0,0 +1,34 @@
+package com.testplatform.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 用例导入任务
+ */
+@Data
+public class ImportJob {
+    private String jobId;
+    private String fileName;
+    private Status status = Status.PENDING;
+    private long processed;  // 已解析的用例数
+    private long succeeded;
+    private long failed;
+    private List<String> errors = new ArrayList<>();  // 只保留前 MAX_ERRORS 条
+    private Long createdAt;
+    private Long finishedAt;
+
+    public static final int MAX_ERRORS = 100;
+
+    public void addError(String error) {
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(error);
+        }
+    }
+
+    public enum Status {
+        PENDING, RUNNING, COMPLETED, FAILED
+    }
+}
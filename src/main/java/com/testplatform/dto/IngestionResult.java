@@ -0,0 +1,20 @@
+package com.testplatform.dto;
+
+import lombok.Data;
+
+/**
+ * 测试结果导入统计
+ */
+@Data
+public class IngestionResult {
+    private String runId;
+    private String source;
+    private long total;
+    private long matched;
+    private long unmatched;
+    private long passed;
+    private long failed;
+    private long errored;
+    private long skipped;
+    private long elapsedMs;
+}
@@ -0,0 +1,27 @@
+package com.testplatform.dto;
+
+import com.testplatform.entity.enums.TestResultStatus;
+import lombok.Data;
+
+/**
+ * JUnit报告中单个 testcase 的解析结果
+ */
+@Data
+public class JUnitCaseResult {
+    private String className;
+    private String name;
+    private Integer caseId;  // testcase 下 <property name="case_id"> 指定的用例ID
+    private TestResultStatus status = TestResultStatus.PASSED;
+    private Long durationMs;
+    private String message;
+
+    /**
+     * 与 test_case.automation_key 匹配的键：classname.name
+     */
+    public String getAutomationKey() {
+        if (className == null || className.isEmpty()) {
+            return name;
+        }
+        return className + "." + name;
+    }
+}
@@ -0,0 +1,40 @@
+package com.testplatform.dto;
+
+import com.testplatform.entity.Module;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 启用模块目录快照
+ * 构建后不再修改；json 为预先编码好的完整响应体，etag 为其摘要，builtAt 为构建时间（毫秒）
+ */
+@Getter
+@AllArgsConstructor
+public class ModuleCatalogSnapshot {
+    private final long version;
+    private final List<Module> modules;
+    private final byte[] json;
+    private final String etag;
+    private final long builtAt;
+
+    /**
+     * 请求头 If-None-Match 中是否包含当前版本的ETag（忽略弱校验前缀 W/）
+     */
+    public boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String value = tag.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
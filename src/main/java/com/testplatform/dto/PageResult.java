@@ -0,0 +1,27 @@
+package com.testplatform.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 分页查询结果
+ * 偏移分页和游标分页共用；total 为 null 表示未计算总数
+ */
+@Data
+@AllArgsConstructor
+public class PageResult<T> {
+    private List<T> content;
+    private Long total;
+    private boolean approximate;  // total 是否为近似值
+    private boolean hasNext;
+    private String nextCursor;  // 仅游标分页时返回，没有下一页时为 null
+
+    public <R> PageResult<R> map(Function<? super T, ? extends R> mapper) {
+        List<R> mapped = content.stream().map(mapper).collect(Collectors.toList());
+        return new PageResult<>(mapped, total, approximate, hasNext, nextCursor);
+    }
+}
@@ -7,4 +7,6 @@ public class RequirementSearchRequest {
     private String keyword;
     private int page = 1;
     private int pageSize = 10;
+    private String cursor;  // 游标分页，用法同用例查询
+    private String totalMode;  // 总数计算方式：exact（默认）、approximate、none
 } 
\ No newline at end of file
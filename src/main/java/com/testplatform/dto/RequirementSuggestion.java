@@ -0,0 +1,15 @@
+package com.testplatform.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 需求联想结果
+ */
+@Data
+@AllArgsConstructor
+public class RequirementSuggestion {
+    private Integer id;
+    private String reqCode;
+    private String reqName;
+}
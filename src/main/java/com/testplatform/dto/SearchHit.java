@@ -0,0 +1,19 @@
+package com.testplatform.dto;
+
+import com.testplatform.search.SearchDocumentType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 全文检索结果
+ */
+@Data
+@AllArgsConstructor
+public class SearchHit {
+    private SearchDocumentType type;
+    private Integer id;
+    private String code;
+    private String title;
+    private String summary;  // 正文开头的片段
+    private float score;
+}
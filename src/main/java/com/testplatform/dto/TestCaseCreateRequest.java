@@ -12,5 +12,7 @@ public class TestCaseCreateRequest {
     private List<Integer> requirementIds;
     private String steps;
     private String precondition;
+    private String apiSteps;
+    private String automationKey;
     private String remark;
 } 
\ No newline at end of file
@@ -17,6 +17,8 @@ public class TestCaseDetailDTO {
     private TestCaseStatus status;
     private String steps;
     private String precondition;
+    private String apiSteps;
+    private String automationKey;
     private String remark;
     private String creator;
     private LocalDateTime createdAt;
@@ -38,6 +40,8 @@ public class TestCaseDetailDTO {
         dto.setStatus(testCase.getStatus());
         dto.setSteps(testCase.getCaseDetail());
         dto.setPrecondition(testCase.getPrecondition());
+        dto.setApiSteps(testCase.getApiSteps());
+        dto.setAutomationKey(testCase.getAutomationKey());
         dto.setCreator(testCase.getCreator().getRealName());
         dto.setCreatedAt(testCase.getCreatedAt());
         dto.setUpdatedAt(testCase.getUpdatedAt());
@@ -0,0 +1,21 @@
+package com.testplatform.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 导入文件中的一条用例
+ */
+@Data
+public class TestCaseImportRow {
+    private int rowNumber;  // 表格中的行号，XMind中的用例序号
+    private String title;
+    private String priority;
+    private String precondition;
+    private String steps;
+    private String remark;
+    private String automationKey;
+    private List<String> requirementCodes = new ArrayList<>();
+}
@@ -17,4 +17,7 @@ public class TestCaseQueryRequest {
     private Integer userId;
     private String creatorName;
     private List<Integer> requirementIds;
+    private String cursor;  // 游标分页：传空串取第一页，之后传上一页返回的 nextCursor；不传则按 page 分页
+    private String totalMode;  // 总数计算方式：exact（默认）、approximate、none
+    private String fields;  // 逗号分隔的返回字段，不传时返回完整数据
 } 
\ No newline at end of file
@@ -13,6 +13,8 @@ public class TestCaseUpdateRequest {
     private TestCaseStatus status;
     private String steps;
     private String precondition;
+    private String apiSteps;
+    private String automationKey;
     private String remark;
     private List<Integer> requirementIds;
 } 
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.testplatform.entity;
+
+import lombok.Data;
+import org.hibernate.annotations.CreationTimestamp;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 删除墓碑
+ * 记录被删除的记录，供增量同步接口通知客户端删除本地副本；超过保留期后清理
+ */
+@Data
+@Entity
+@Table(name = "change_tombstone")
+public class ChangeTombstone {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long seq;  // 单调递增的变更序号
+
+    @Column(name = "entity_type", nullable = false, length = 20)
+    private String entityType;  // 表名，如 test_case
+
+    @Column(name = "entity_id", nullable = false)
+    private Integer entityId;
+
+    @CreationTimestamp
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+}
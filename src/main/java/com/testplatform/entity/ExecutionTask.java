@@ -18,8 +18,26 @@ public class ExecutionTask {
     
     private String caseId;
     
+    private String runId;  // 同一次提交的任务共享一个批次ID，用于统计执行进度
+    
     private TaskStatus status = TaskStatus.QUEUED;  // 设置默认状态为已排队
     
+    private String workerId;  // 领取任务的执行节点
+    
+    private Integer attempts = 0;  // 已领取次数（执行节点失联后重新入队会增加）
+    
+    private Long createdAt;  // 创建时间（毫秒时间戳，下同）
+    
+    private Long queuedAt;  // 最近一次入队时间
+    
+    private Long startedAt;  // 开始执行时间
+    
+    private Long finishedAt;  // 结束时间
+    
+    private Long leaseUntil;  // 租约到期时间，执行节点通过心跳续约
+    
+    private String message;  // 执行结果说明或失败原因
+    
     @TimeToLive
     private Long timeout;
 } 
\ No newline at end of file
@@ -1,6 +1,9 @@
 package com.testplatform.entity;
 
+import com.testplatform.config.SecondLevelCacheConfig;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
@@ -11,6 +14,8 @@ import java.time.LocalDateTime;
 @Data
 @Entity
 @Table(name = "module")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.MODULE_REGION)
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Module {
     @Id
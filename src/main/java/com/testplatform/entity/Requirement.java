@@ -1,7 +1,10 @@
 package com.testplatform.entity;
 
 import com.testplatform.entity.enums.RequirementStatus;
+import com.testplatform.config.SecondLevelCacheConfig;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
@@ -12,6 +15,8 @@ import java.time.LocalDateTime;
 @Data
 @Entity
 @Table(name = "requirement")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.REQUIREMENT_REGION)
 public class Requirement {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -36,7 +41,10 @@ public class Requirement {
     @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
     private Module module;
 
-    @Column(name = "executor_ids", length = 255)
+    /**
+     * 执行者ID列表（逗号分隔），仅用于展示；按执行者查询使用 requirement_executor 表
+     */
+    @Column(name = "executor_ids", columnDefinition = "TEXT")
     private String executorIds;
 
     @Enumerated(EnumType.STRING)
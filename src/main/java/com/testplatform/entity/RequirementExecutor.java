@@ -0,0 +1,32 @@
+package com.testplatform.entity;
+
+import lombok.Data;
+import org.hibernate.annotations.CreationTimestamp;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 需求执行者分配
+ * 每个执行者一行，按用户查询所分配的需求走 (user_id, requirement_id) 索引
+ */
+@Data
+@Entity
+@Table(name = "requirement_executor")
+public class RequirementExecutor {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "requirement_id", nullable = false)
+    private Requirement requirement;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,53 @@
+package com.testplatform.entity;
+
+import lombok.Data;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 定时执行计划实体类
+ * 用例范围为 caseIds 与 requirementId 关联用例的并集
+ */
+@Data
+@Entity
+@Table(name = "scheduled_run")
+public class ScheduledRun {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(nullable = false, length = 200)
+    private String name;
+
+    @Column(name = "cron_expression", nullable = false, length = 100)
+    private String cronExpression;  // Spring cron 表达式（秒 分 时 日 月 周）
+
+    @Column(name = "case_ids", columnDefinition = "TEXT")
+    private String caseIds;  // 逗号分隔的用例ID
+
+    @Column(name = "requirement_id")
+    private Integer requirementId;  // 执行该需求关联的全部用例
+
+    @Column(nullable = false)
+    private Boolean enabled = true;
+
+    @Column(name = "next_fire_time")
+    private LocalDateTime nextFireTime;
+
+    @Column(name = "last_fire_time")
+    private LocalDateTime lastFireTime;
+
+    @Column(name = "last_run_id", length = 36)
+    private String lastRunId;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
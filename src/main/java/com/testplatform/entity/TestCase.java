@@ -4,6 +4,8 @@ import com.testplatform.entity.enums.TestCasePriority;
 import com.testplatform.entity.enums.TestCaseStatus;
 import lombok.Data;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 import org.hibernate.annotations.UpdateTimestamp;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.testplatform.converter.TestCaseStatusConverter;
@@ -20,8 +22,17 @@ import java.util.Set;
 @Entity
 @Table(name = "test_case")
 public class TestCase {
+    // 使用号段分配主键（与批量导入共用 id_sequence），使Hibernate可以批量插入
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "test_case_id")
+    @GenericGenerator(name = "test_case_id", strategy = "org.hibernate.id.enhanced.TableGenerator", parameters = {
+        @Parameter(name = "table_name", value = "id_sequence"),
+        @Parameter(name = "segment_column_name", value = "name"),
+        @Parameter(name = "value_column_name", value = "next_val"),
+        @Parameter(name = "segment_value", value = "test_case"),
+        @Parameter(name = "increment_size", value = "50"),
+        @Parameter(name = "optimizer", value = "pooled-lo")
+    })
     private Integer id;
 
     @Column(nullable = false, length = 200)
@@ -37,6 +48,12 @@ public class TestCase {
     @Column(columnDefinition = "TEXT")
     private String precondition;
 
+    @Column(name = "api_steps", columnDefinition = "TEXT")
+    private String apiSteps;  // 接口测试步骤（JSON数组，结构见 ApiStep）
+
+    @Column(name = "automation_key", length = 500, unique = true)
+    private String automationKey;  // 自动化用例标识（classname.name），用于匹配CI上报的测试结果
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "creator_id", nullable = false)
     @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
@@ -55,7 +72,7 @@ public class TestCase {
     private Set<Requirement> requirements = new HashSet<>();
 
     @CreationTimestamp
-    @Column(name = "created_at", updatable = false)
+    @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
     @UpdateTimestamp
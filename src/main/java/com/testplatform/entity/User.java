@@ -1,7 +1,10 @@
 package com.testplatform.entity;
 
 import com.testplatform.entity.enums.UserRole;
+import com.testplatform.config.SecondLevelCacheConfig;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import javax.persistence.*;
 import java.time.LocalDateTime;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
@@ -12,6 +15,8 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 @Data
 @Entity
 @Table(name = "user")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.USER_REGION)
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class User {
     @Id
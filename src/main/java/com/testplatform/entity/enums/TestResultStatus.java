@@ -0,0 +1,21 @@
+package com.testplatform.entity.enums;
+
+/**
+ * 用例执行结果状态枚举
+ */
+public enum TestResultStatus {
+    PASSED("通过"),
+    FAILED("失败"),
+    ERROR("异常"),
+    SKIPPED("跳过");
+
+    private final String description;
+
+    TestResultStatus(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
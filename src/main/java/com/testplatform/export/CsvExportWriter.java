@@ -0,0 +1,58 @@
+package com.testplatform.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * CSV导出（UTF-8带BOM，Excel可直接打开）
+ */
+public class CsvExportWriter implements ExportWriter {
+
+    private final Writer writer;
+
+    public CsvExportWriter(OutputStream out, List<String> columns) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 16 * 1024);
+        writer.write('\uFEFF');
+        writeLine(columns);
+    }
+
+    @Override
+    public void writeRow(List<Object> values) throws IOException {
+        writeLine(values);
+    }
+
+    private void writeLine(List<?> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            Object value = values.get(i);
+            if (value != null) {
+                writeField(value.toString());
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    private void writeField(String value) throws IOException {
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+            || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.flush();
+    }
+}
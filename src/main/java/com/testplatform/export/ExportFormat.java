@@ -0,0 +1,53 @@
+package com.testplatform.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 导出格式
+ */
+public enum ExportFormat {
+    CSV("csv", "text/csv;charset=UTF-8"),
+    NDJSON("ndjson", "application/x-ndjson"),
+    XLSX("xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+
+    private final String extension;
+    private final String contentType;
+
+    ExportFormat(String extension, String contentType) {
+        this.extension = extension;
+        this.contentType = contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public ExportWriter open(OutputStream out, List<String> columns) throws IOException {
+        switch (this) {
+            case CSV:
+                return new CsvExportWriter(out, columns);
+            case NDJSON:
+                return new NdjsonExportWriter(out, columns);
+            default:
+                return new XlsxExportWriter(out, columns);
+        }
+    }
+
+    public static ExportFormat of(String value) {
+        if (value == null || value.isEmpty()) {
+            return CSV;
+        }
+        try {
+            return valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("不支持的导出格式: " + value);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.testplatform.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * 逐行导出写入器
+ * 每行写完即输出到底层流，不缓存已写出的行；close 只写入格式结尾，不关闭底层流
+ */
+public interface ExportWriter extends Closeable {
+
+    /**
+     * 写入一行，值的顺序与列一致
+     */
+    void writeRow(List<Object> values) throws IOException;
+}
@@ -0,0 +1,52 @@
+package com.testplatform.export;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * NDJSON导出，每行一个JSON对象，键为列名
+ */
+public class NdjsonExportWriter implements ExportWriter {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final JsonGenerator generator;
+    private final List<String> columns;
+
+    public NdjsonExportWriter(OutputStream out, List<String> columns) throws IOException {
+        this.generator = JSON_FACTORY.createGenerator(out, JsonEncoding.UTF8);
+        // 对象之间以换行分隔
+        this.generator.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+        this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.columns = columns;
+    }
+
+    @Override
+    public void writeRow(List<Object> values) throws IOException {
+        generator.writeStartObject();
+        for (int i = 0; i < columns.size(); i++) {
+            Object value = values.get(i);
+            generator.writeFieldName(columns.get(i));
+            if (value == null) {
+                generator.writeNull();
+            } else if (value instanceof Integer || value instanceof Long) {
+                generator.writeNumber(((Number) value).longValue());
+            } else {
+                generator.writeString(value.toString());
+            }
+        }
+        generator.writeEndObject();
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.writeRaw('\n');
+        generator.close();
+    }
+}
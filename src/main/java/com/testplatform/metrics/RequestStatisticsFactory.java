@@ -0,0 +1,52 @@
+package com.testplatform.metrics;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.internal.StatisticsImpl;
+import org.hibernate.stat.spi.StatisticsFactory;
+import org.hibernate.stat.spi.StatisticsImplementor;
+
+/**
+ * Hibernate统计
+ * 全局统计保持不变（供 hibernate.* 指标使用），同时把查询返回行数和延迟加载次数计入当前请求
+ */
+public class RequestStatisticsFactory implements StatisticsFactory {
+
+    @Override
+    public StatisticsImplementor buildStatistics(SessionFactoryImplementor sessionFactory) {
+        return new RequestStatistics(sessionFactory);
+    }
+
+    private static class RequestStatistics extends StatisticsImpl {
+
+        RequestStatistics(SessionFactoryImplementor sessionFactory) {
+            super(sessionFactory);
+        }
+
+        @Override
+        public void queryExecuted(String hql, int rows, long time) {
+            super.queryExecuted(hql, rows, time);
+            SqlRequestStats stats = SqlRequestStats.current();
+            if (stats != null) {
+                stats.rows(rows);
+            }
+        }
+
+        @Override
+        public void fetchEntity(String entityName) {
+            super.fetchEntity(entityName);
+            SqlRequestStats stats = SqlRequestStats.current();
+            if (stats != null) {
+                stats.fetch();
+            }
+        }
+
+        @Override
+        public void fetchCollection(String role) {
+            super.fetchCollection(role);
+            SqlRequestStats stats = SqlRequestStats.current();
+            if (stats != null) {
+                stats.fetch();
+            }
+        }
+    }
+}
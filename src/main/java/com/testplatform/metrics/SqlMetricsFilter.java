@@ -0,0 +1,107 @@
+package com.testplatform.metrics;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按接口统计SQL
+ * 每个请求绑定一个 SqlRequestStats，请求结束后按 method + 路由模板记录：
+ * http.server.sql.statements 语句数、http.server.sql.rows 行数、http.server.sql.time 执行耗时、
+ * http.server.sql.connection.wait 获取连接等待时间、http.server.sql.n_plus_one 疑似N+1次数。
+ * 连接池本身的等待/占用时间见 hikaricp.connections.acquire / hikaricp.connections.usage。
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class SqlMetricsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+    private final int nPlusOneThreshold;
+    private final Cache<String, Boolean> loggedCandidates;  // 同一条疑似N+1语句限频打印
+
+    public SqlMetricsFilter(MeterRegistry meterRegistry,
+                            @Value("${sql-metrics.n-plus-one-threshold:5}") int nPlusOneThreshold,
+                            @Value("${sql-metrics.n-plus-one-log-interval-seconds:300}") long logIntervalSeconds) {
+        this.meterRegistry = meterRegistry;
+        this.nPlusOneThreshold = nPlusOneThreshold;
+        this.loggedCandidates = Caffeine.newBuilder()
+                .maximumSize(1000)
+                .expireAfterWrite(logIntervalSeconds, TimeUnit.SECONDS)
+                .build();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlRequestStats stats = new SqlRequestStats(nPlusOneThreshold);
+        SqlRequestStats.bind(stats);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlRequestStats.unbind();
+            record(request, stats);
+        }
+    }
+
+    private void record(HttpServletRequest request, SqlRequestStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern == null) {
+            return;  // 未匹配到接口（静态资源、404等），避免按原始路径产生大量指标
+        }
+        String method = request.getMethod();
+        String uri = pattern.toString();
+
+        DistributionSummary.builder("http.server.sql.statements")
+                .description("每个请求执行的SQL语句数")
+                .tags("method", method, "uri", uri)
+                .register(meterRegistry)
+                .record(stats.getStatements());
+        DistributionSummary.builder("http.server.sql.rows")
+                .description("每个请求查询返回及延迟加载的行数")
+                .tags("method", method, "uri", uri)
+                .register(meterRegistry)
+                .record(stats.getRows());
+        Timer.builder("http.server.sql.time")
+                .description("每个请求执行SQL的总耗时")
+                .tags("method", method, "uri", uri)
+                .register(meterRegistry)
+                .record(stats.getExecuteNanos(), TimeUnit.NANOSECONDS);
+        Timer.builder("http.server.sql.connection.wait")
+                .description("每个请求等待数据库连接的总耗时")
+                .tags("method", method, "uri", uri)
+                .register(meterRegistry)
+                .record(stats.getConnectionWaitNanos(), TimeUnit.NANOSECONDS);
+
+        if (stats.getNPlusOneCandidates().isEmpty()) {
+            return;
+        }
+        Counter.builder("http.server.sql.n_plus_one")
+                .description("出现重复查询（疑似N+1）的请求数")
+                .tags("method", method, "uri", uri)
+                .register(meterRegistry)
+                .increment();
+        for (String sql : stats.getNPlusOneCandidates()) {
+            if (loggedCandidates.asMap().putIfAbsent(method + " " + uri + "\n" + sql, Boolean.TRUE) == null) {
+                log.warn("疑似N+1查询: {} {} 同一语句执行{}次: {}", method, uri, stats.getShapeCount(sql), sql);
+            }
+        }
+    }
+}
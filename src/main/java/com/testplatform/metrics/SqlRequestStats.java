@@ -0,0 +1,123 @@
+package com.testplatform.metrics;
+
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 单个请求内的SQL统计
+ * 由 SqlMetricsFilter 在请求开始时绑定到当前线程，Hibernate的各个回调向其中累加。
+ * 异步线程（流式导出、SSE推送）中执行的语句不计入。
+ */
+@Getter
+public class SqlRequestStats {
+
+    private static final ThreadLocal<SqlRequestStats> CURRENT = new ThreadLocal<>();
+
+    private static final int MAX_SHAPES = 500;  // 单个请求最多跟踪的不同语句数
+
+    private final int nPlusOneThreshold;
+    private int statements;
+    private long rows;
+    private int entityFetches;  // 延迟加载触发的实体/集合加载次数
+    private long executeNanos;
+    private long connectionWaitNanos;
+    private final Map<String, Integer> shapeCounts = new HashMap<>();
+    private final Set<String> nPlusOneCandidates = new LinkedHashSet<>();
+
+    private long executeStart;
+    private long connectionStart;
+
+    public SqlRequestStats(int nPlusOneThreshold) {
+        this.nPlusOneThreshold = nPlusOneThreshold;
+    }
+
+    public static void bind(SqlRequestStats stats) {
+        CURRENT.set(stats);
+    }
+
+    public static void unbind() {
+        CURRENT.remove();
+    }
+
+    /**
+     * 当前线程的统计，不在请求中时返回 null
+     */
+    public static SqlRequestStats current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 记录一条语句；同一条查询（参数均为占位符）重复执行达到阈值时视为疑似N+1
+     */
+    void statement(String sql) {
+        statements++;
+        if (!sql.regionMatches(true, 0, "select", 0, 6)) {
+            return;
+        }
+        Integer count = shapeCounts.get(sql);
+        if (count == null && shapeCounts.size() >= MAX_SHAPES) {
+            return;
+        }
+        count = count == null ? 1 : count + 1;
+        shapeCounts.put(sql, count);
+        if (count == nPlusOneThreshold) {
+            nPlusOneCandidates.add(sql);
+        }
+    }
+
+    void rows(int count) {
+        rows += count;
+    }
+
+    void fetch() {
+        entityFetches++;
+        rows++;
+    }
+
+    void executeStart() {
+        executeStart = System.nanoTime();
+    }
+
+    void executeEnd() {
+        if (executeStart != 0) {
+            executeNanos += System.nanoTime() - executeStart;
+            executeStart = 0;
+        }
+    }
+
+    void connectionStart() {
+        connectionStart = System.nanoTime();
+    }
+
+    void connectionEnd() {
+        if (connectionStart != 0) {
+            connectionWaitNanos += System.nanoTime() - connectionStart;
+            connectionStart = 0;
+        }
+    }
+
+    public int getShapeCount(String sql) {
+        return shapeCounts.getOrDefault(sql, 0);
+    }
+
+    public Set<String> getNPlusOneCandidates() {
+        return Collections.unmodifiableSet(nPlusOneCandidates);
+    }
+
+    /**
+     * 调试响应头的内容
+     */
+    public String toHeaderValue() {
+        return "statements=" + statements
+            + ";rows=" + rows
+            + ";fetches=" + entityFetches
+            + ";time-ms=" + executeNanos / 1_000_000
+            + ";conn-wait-ms=" + connectionWaitNanos / 1_000_000
+            + ";n-plus-one=" + nPlusOneCandidates.size();
+    }
+}
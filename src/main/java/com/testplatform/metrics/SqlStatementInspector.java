@@ -0,0 +1,18 @@
+package com.testplatform.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * 统计Hibernate发出的每条语句，语句本身不做修改
+ */
+public class SqlStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        SqlRequestStats stats = SqlRequestStats.current();
+        if (stats != null) {
+            stats.statement(sql);
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,38 @@
+package com.testplatform.metrics;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * 调试响应头 X-Sql-Stats
+ * 在写出响应体前附上当前请求的SQL统计，序列化阶段触发的延迟加载不在其中。
+ * 仅在 sql-metrics.debug-header=true 时启用。
+ */
+@ControllerAdvice
+@ConditionalOnProperty(name = "sql-metrics.debug-header", havingValue = "true")
+public class SqlStatsHeaderAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String HEADER = "X-Sql-Stats";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        SqlRequestStats stats = SqlRequestStats.current();
+        if (stats != null) {
+            response.getHeaders().set(HEADER, stats.toHeaderValue());
+        }
+        return body;
+    }
+}
@@ -0,0 +1,52 @@
+package com.testplatform.metrics;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * 会话事件监听，统计语句执行耗时和获取连接的等待时间
+ * 由Hibernate为每个会话创建一个实例（hibernate.session.events.auto）
+ */
+public class SqlTimingSessionListener extends BaseSessionEventListener {
+
+    @Override
+    public void jdbcConnectionAcquisitionStart() {
+        SqlRequestStats stats = SqlRequestStats.current();
+        if (stats != null) {
+            stats.connectionStart();
+        }
+    }
+
+    @Override
+    public void jdbcConnectionAcquisitionEnd() {
+        SqlRequestStats stats = SqlRequestStats.current();
+        if (stats != null) {
+            stats.connectionEnd();
+        }
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        SqlRequestStats stats = SqlRequestStats.current();
+        if (stats != null) {
+            stats.executeStart();
+        }
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        SqlRequestStats stats = SqlRequestStats.current();
+        if (stats != null) {
+            stats.executeEnd();
+        }
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        jdbcExecuteStatementStart();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        jdbcExecuteStatementEnd();
+    }
+}
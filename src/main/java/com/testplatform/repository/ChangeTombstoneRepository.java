@@ -0,0 +1,36 @@
+package com.testplatform.repository;
+
+import com.testplatform.entity.ChangeTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ChangeTombstoneRepository extends JpaRepository<ChangeTombstone, Long> {
+
+    /**
+     * 按序号升序查询游标之后、且早于 before 的删除记录
+     */
+    @Query("select t from ChangeTombstone t where t.entityType = :type and t.seq > :seq "
+            + "and t.deletedAt <= :before order by t.seq")
+    List<ChangeTombstone> findAfter(@Param("type") String entityType,
+                                    @Param("seq") Long seq,
+                                    @Param("before") LocalDateTime before,
+                                    Pageable pageable);
+
+    /**
+     * 早于 before 的最大序号，没有时返回 null
+     */
+    @Query("select max(t.seq) from ChangeTombstone t where t.entityType = :type and t.deletedAt <= :before")
+    Long findMaxSeq(@Param("type") String entityType, @Param("before") LocalDateTime before);
+
+    @Modifying
+    @Query("delete from ChangeTombstone t where t.deletedAt < :before")
+    int deleteOlderThan(@Param("before") LocalDateTime before);
+}
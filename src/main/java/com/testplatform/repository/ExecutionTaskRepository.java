@@ -0,0 +1,188 @@
+package com.testplatform.repository;
+
+import com.testplatform.entity.ExecutionTask;
+import com.testplatform.entity.enums.TaskStatus;
+import com.testplatform.util.RedisUtil;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 执行任务数据访问层
+ * 每个任务保存为一个Redis哈希，键为 execution_tasks:{taskId}，与 {@link ExecutionTask} 的 @RedisHash 一致。
+ * 写操作接收 RedisOperations 参数，便于调用方把多条命令放进同一个管道。
+ */
+@Repository
+@RequiredArgsConstructor
+public class ExecutionTaskRepository {
+
+    private static final String KEY_PREFIX = "execution_tasks:";
+    private static final String FIELD_STATUS = "status";
+
+    // 状态为 ARGV[1] 时写入 ARGV[2..] 中的字段/值对；值与 status 均为序列化后的字节
+    private static final RedisScript<Long> COMPARE_AND_SET_SCRIPT = new DefaultRedisScript<>(
+        "if redis.call('hget', KEYS[1], 'status') == ARGV[1] then "
+            + "redis.call('hset', KEYS[1], unpack(ARGV, 2)) return 1 else return 0 end",
+        Long.class);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisUtil redisUtil;
+
+    public static String key(String taskId) {
+        return KEY_PREFIX + taskId;
+    }
+
+    /**
+     * 保存任务的全部非空字段
+     */
+    public void save(ExecutionTask task, RedisOperations<String, Object> operations) {
+        operations.opsForHash().putAll(key(task.getTaskId()), toHash(task));
+    }
+
+    /**
+     * 更新部分字段
+     */
+    public void updateFields(String taskId, Map<String, Object> fields, RedisOperations<String, Object> operations) {
+        operations.opsForHash().putAll(key(taskId), fields);
+    }
+
+    /**
+     * 按状态比较并更新：仅当任务当前状态为 expected 时才写入 fields（fields 中应包含新的 status）
+     * 多个节点并发变更同一任务的状态时只有一个能成功
+     * @return 是否写入
+     */
+    @SuppressWarnings("unchecked")
+    public boolean compareAndSetStatus(String taskId, TaskStatus expected, Map<String, Object> fields) {
+        RedisSerializer<Object> valueSerializer = (RedisSerializer<Object>) redisTemplate.getHashValueSerializer();
+        List<byte[]> args = new ArrayList<>(fields.size() * 2 + 1);
+        args.add(valueSerializer.serialize(expected.name()));
+        fields.forEach((field, value) -> {
+            args.add(StringRedisSerializer.UTF_8.serialize(field));
+            args.add(valueSerializer.serialize(value));
+        });
+        Long updated = redisTemplate.execute(COMPARE_AND_SET_SCRIPT, RedisSerializer.byteArray(),
+            new GenericToStringSerializer<>(Long.class), Collections.singletonList(key(taskId)), args.toArray());
+        return updated != null && updated == 1L;
+    }
+
+    /**
+     * 删除部分字段
+     */
+    public void removeFields(String taskId, RedisOperations<String, Object> operations, String... fields) {
+        operations.opsForHash().delete(key(taskId), (Object[]) fields);
+    }
+
+    /**
+     * 设置任务保留时间
+     */
+    public void expire(String taskId, long seconds, RedisOperations<String, Object> operations) {
+        operations.expire(key(taskId), seconds, TimeUnit.SECONDS);
+    }
+
+    public ExecutionTask findById(String taskId) {
+        Map<Object, Object> hash = redisTemplate.opsForHash().entries(key(taskId));
+        return hash.isEmpty() ? null : fromHash(taskId, hash);
+    }
+
+    /**
+     * 批量查询（一次往返），不存在的任务会被忽略
+     */
+    public List<ExecutionTask> findAllById(Collection<String> taskIds) {
+        List<String> ids = new ArrayList<>(taskIds);
+        List<Map<Object, Object>> hashes = redisUtil.multiGetHashes(
+            ids.stream().map(ExecutionTaskRepository::key).collect(Collectors.toList()));
+        List<ExecutionTask> tasks = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            if (!hashes.get(i).isEmpty()) {
+                tasks.add(fromHash(ids.get(i), hashes.get(i)));
+            }
+        }
+        return tasks;
+    }
+
+    /**
+     * 批量查询任务状态（一次往返，只读取 status 字段），不存在的任务不包含在结果中
+     * @return 任务ID -> 状态，顺序与 taskIds 一致
+     */
+    public Map<String, TaskStatus> findStatuses(Collection<String> taskIds) {
+        List<String> ids = new ArrayList<>(taskIds);
+        List<Object> statuses = redisUtil.multiGetHashField(
+            ids.stream().map(ExecutionTaskRepository::key).collect(Collectors.toList()), FIELD_STATUS);
+        Map<String, TaskStatus> result = new LinkedHashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            String status = asString(statuses.get(i));
+            if (status != null) {
+                result.put(ids.get(i), TaskStatus.valueOf(status));
+            }
+        }
+        return result;
+    }
+
+    private static Map<String, Object> toHash(ExecutionTask task) {
+        Map<String, Object> hash = new HashMap<>();
+        putIfNotNull(hash, "caseId", task.getCaseId());
+        putIfNotNull(hash, "runId", task.getRunId());
+        putIfNotNull(hash, FIELD_STATUS, task.getStatus() != null ? task.getStatus().name() : null);
+        putIfNotNull(hash, "workerId", task.getWorkerId());
+        putIfNotNull(hash, "attempts", task.getAttempts());
+        putIfNotNull(hash, "createdAt", task.getCreatedAt());
+        putIfNotNull(hash, "queuedAt", task.getQueuedAt());
+        putIfNotNull(hash, "startedAt", task.getStartedAt());
+        putIfNotNull(hash, "finishedAt", task.getFinishedAt());
+        putIfNotNull(hash, "leaseUntil", task.getLeaseUntil());
+        putIfNotNull(hash, "message", task.getMessage());
+        return hash;
+    }
+
+    private static void putIfNotNull(Map<String, Object> hash, String field, Object value) {
+        if (value != null) {
+            hash.put(field, value);
+        }
+    }
+
+    private static ExecutionTask fromHash(String taskId, Map<Object, Object> hash) {
+        ExecutionTask task = new ExecutionTask();
+        task.setTaskId(taskId);
+        task.setCaseId(asString(hash.get("caseId")));
+        task.setRunId(asString(hash.get("runId")));
+        String status = asString(hash.get(FIELD_STATUS));
+        task.setStatus(status != null ? TaskStatus.valueOf(status) : null);
+        task.setWorkerId(asString(hash.get("workerId")));
+        Long attempts = asLong(hash.get("attempts"));
+        task.setAttempts(attempts != null ? attempts.intValue() : 0);
+        task.setCreatedAt(asLong(hash.get("createdAt")));
+        task.setQueuedAt(asLong(hash.get("queuedAt")));
+        task.setStartedAt(asLong(hash.get("startedAt")));
+        task.setFinishedAt(asLong(hash.get("finishedAt")));
+        task.setLeaseUntil(asLong(hash.get("leaseUntil")));
+        task.setMessage(asString(hash.get("message")));
+        return task;
+    }
+
+    private static String asString(Object value) {
+        return value != null ? value.toString() : null;
+    }
+
+    private static Long asLong(Object value) {
+        if (value == null) {
+            return null;
+        }
+        return value instanceof Number ? ((Number) value).longValue() : Long.valueOf(value.toString());
+    }
+}
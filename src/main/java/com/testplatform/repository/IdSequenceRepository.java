@@ -0,0 +1,40 @@
+package com.testplatform.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 主键号段分配
+ * id_sequence 表中每个序列保存下一个可用ID，分配时在独立事务中加锁读取并推进，
+ * 与实体上 pooled-lo 优化的 TableGenerator 使用同一张表、同一语义，两者分配的号段不会重叠。
+ */
+@Repository
+@RequiredArgsConstructor
+public class IdSequenceRepository {
+
+    public static final String TABLE = "id_sequence";
+    public static final String TEST_CASE = "test_case";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 分配连续的 count 个ID
+     * @return 号段的第一个ID，号段为 [返回值, 返回值 + count)
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public long allocate(String sequence, int count) {
+        Long next;
+        try {
+            next = jdbcTemplate.queryForObject(
+                "SELECT next_val FROM " + TABLE + " WHERE name = ? FOR UPDATE", Long.class, sequence);
+        } catch (EmptyResultDataAccessException e) {
+            throw new RuntimeException("主键序列未初始化: " + sequence);
+        }
+        jdbcTemplate.update("UPDATE " + TABLE + " SET next_val = ? WHERE name = ?", next + count, sequence);
+        return next;
+    }
+}
@@ -0,0 +1,9 @@
+package com.testplatform.repository;
+
+import com.testplatform.entity.RequirementExecutor;
+import org.springframework.data.jpa.repository.JpaRepository;
+import java.util.List;
+
+public interface RequirementExecutorRepository extends JpaRepository<RequirementExecutor, Integer> {
+    List<RequirementExecutor> findByRequirementId(Integer requirementId);
+}
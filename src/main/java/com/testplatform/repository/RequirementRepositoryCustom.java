@@ -0,0 +1,42 @@
+package com.testplatform.repository;
+
+import com.testplatform.entity.Requirement;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 需求自定义查询
+ */
+public interface RequirementRepositoryCustom {
+
+    /**
+     * 可按需查询的字段
+     */
+    Set<String> PROJECTABLE_FIELDS = Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(
+        "id", "reqCode", "reqName", "description", "reqStatus", "executorIds",
+        "moduleId", "moduleName", "creatorName", "createdAt", "updatedAt")));
+
+    /**
+     * 分页查询需求但不执行 COUNT，多查一条判断是否有下一页
+     */
+    Slice<Requirement> findSlice(Specification<Requirement> spec, Pageable pageable);
+
+    /**
+     * 分页查询指定字段，每行总是包含 id
+     * @param fields PROJECTABLE_FIELDS 中的字段
+     */
+    Page<Map<String, Object>> findFieldPage(Specification<Requirement> spec, Pageable pageable, Set<String> fields);
+
+    /**
+     * 与 findFieldPage 相同，但不执行 COUNT
+     */
+    Slice<Map<String, Object>> findFieldSlice(Specification<Requirement> spec, Pageable pageable, Set<String> fields);
+}
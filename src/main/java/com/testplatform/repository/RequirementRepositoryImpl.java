@@ -0,0 +1,142 @@
+package com.testplatform.repository;
+
+import com.testplatform.entity.Requirement;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 需求自定义查询实现
+ */
+public class RequirementRepositoryImpl implements RequirementRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<Requirement> findSlice(Specification<Requirement> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Requirement> query = cb.createQuery(Requirement.class);
+        Root<Requirement> root = query.from(Requirement.class);
+        query.select(root).orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return toSlice(entityManager.createQuery(query), pageable);
+    }
+
+    @Override
+    public Page<Map<String, Object>> findFieldPage(Specification<Requirement> spec, Pageable pageable,
+                                                   Set<String> fields) {
+        TypedQuery<Tuple> query = fieldQuery(spec, pageable, fields);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset()).setMaxResults(pageable.getPageSize());
+        }
+        List<Map<String, Object>> content = toRows(query.getResultList(), fields);
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(spec));
+    }
+
+    @Override
+    public Slice<Map<String, Object>> findFieldSlice(Specification<Requirement> spec, Pageable pageable,
+                                                     Set<String> fields) {
+        Slice<Tuple> tuples = toSlice(fieldQuery(spec, pageable, fields), pageable);
+        return new SliceImpl<>(toRows(tuples.getContent(), fields), pageable, tuples.hasNext());
+    }
+
+    /**
+     * 构建只查询指定列的查询；模块和创建人只在需要对应字段时才关联
+     */
+    private TypedQuery<Tuple> fieldQuery(Specification<Requirement> spec, Pageable pageable, Set<String> fields) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Requirement> root = query.from(Requirement.class);
+        List<Selection<?>> selections = new ArrayList<>();
+        selections.add(root.get("id").alias("id"));
+        Join<Object, Object> module = null;
+        for (String field : fields) {
+            switch (field) {
+                case "id":
+                    break;
+                case "moduleId":
+                case "moduleName":
+                    if (module == null) {
+                        module = root.join("module", JoinType.LEFT);
+                    }
+                    selections.add(module.get(field.equals("moduleId") ? "id" : "moduleName").alias(field));
+                    break;
+                case "creatorName":
+                    selections.add(root.join("creator", JoinType.LEFT).get("realName").alias(field));
+                    break;
+                default:
+                    selections.add(root.get(field).alias(field));
+            }
+        }
+        query.multiselect(selections).orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query);
+    }
+
+    private static List<Map<String, Object>> toRows(List<Tuple> tuples, Set<String> fields) {
+        return tuples.stream().map(tuple -> {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("id", tuple.get("id"));
+            for (String field : fields) {
+                row.put(field, tuple.get(field));
+            }
+            return row;
+        }).collect(Collectors.toList());
+    }
+
+    private static <T> Slice<T> toSlice(TypedQuery<T> query, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(query.getResultList(), pageable, false);
+        }
+        List<T> content = query
+            .setFirstResult((int) pageable.getOffset())
+            .setMaxResults(pageable.getPageSize() + 1)
+            .getResultList();
+        boolean hasNext = content.size() > pageable.getPageSize();
+        if (hasNext) {
+            content = content.subList(0, pageable.getPageSize());
+        }
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    private long count(Specification<Requirement> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Requirement> root = query.from(Requirement.class);
+        query.select(cb.count(root));
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
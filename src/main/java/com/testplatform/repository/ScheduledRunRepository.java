@@ -0,0 +1,36 @@
+package com.testplatform.repository;
+
+import com.testplatform.entity.ScheduledRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ScheduledRunRepository extends JpaRepository<ScheduledRun, Integer> {
+
+    /**
+     * 查询已到触发时间的计划
+     */
+    List<ScheduledRun> findByEnabledTrueAndNextFireTimeLessThanEqual(LocalDateTime time);
+
+    /**
+     * 推进下次触发时间
+     * 以原触发时间为条件更新，同一次触发只有一个调用方能更新成功
+     */
+    @Modifying
+    @Query("update ScheduledRun s set s.nextFireTime = :next, s.lastFireTime = :fired "
+            + "where s.id = :id and s.nextFireTime = :expected")
+    int advance(@Param("id") Integer id,
+                @Param("expected") LocalDateTime expected,
+                @Param("next") LocalDateTime next,
+                @Param("fired") LocalDateTime fired);
+
+    @Modifying
+    @Query("update ScheduledRun s set s.lastRunId = :runId where s.id = :id")
+    int updateLastRunId(@Param("id") Integer id, @Param("runId") String runId);
+}
@@ -5,12 +5,15 @@ import com.testplatform.entity.enums.TestCaseStatus;
 import com.testplatform.entity.enums.TestCasePriority;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.util.List;
 
 /**
  * 测试用例数据访问层
  */
-public interface TestCaseRepository extends JpaRepository<TestCase, Integer>, JpaSpecificationExecutor<TestCase> {
+public interface TestCaseRepository extends JpaRepository<TestCase, Integer>, JpaSpecificationExecutor<TestCase>,
+        TestCaseRepositoryCustom {
     
     /**
      * 按创建者ID查找测试用例
@@ -26,4 +29,10 @@ public interface TestCaseRepository extends JpaRepository<TestCase, Integer>, Jp
      * 按标题模糊搜索
      */
     List<TestCase> findByTitleContaining(String keyword);
+
+    /**
+     * 查询关联某个需求的用例ID
+     */
+    @Query("select t.id from TestCase t join t.requirements r where r.id = :requirementId")
+    List<Integer> findIdsByRequirementId(@Param("requirementId") Integer requirementId);
 } 
\ No newline at end of file
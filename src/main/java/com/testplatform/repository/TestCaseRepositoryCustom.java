@@ -0,0 +1,62 @@
+package com.testplatform.repository;
+
+import com.testplatform.entity.TestCase;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * 测试用例自定义查询
+ */
+public interface TestCaseRepositoryCustom {
+
+    /**
+     * 可按需查询的字段，requirements 为关联需求列表（id、reqCode、reqName）
+     */
+    Set<String> PROJECTABLE_FIELDS = Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(
+        "id", "title", "priority", "status", "caseDetail", "precondition", "caseRemark", "apiSteps",
+        "automationKey", "creatorName", "requirements", "createdAt", "updatedAt")));
+
+    /**
+     * 分页查询用例，并预加载创建者和关联需求
+     * 先在数据库中按条件分页查出当前页的ID，再按ID一次加载实体及其关联，
+     * 避免对集合做fetch join时Hibernate退化为内存分页（HHH000104）。
+     * @param spec 查询条件，不能包含fetch
+     */
+    Page<TestCase> findPageWithAssociations(Specification<TestCase> spec, Pageable pageable);
+
+    /**
+     * 与 findPageWithAssociations 相同，但不执行 COUNT，多查一条判断是否有下一页
+     */
+    Slice<TestCase> findSliceWithAssociations(Specification<TestCase> spec, Pageable pageable);
+
+    /**
+     * 先分页查ID，再由 loader 按ID加载当前页的数据（loader 需保持ID顺序）
+     */
+    <T> Page<T> findPage(Specification<TestCase> spec, Pageable pageable, Function<List<Integer>, List<T>> loader);
+
+    /**
+     * 与 findPage 相同，但不执行 COUNT
+     */
+    <T> Slice<T> findSlice(Specification<TestCase> spec, Pageable pageable, Function<List<Integer>, List<T>> loader);
+
+    /**
+     * 按ID加载实体、创建者和关联需求，结果按ID顺序返回
+     */
+    List<TestCase> findAllWithAssociations(List<Integer> ids);
+
+    /**
+     * 按ID只查询指定字段，结果按ID顺序返回，每行总是包含 id
+     * @param fields PROJECTABLE_FIELDS 中的字段
+     */
+    List<Map<String, Object>> findFieldsByIds(List<Integer> ids, Set<String> fields);
+}
@@ -0,0 +1,197 @@
+package com.testplatform.repository;
+
+import com.testplatform.entity.TestCase;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Order;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 测试用例自定义查询实现
+ */
+public class TestCaseRepositoryImpl implements TestCaseRepositoryCustom {
+
+    private static final String CREATOR_NAME = "creatorName";
+    private static final String REQUIREMENTS = "requirements";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<TestCase> findPageWithAssociations(Specification<TestCase> spec, Pageable pageable) {
+        return findPage(spec, pageable, this::findAllWithAssociations);
+    }
+
+    @Override
+    public Slice<TestCase> findSliceWithAssociations(Specification<TestCase> spec, Pageable pageable) {
+        return findSlice(spec, pageable, this::findAllWithAssociations);
+    }
+
+    @Override
+    public <T> Page<T> findPage(Specification<TestCase> spec, Pageable pageable,
+                                Function<List<Integer>, List<T>> loader) {
+        List<Integer> ids = findPageIds(spec, pageable, pageable.getPageSize());
+        List<T> content = ids.isEmpty() ? Collections.emptyList() : loader.apply(ids);
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(spec));
+    }
+
+    @Override
+    public <T> Slice<T> findSlice(Specification<TestCase> spec, Pageable pageable,
+                                  Function<List<Integer>, List<T>> loader) {
+        List<Integer> ids = findPageIds(spec, pageable, pageable.getPageSize() + 1);
+        boolean hasNext = ids.size() > pageable.getPageSize();
+        if (hasNext) {
+            ids = ids.subList(0, pageable.getPageSize());
+        }
+        List<T> content = ids.isEmpty() ? Collections.emptyList() : loader.apply(ids);
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    /**
+     * 第一步：只查询当前页的ID，由数据库执行 LIMIT/OFFSET
+     * 追加ID排序，排序字段相同时分页结果稳定
+     */
+    private List<Integer> findPageIds(Specification<TestCase> spec, Pageable pageable, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Integer> query = cb.createQuery(Integer.class);
+        Root<TestCase> root = query.from(TestCase.class);
+        query.select(root.get("id"));
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        List<Order> orders = new ArrayList<>(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        if (pageable.getSort().getOrderFor("id") == null) {
+            orders.add(cb.desc(root.get("id")));
+        }
+        query.orderBy(orders);
+
+        TypedQuery<Integer> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(limit);
+        }
+        return typedQuery.getResultList();
+    }
+
+    /**
+     * 第二步：按ID加载实体、创建者和关联需求，并恢复第一步的顺序
+     */
+    @Override
+    public List<TestCase> findAllWithAssociations(List<Integer> ids) {
+        List<TestCase> testCases = entityManager.createQuery(
+                "select distinct t from TestCase t "
+                    + "left join fetch t.creator "
+                    + "left join fetch t.requirements "
+                    + "where t.id in :ids", TestCase.class)
+            .setParameter("ids", ids)
+            .setHint(QueryHints.HINT_PASS_DISTINCT_THROUGH, false)
+            .getResultList();
+
+        Map<Integer, TestCase> byId = testCases.stream()
+            .collect(Collectors.toMap(TestCase::getId, Function.identity()));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    /**
+     * 只查询请求的列；关联需求单独从关联表查询，不加载用例实体
+     */
+    @Override
+    public List<Map<String, Object>> findFieldsByIds(List<Integer> ids, Set<String> fields) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<TestCase> root = query.from(TestCase.class);
+        List<Selection<?>> selections = new ArrayList<>();
+        selections.add(root.get("id").alias("id"));
+        for (String field : fields) {
+            if (field.equals("id") || field.equals(REQUIREMENTS)) {
+                continue;
+            }
+            if (field.equals(CREATOR_NAME)) {
+                Join<Object, Object> creator = root.join("creator", JoinType.LEFT);
+                selections.add(creator.get("realName").alias(field));
+            } else {
+                selections.add(root.get(field).alias(field));
+            }
+        }
+        query.multiselect(selections).where(root.get("id").in(ids));
+
+        Map<Integer, Map<String, Object>> rows = new HashMap<>();
+        for (Tuple tuple : entityManager.createQuery(query).getResultList()) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("id", tuple.get("id"));
+            for (String field : fields) {
+                if (!field.equals("id") && !field.equals(REQUIREMENTS)) {
+                    row.put(field, tuple.get(field));
+                }
+            }
+            rows.put((Integer) tuple.get("id"), row);
+        }
+
+        if (fields.contains(REQUIREMENTS)) {
+            rows.values().forEach(row -> row.put(REQUIREMENTS, new ArrayList<Map<String, Object>>()));
+            List<Object[]> links = entityManager.createQuery(
+                    "select t.id, r.id, r.reqCode, r.reqName from TestCase t join t.requirements r "
+                        + "where t.id in :ids", Object[].class)
+                .setParameter("ids", ids)
+                .getResultList();
+            for (Object[] link : links) {
+                Map<String, Object> row = rows.get(link[0]);
+                if (row == null) {
+                    continue;
+                }
+                Map<String, Object> requirement = new LinkedHashMap<>();
+                requirement.put("id", link[1]);
+                requirement.put("reqCode", link[2]);
+                requirement.put("reqName", link[3]);
+                @SuppressWarnings("unchecked")
+                List<Map<String, Object>> requirements = (List<Map<String, Object>>) row.get(REQUIREMENTS);
+                requirements.add(requirement);
+            }
+        }
+        return ids.stream().map(rows::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    private long count(Specification<TestCase> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<TestCase> root = query.from(TestCase.class);
+        query.select(cb.count(root));
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
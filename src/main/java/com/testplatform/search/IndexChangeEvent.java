@@ -0,0 +1,28 @@
+package com.testplatform.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 索引变更事件
+ * 只携带类型和ID，提交后由监听方重新读取数据库中的最新数据；记录已不存在时从索引删除。
+ * 其他节点的变更由 SearchService 从Redis收到后以 remote=true 重新发布，监听方无需关心变更来源。
+ */
+@Getter
+@AllArgsConstructor
+public class IndexChangeEvent {
+    private final SearchDocumentType type;
+    private final List<Integer> ids;
+    private final boolean remote;  // 是否来自其他节点
+
+    public IndexChangeEvent(SearchDocumentType type, List<Integer> ids) {
+        this(type, ids, false);
+    }
+
+    public static IndexChangeEvent of(SearchDocumentType type, Integer id) {
+        return new IndexChangeEvent(type, Collections.singletonList(id));
+    }
+}
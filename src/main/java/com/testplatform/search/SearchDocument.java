@@ -0,0 +1,17 @@
+package com.testplatform.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 待写入索引的文档
+ */
+@Data
+@AllArgsConstructor
+public class SearchDocument {
+    private SearchDocumentType type;
+    private Integer id;
+    private String code;  // 需求编号、自动化标识等，支持精确匹配
+    private String title;
+    private String content;  // 正文：用例步骤和前置条件、需求/模块描述
+}
@@ -0,0 +1,95 @@
+package com.testplatform.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 从数据库读取建索引所需的字段
+ * 直接用JDBC只查需要的列，不经过实体和关联加载
+ */
+@Component
+@RequiredArgsConstructor
+public class SearchDocumentLoader {
+
+    // MySQL驱动只有在 fetchSize 为 Integer.MIN_VALUE 时才逐行流式读取
+    private static final int STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+
+    private static final String TEST_CASE_SQL =
+        "SELECT id, automation_key, title, precondition, case_detail FROM test_case";
+    private static final String REQUIREMENT_SQL =
+        "SELECT id, req_code, req_name, description FROM requirement";
+    private static final String MODULE_SQL =
+        "SELECT id, module_name, description FROM module";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    /**
+     * 按ID批量读取，已删除的记录不在返回结果中
+     */
+    public List<SearchDocument> load(SearchDocumentType type, Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<SearchDocument> documents = new ArrayList<>(ids.size());
+        namedParameterJdbcTemplate.query(sql(type) + " WHERE id IN (:ids)",
+            Collections.singletonMap("ids", ids),
+            rs -> {
+                documents.add(map(type, rs));
+            });
+        return documents;
+    }
+
+    /**
+     * 流式遍历某类型的全部记录，用于重建索引
+     */
+    public void forEach(SearchDocumentType type, Consumer<SearchDocument> consumer) {
+        JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getDataSource());
+        streaming.setFetchSize(STREAMING_FETCH_SIZE);
+        streaming.query(sql(type), rs -> {
+            consumer.accept(map(type, rs));
+        });
+    }
+
+    private static String sql(SearchDocumentType type) {
+        switch (type) {
+            case TEST_CASE:
+                return TEST_CASE_SQL;
+            case REQUIREMENT:
+                return REQUIREMENT_SQL;
+            default:
+                return MODULE_SQL;
+        }
+    }
+
+    private static SearchDocument map(SearchDocumentType type, ResultSet rs) throws SQLException {
+        switch (type) {
+            case TEST_CASE:
+                return new SearchDocument(type, rs.getInt("id"), rs.getString("automation_key"),
+                    rs.getString("title"), join(rs.getString("precondition"), rs.getString("case_detail")));
+            case REQUIREMENT:
+                return new SearchDocument(type, rs.getInt("id"), rs.getString("req_code"),
+                    rs.getString("req_name"), rs.getString("description"));
+            default:
+                return new SearchDocument(type, rs.getInt("id"), null,
+                    rs.getString("module_name"), rs.getString("description"));
+        }
+    }
+
+    private static String join(String first, String second) {
+        if (first == null) {
+            return second;
+        }
+        return second == null ? first : first + "\n" + second;
+    }
+}
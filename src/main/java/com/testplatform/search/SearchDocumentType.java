@@ -0,0 +1,20 @@
+package com.testplatform.search;
+
+import java.util.Locale;
+
+/**
+ * 全文检索的文档类型
+ */
+public enum SearchDocumentType {
+    TEST_CASE,
+    REQUIREMENT,
+    MODULE;
+
+    public static SearchDocumentType of(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("不支持的检索类型: " + value);
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.testplatform.search;
+
+import com.testplatform.dto.SearchHit;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.cjk.CJKAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.QueryBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 本地全文索引
+ * 索引保存在本机磁盘上，使用CJK二元分词，中英文混合文本都能检索。
+ * 写入先进入IndexWriter的内存缓冲区，定时刷新搜索器使新文档可见（近实时），定时提交落盘。
+ */
+@Slf4j
+@Component
+public class SearchIndex {
+
+    private static final String FIELD_UID = "uid";
+    private static final String FIELD_TYPE = "type";
+    private static final String FIELD_ID = "id";
+    private static final String FIELD_CODE = "code";
+    private static final String FIELD_CODE_EXACT = "code_exact";
+    private static final String FIELD_TITLE = "title";
+    private static final String FIELD_ALL = "all";
+    private static final String FIELD_SUMMARY = "summary";
+    private static final String FIELD_GENERATION = "generation";
+
+    private static final int SUMMARY_LENGTH = 200;
+    private static final float TITLE_BOOST = 3f;
+    private static final float CODE_BOOST = 10f;
+    // 二元分词后至少匹配的词比例，词序不同的输入（如“密码错误”和“错误密码”）也能命中
+    private static final float MIN_SHOULD_MATCH = 0.75f;
+
+    private final Analyzer analyzer = new CJKAnalyzer();
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private final Timer queryTimer;
+
+    public SearchIndex(@Value("${search.index-dir:data/search-index}") String indexDir,
+                       @Value("${search.ram-buffer-mb:64}") double ramBufferMb,
+                       MeterRegistry meterRegistry) throws IOException {
+        this.directory = FSDirectory.open(Paths.get(indexDir));
+        IndexWriterConfig config = new IndexWriterConfig(analyzer)
+            .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND)
+            .setRAMBufferSizeMB(ramBufferMb);
+        this.writer = new IndexWriter(directory, config);
+        this.searcherManager = new SearcherManager(writer, null);
+        this.queryTimer = Timer.builder("search.query")
+            .description("全文检索耗时")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+        Gauge.builder("search.index.documents", writer, w -> w.getDocStats().numDocs)
+            .description("索引中的文档数")
+            .register(meterRegistry);
+        log.info("全文索引已打开: {}, 文档数: {}", indexDir, writer.getDocStats().numDocs);
+    }
+
+    /**
+     * 写入或替换文档
+     * @param generation 写入批次，重建索引时用于清除本轮没有写入的旧文档
+     */
+    public void upsert(SearchDocument document, long generation) throws IOException {
+        writer.updateDocument(uid(document.getType(), document.getId()), toDocument(document, generation));
+    }
+
+    public void delete(SearchDocumentType type, Integer id) throws IOException {
+        writer.deleteDocuments(uid(type, id));
+    }
+
+    /**
+     * 删除写入批次早于 generation 的文档
+     */
+    public void deleteOlderThan(long generation) throws IOException {
+        writer.deleteDocuments(LongPoint.newRangeQuery(FIELD_GENERATION, Long.MIN_VALUE, generation - 1));
+    }
+
+    public boolean isEmpty() {
+        return writer.getDocStats().numDocs == 0;
+    }
+
+    /**
+     * 提交并立即刷新搜索器
+     */
+    public void commit() throws IOException {
+        writer.commit();
+        searcherManager.maybeRefreshBlocking();
+    }
+
+    /**
+     * 检索
+     * 大部分分词需要在标题、编号或正文中出现，标题命中加权；输入恰好是某个编号时排在最前
+     * @param types 限定文档类型，为空时检索全部类型
+     */
+    public List<SearchHit> search(String text, Set<SearchDocumentType> types, int limit) throws IOException {
+        Query query = buildQuery(text, types);
+        long start = System.nanoTime();
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            TopDocs topDocs = searcher.search(query, limit);
+            List<SearchHit> hits = new ArrayList<>(topDocs.scoreDocs.length);
+            for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                Document document = searcher.doc(scoreDoc.doc);
+                hits.add(new SearchHit(
+                    SearchDocumentType.valueOf(document.get(FIELD_TYPE)),
+                    document.getField(FIELD_ID).numericValue().intValue(),
+                    document.get(FIELD_CODE),
+                    document.get(FIELD_TITLE),
+                    document.get(FIELD_SUMMARY),
+                    scoreDoc.score));
+            }
+            return hits;
+        } finally {
+            searcherManager.release(searcher);
+            queryTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Query buildQuery(String text, Set<SearchDocumentType> types) {
+        QueryBuilder builder = new QueryBuilder(analyzer);
+        Query codeQuery = new BoostQuery(
+            new TermQuery(new Term(FIELD_CODE_EXACT, text.trim().toLowerCase(Locale.ROOT))), CODE_BOOST);
+        Query allQuery = builder.createMinShouldMatchQuery(FIELD_ALL, text, MIN_SHOULD_MATCH);
+
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        if (allQuery == null) {
+            // 输入全部是停用词或符号，只做编号精确匹配
+            query.add(codeQuery, BooleanClause.Occur.MUST);
+        } else {
+            query.add(new BooleanQuery.Builder()
+                .add(allQuery, BooleanClause.Occur.SHOULD)
+                .add(codeQuery, BooleanClause.Occur.SHOULD)
+                .build(), BooleanClause.Occur.MUST);
+            Query titleQuery = builder.createBooleanQuery(FIELD_TITLE, text, BooleanClause.Occur.SHOULD);
+            if (titleQuery != null) {
+                query.add(new BoostQuery(titleQuery, TITLE_BOOST), BooleanClause.Occur.SHOULD);
+            }
+        }
+
+        if (types != null && !types.isEmpty() && types.size() < SearchDocumentType.values().length) {
+            BooleanQuery.Builder typeFilter = new BooleanQuery.Builder();
+            for (SearchDocumentType type : types) {
+                typeFilter.add(new TermQuery(new Term(FIELD_TYPE, type.name())), BooleanClause.Occur.SHOULD);
+            }
+            query.add(typeFilter.build(), BooleanClause.Occur.FILTER);
+        }
+        return query.build();
+    }
+
+    private static Document toDocument(SearchDocument source, long generation) {
+        Document document = new Document();
+        document.add(new StringField(FIELD_UID, uidValue(source.getType(), source.getId()), Field.Store.NO));
+        document.add(new StringField(FIELD_TYPE, source.getType().name(), Field.Store.YES));
+        document.add(new StoredField(FIELD_ID, source.getId()));
+        document.add(new LongPoint(FIELD_GENERATION, generation));
+
+        StringBuilder all = new StringBuilder();
+        if (source.getCode() != null) {
+            document.add(new StoredField(FIELD_CODE, source.getCode()));
+            document.add(new StringField(FIELD_CODE_EXACT, source.getCode().toLowerCase(Locale.ROOT), Field.Store.NO));
+            all.append(source.getCode()).append('\n');
+        }
+        if (source.getTitle() != null) {
+            document.add(new TextField(FIELD_TITLE, source.getTitle(), Field.Store.YES));
+            all.append(source.getTitle()).append('\n');
+        }
+        if (source.getContent() != null) {
+            String content = source.getContent();
+            document.add(new StoredField(FIELD_SUMMARY,
+                content.length() > SUMMARY_LENGTH ? content.substring(0, SUMMARY_LENGTH) : content));
+            all.append(content);
+        }
+        document.add(new TextField(FIELD_ALL, all.toString(), Field.Store.NO));
+        return document;
+    }
+
+    private static Term uid(SearchDocumentType type, Integer id) {
+        return new Term(FIELD_UID, uidValue(type, id));
+    }
+
+    private static String uidValue(SearchDocumentType type, Integer id) {
+        return type.name() + ":" + id;
+    }
+
+    /**
+     * 定时刷新搜索器，使新写入的文档可被检索
+     */
+    @Scheduled(fixedDelayString = "${search.refresh-interval-ms:1000}")
+    public void refresh() {
+        try {
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            log.warn("刷新索引搜索器失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 定时提交，进程异常退出时最多丢失一个周期的增量（可通过重建恢复）
+     */
+    @Scheduled(fixedDelayString = "${search.commit-interval-ms:30000}")
+    public void periodicCommit() {
+        try {
+            if (writer.hasUncommittedChanges()) {
+                writer.commit();
+            }
+        } catch (IOException e) {
+            log.warn("提交索引失败: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+}
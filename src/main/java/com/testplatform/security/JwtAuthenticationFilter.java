@@ -3,6 +3,7 @@ package com.testplatform.security;
 import com.testplatform.util.JwtUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -10,6 +11,7 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 
 import javax.servlet.FilterChain;
@@ -28,7 +30,16 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;  // JWT工具类，用于处理token的生成和验证
+    private final JwtClaimsCache jwtClaimsCache;  // 已验签声明缓存，每个token只解析一次
     private final UserDetailsService userDetailsService;  // 用户详情服务，用于加载用户信息
+    private final RoleVersionService roleVersionService;  // 角色版本服务，用于判断自包含token是否因角色变更而失效
+    private final TokenRevocationService tokenRevocationService;  // token吊销服务，拦截已退出登录的token
+
+    /**
+     * 认证模式：claims 直接由token声明构建认证信息（不查库），lookup 每次请求加载用户信息
+     */
+    @Value("${jwt.auth-mode:claims}")
+    private String authMode;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -43,17 +54,36 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             log.debug("Received JWT: {}", jwt);
 
             if (jwt != null) {
-                // 从token中提取用户名
-                String username = jwtUtil.getUsernameFromToken(jwt);
+                // 解析token（命中缓存时不再重复验签），并提取用户名
+                Claims claims = jwtClaimsCache.getClaims(jwt);
+                String username = claims.getSubject();
                 log.debug("Username from JWT: {}", username);
 
+                // 已退出登录（吊销）的token直接拒绝
+                if (tokenRevocationService.isRevoked(jwt, claims)) {
+                    log.warn("token已吊销: {}", username);
+                    writeUnauthorized(response, "Token已失效，请重新登录");
+                    return;
+                }
+
                 // 如果用户名不为空且当前没有认证信息，则加载用户信息
                 if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                    UserDetails userDetails;
+                    if ("claims".equals(authMode) && JwtUserDetails.hasRoleClaims(claims)) {
+                        // 自包含token：校验角色版本后直接由声明构建用户信息
+                        if (!roleVersionService.isCurrent(username, JwtUserDetails.getRoleVersion(claims))) {
+                            log.warn("用户角色已变更，token失效: {}", username);
+                            writeUnauthorized(response, "权限已变更，请重新登录");
+                            return;
+                        }
+                        userDetails = JwtUserDetails.fromClaims(claims);
+                    } else {
+                        userDetails = userDetailsService.loadUserByUsername(username);
+                    }
                     log.debug("Loaded UserDetails: {}", userDetails);
                     
                     // 验证token的有效性
-                    if (jwtUtil.validateToken(jwt, userDetails)) {
+                    if (jwtUtil.validateToken(claims, userDetails)) {
                         // 创建认证对象并设置到安全上下文中
                         UsernamePasswordAuthenticationToken authentication = 
                             new UsernamePasswordAuthenticationToken(
@@ -73,8 +103,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             }
         } catch (ExpiredJwtException e) {
             log.warn("JWT token已过期: {}", e.getMessage());
-            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-            response.getWriter().write("{\"code\":401,\"message\":\"Token已过期，请重新登录\"}");
+            writeUnauthorized(response, "Token已过期，请重新登录");
             return;  // 直接返回，不继续处理请求
         } catch (Exception e) {
             log.error("认证过程出错: {}", e.getMessage(), e);
@@ -84,6 +113,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * 返回401响应
+     */
+    private void writeUnauthorized(HttpServletResponse response, String message) throws IOException {
+        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        response.setContentType("application/json;charset=UTF-8");
+        response.getWriter().write("{\"code\":401,\"message\":\"" + message + "\"}");
+    }
+
     /**
      * 从请求中获取JWT token
      * @param request HTTP请求
@@ -0,0 +1,83 @@
+package com.testplatform.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.testplatform.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 已验签JWT声明缓存
+ * 以token的SHA-256摘要为键，缓存解析并校验签名后的Claims，
+ * 同一个token在有效期内只做一次HS512验签和声明解码。
+ * 缓存条目在token的exp到达时自动淘汰。
+ */
+@Slf4j
+@Component
+public class JwtClaimsCache {
+
+    private final JwtUtil jwtUtil;
+    private final Cache<String, Claims> cache;
+
+    public JwtClaimsCache(JwtUtil jwtUtil,
+                          MeterRegistry meterRegistry,
+                          @Value("${jwt.claims-cache.max-size:10000}") long maxSize) {
+        this.jwtUtil = jwtUtil;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new ClaimsExpiry())
+                .recordStats()
+                .build();
+        // 通过 /actuator/metrics/cache.gets 等指标查看命中/未命中情况
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwtClaims");
+    }
+
+    /**
+     * 获取已验签的Claims
+     * 未命中时解析token（验签失败或已过期会抛出对应的JwtException），成功后写入缓存
+     */
+    public Claims getClaims(String token) {
+        return cache.get(JwtUtil.digest(token), key -> jwtUtil.getClaimsFromToken(token));
+    }
+
+    /**
+     * 使某个token的缓存失效
+     */
+    public void invalidate(String token) {
+        cache.invalidate(JwtUtil.digest(token));
+    }
+
+    /**
+     * 按token的exp计算条目存活时间
+     */
+    private static class ClaimsExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            Date expiration = claims.getExpiration();
+            if (expiration == null) {
+                return 0L;  // 没有exp的token不缓存
+            }
+            long remainingMillis = expiration.getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0L, remainingMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
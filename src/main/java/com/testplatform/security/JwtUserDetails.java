@@ -0,0 +1,80 @@
+package com.testplatform.security;
+
+import com.testplatform.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * 由JWT声明直接构建的用户信息
+ * 不包含密码，仅用于请求鉴权
+ */
+@Getter
+public class JwtUserDetails implements UserDetails {
+
+    private final Long id;
+    private final String username;
+    private final String role;
+    private final Collection<? extends GrantedAuthority> authorities;
+
+    private JwtUserDetails(Long id, String username, String role) {
+        this.id = id;
+        this.username = username;
+        this.role = role;
+        this.authorities = Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role));
+    }
+
+    /**
+     * 判断token是否为携带角色信息的自包含token
+     */
+    public static boolean hasRoleClaims(Claims claims) {
+        return claims.get(JwtUtil.CLAIM_ROLE) != null
+            && claims.get(JwtUtil.CLAIM_USER_ID) != null
+            && claims.get(JwtUtil.CLAIM_ROLE_VERSION) != null;
+    }
+
+    public static long getRoleVersion(Claims claims) {
+        return ((Number) claims.get(JwtUtil.CLAIM_ROLE_VERSION)).longValue();
+    }
+
+    public static JwtUserDetails fromClaims(Claims claims) {
+        Long id = ((Number) claims.get(JwtUtil.CLAIM_USER_ID)).longValue();
+        String role = claims.get(JwtUtil.CLAIM_ROLE, String.class);
+        return new JwtUserDetails(id, claims.getSubject(), role);
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "JwtUserDetails(id=" + id + ", username=" + username + ", role=" + role + ")";
+    }
+}
@@ -0,0 +1,83 @@
+package com.testplatform.security;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.testplatform.util.RedisUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 用户角色版本服务
+ * 角色版本保存在Redis中，管理员修改用户角色时版本加一，
+ * 携带旧版本号的token随即失效。本地缓存短时间内的版本号，鉴权路径不访问数据库。
+ * 版本变更时通过Redis发布/订阅通知其他节点清除本地缓存。
+ */
+@Slf4j
+@Service
+public class RoleVersionService implements MessageListener {
+
+    private static final String EVICT_CHANNEL = "role-version:evict";
+
+    private final RedisUtil redisUtil;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final LoadingCache<String, Long> versions;
+
+    public RoleVersionService(RedisUtil redisUtil,
+                              RedisMessageListenerContainer listenerContainer,
+                              @Value("${jwt.role-version.local-ttl-seconds:30}") long localTtlSeconds) {
+        this.redisUtil = redisUtil;
+        this.listenerContainer = listenerContainer;
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(10000)
+                .expireAfterWrite(localTtlSeconds, TimeUnit.SECONDS)
+                .build(redisUtil::getRoleVersion);
+    }
+
+    @PostConstruct
+    public void init() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(EVICT_CHANNEL));
+    }
+
+    /**
+     * 获取当前角色版本
+     */
+    public long currentVersion(String username) {
+        return versions.get(username);
+    }
+
+    /**
+     * 判断token中的角色版本是否仍然有效
+     */
+    public boolean isCurrent(String username, long tokenVersion) {
+        return currentVersion(username) == tokenVersion;
+    }
+
+    /**
+     * 角色变更后调用，使该用户已签发的token失效
+     */
+    public void bump(String username) {
+        long version = redisUtil.incrementRoleVersion(username);
+        versions.invalidate(username);
+        redisUtil.publish(EVICT_CHANNEL, username);
+        log.info("用户角色版本更新: {} -> {}", username, version);
+    }
+
+    /**
+     * 接收其他节点发布的版本变更消息
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Object username = redisUtil.deserializeMessage(message.getBody());
+        if (username != null) {
+            versions.invalidate(username.toString());
+        }
+    }
+}
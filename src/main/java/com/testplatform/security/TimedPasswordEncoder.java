@@ -0,0 +1,42 @@
+package com.testplatform.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * 记录耗时的密码编码器
+ * 包装实际的编码器，将每次加密/校验的耗时记录到 auth.password.hash 指标
+ */
+public class TimedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+
+    public TimedPasswordEncoder(PasswordEncoder delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.encodeTimer = Timer.builder("auth.password.hash")
+            .tag("operation", "encode")
+            .register(meterRegistry);
+        this.matchesTimer = Timer.builder("auth.password.hash")
+            .tag("operation", "matches")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return encodeTimer.record(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        Boolean matched = matchesTimer.record(() -> delegate.matches(rawPassword, encodedPassword));
+        return matched != null && matched;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
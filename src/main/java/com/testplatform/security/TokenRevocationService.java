@@ -0,0 +1,163 @@
+package com.testplatform.security;
+
+import com.testplatform.util.BloomFilter;
+import com.testplatform.util.JwtUtil;
+import com.testplatform.util.RedisUtil;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * token吊销服务
+ * 已吊销的token记录在Redis中；每个节点在本地维护一个布隆过滤器，
+ * 通过Redis发布/订阅同步新的吊销记录。鉴权时只有布隆过滤器判定"可能已吊销"的token才访问Redis。
+ * 布隆过滤器定期从Redis重建，清理已过期的记录并补齐漏收的消息。
+ */
+@Slf4j
+@Service
+public class TokenRevocationService implements MessageListener {
+
+    private static final String REVOKED_CHANNEL = "token:revoked";
+
+    private final RedisUtil redisUtil;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final int expectedInsertions;
+    private final double fpp;
+
+    private final Counter bloomNegativeCounter;
+    private final Counter revokedCounter;
+    private final Counter falsePositiveCounter;
+
+    private final Object filterLock = new Object();  // 写入过滤器与重建后的替换互斥
+    private volatile BloomFilter bloomFilter;
+    private BloomFilter rebuildingFilter;  // 重建期间同时写入，避免丢失重建过程中收到的吊销记录
+
+    public TokenRevocationService(RedisUtil redisUtil,
+                                  RedisMessageListenerContainer listenerContainer,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${jwt.revocation.expected-insertions:100000}") int expectedInsertions,
+                                  @Value("${jwt.revocation.fpp:0.01}") double fpp) {
+        this.redisUtil = redisUtil;
+        this.listenerContainer = listenerContainer;
+        this.expectedInsertions = expectedInsertions;
+        this.fpp = fpp;
+        this.bloomFilter = new BloomFilter(expectedInsertions, fpp);
+        this.bloomNegativeCounter = meterRegistry.counter("auth.revocation.checks", "result", "bloom_negative");
+        this.revokedCounter = meterRegistry.counter("auth.revocation.checks", "result", "revoked");
+        this.falsePositiveCounter = meterRegistry.counter("auth.revocation.checks", "result", "false_positive");
+    }
+
+    @PostConstruct
+    public void init() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(REVOKED_CHANNEL));
+        rebuild();
+    }
+
+    /**
+     * 吊销token
+     */
+    public void revoke(String token, Claims claims) {
+        redisUtil.executePipelined(operations -> revoke(token, claims, operations));
+    }
+
+    /**
+     * 吊销token，Redis命令加入调用方的管道中执行
+     */
+    public void revoke(String token, Claims claims, RedisOperations<String, Object> operations) {
+        Date expiration = claims.getExpiration();
+        long remaining = expiration != null ? expiration.getTime() - System.currentTimeMillis() : 0L;
+        if (remaining <= 0) {
+            return;  // 已过期的token无需吊销
+        }
+        String tokenId = getTokenId(token, claims);
+        putToFilters(tokenId);
+        operations.opsForValue().set(RedisUtil.revokedTokenKey(tokenId), 1, remaining, TimeUnit.MILLISECONDS);
+        operations.convertAndSend(REVOKED_CHANNEL, tokenId);
+        log.info("token已吊销: {}", claims.getSubject());
+    }
+
+    /**
+     * 判断token是否已吊销
+     */
+    public boolean isRevoked(String token, Claims claims) {
+        String tokenId = getTokenId(token, claims);
+        if (!bloomFilter.mightContain(tokenId)) {
+            bloomNegativeCounter.increment();
+            return false;
+        }
+        boolean revoked = redisUtil.isTokenRevoked(tokenId);
+        (revoked ? revokedCounter : falsePositiveCounter).increment();
+        return revoked;
+    }
+
+    /**
+     * 接收其他节点发布的吊销消息
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Object tokenId = redisUtil.deserializeMessage(message.getBody());
+        if (tokenId == null) {
+            return;
+        }
+        putToFilters(tokenId.toString());
+    }
+
+    /**
+     * 写入当前过滤器，重建期间同时写入新过滤器
+     */
+    private void putToFilters(String tokenId) {
+        synchronized (filterLock) {
+            bloomFilter.put(tokenId);
+            if (rebuildingFilter != null) {
+                rebuildingFilter.put(tokenId);
+            }
+        }
+    }
+
+    /**
+     * 从Redis重建布隆过滤器
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.rebuild-interval-ms:300000}",
+               initialDelayString = "${jwt.revocation.rebuild-interval-ms:300000}")
+    public void rebuild() {
+        BloomFilter filter = new BloomFilter(expectedInsertions, fpp);
+        synchronized (filterLock) {
+            rebuildingFilter = filter;
+        }
+        try {
+            List<String> tokenIds = redisUtil.scanRevokedTokenIds();
+            tokenIds.forEach(filter::put);
+            synchronized (filterLock) {
+                bloomFilter = filter;
+                rebuildingFilter = null;
+            }
+            log.debug("token吊销布隆过滤器已重建，记录数: {}", tokenIds.size());
+        } catch (Exception e) {
+            log.error("重建token吊销布隆过滤器失败: {}", e.getMessage());
+            synchronized (filterLock) {
+                rebuildingFilter = null;
+            }
+        }
+    }
+
+    /**
+     * 优先使用token的jti，没有jti的旧token使用token摘要
+     */
+    private String getTokenId(String token, Claims claims) {
+        return claims.getId() != null ? claims.getId() : JwtUtil.digest(token);
+    }
+}
@@ -0,0 +1,172 @@
+package com.testplatform.serializer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 紧凑二进制Redis值序列化器
+ * 数据格式：魔数(1字节) + 标记(1字节) + 类型ID(varint) + 数据体（超过阈值时压缩）。
+ * 已注册类型使用对应的 {@link ValueCodec} 编码；未注册类型写入 类名 + JSON。
+ * 读取时首字节不是魔数的数据视为旧的JSON格式，交给 legacySerializer 解析，以便平滑迁移。
+ */
+public class BinaryRedisSerializer implements RedisSerializer<Object> {
+
+    // UTF-8 编码的JSON不会以 0xB1 开头，可以据此区分新旧格式
+    static final int MAGIC = 0xB1;
+    static final int FLAG_COMPRESSED = 0x01;
+
+    private static final byte[] EMPTY_ARRAY = new byte[0];
+
+    private final CodecRegistry registry;
+    private final RedisSerializer<?> legacySerializer;
+    private final ObjectMapper objectMapper;
+    private final int compressThreshold;
+
+    /**
+     * @param registry 编解码器注册表
+     * @param legacySerializer 旧格式（JSON）序列化器，用于读取迁移前写入的数据
+     * @param objectMapper 未注册类型使用的JSON映射器
+     * @param compressThreshold 数据体超过该字节数时压缩，小于等于0表示不压缩
+     */
+    public BinaryRedisSerializer(CodecRegistry registry, RedisSerializer<?> legacySerializer,
+                                 ObjectMapper objectMapper, int compressThreshold) {
+        this.registry = registry;
+        this.legacySerializer = legacySerializer;
+        this.objectMapper = objectMapper;
+        this.compressThreshold = compressThreshold;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return EMPTY_ARRAY;
+        }
+        int typeId = registry.getTypeId(value.getClass());
+        byte[] body = encodeBody(typeId, value);
+
+        int flags = 0;
+        if (compressThreshold > 0 && body.length > compressThreshold) {
+            byte[] compressed = compress(body);
+            if (compressed.length < body.length) {
+                body = compressed;
+                flags |= FLAG_COMPRESSED;
+            }
+        }
+
+        CodecOutput out = new CodecOutput(body.length + 8);
+        out.writeByte(MAGIC);
+        out.writeByte(flags);
+        out.writeUnsignedVarLong(typeId);
+        out.writeBytes(body);
+        return out.toByteArray();
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if ((bytes[0] & 0xFF) != MAGIC) {
+            return legacySerializer.deserialize(bytes);
+        }
+
+        CodecInput header = new CodecInput(bytes, 1);
+        int flags = header.readByte();
+        int typeId = (int) header.readUnsignedVarLong();
+        byte[] body = header.readRemaining();
+        if ((flags & FLAG_COMPRESSED) != 0) {
+            body = decompress(body);
+        }
+        return decodeBody(typeId, body);
+    }
+
+    private byte[] encodeBody(int typeId, Object value) {
+        CodecOutput out = new CodecOutput();
+        if (typeId == CodecRegistry.FALLBACK_TYPE_ID) {
+            try {
+                out.writeString(value.getClass().getName());
+                out.writeBytes(objectMapper.writeValueAsBytes(value));
+            } catch (IOException e) {
+                throw new SerializationException("序列化失败: " + value.getClass().getName(), e);
+            }
+        } else {
+            ValueCodec<Object> codec = registry.getCodec(typeId);
+            codec.write(value, out);
+        }
+        return out.toByteArray();
+    }
+
+    private Object decodeBody(int typeId, byte[] body) {
+        CodecInput in = new CodecInput(body, 0);
+        if (typeId == CodecRegistry.FALLBACK_TYPE_ID) {
+            String className = in.readString();
+            try {
+                return objectMapper.readValue(in.readRemaining(), resolveClass(className));
+            } catch (IOException e) {
+                throw new SerializationException("反序列化失败: " + className, e);
+            }
+        }
+        ValueCodec<Object> codec = registry.getCodec(typeId);
+        if (codec == null) {
+            throw new SerializationException("未知的类型ID: " + typeId);
+        }
+        return codec.read(in);
+    }
+
+    // 只允许反序列化本项目和JDK中的类型
+    private Class<?> resolveClass(String className) {
+        if (className == null || !(className.startsWith("com.testplatform.") || className.startsWith("java."))) {
+            throw new SerializationException("不允许反序列化的类型: " + className);
+        }
+        try {
+            return Class.forName(className);
+        } catch (ClassNotFoundException e) {
+            throw new SerializationException("类型不存在: " + className, e);
+        }
+    }
+
+    private static byte[] compress(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 2);
+            byte[] buffer = new byte[1024];
+            while (!deflater.finished()) {
+                int count = deflater.deflate(buffer);
+                out.write(buffer, 0, count);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] decompress(byte[] data) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 2);
+            byte[] buffer = new byte[1024];
+            while (!inflater.finished()) {
+                int count = inflater.inflate(buffer);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new SerializationException("压缩数据不完整");
+                }
+                out.write(buffer, 0, count);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new SerializationException("解压失败", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
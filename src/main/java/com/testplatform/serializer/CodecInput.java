@@ -0,0 +1,93 @@
+package com.testplatform.serializer;
+
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * 紧凑二进制输入，与 {@link CodecOutput} 对应
+ */
+public class CodecInput {
+
+    private final byte[] bytes;
+    private int position;
+
+    public CodecInput(byte[] bytes, int offset) {
+        this.bytes = bytes;
+        this.position = offset;
+    }
+
+    public int readByte() {
+        if (position >= bytes.length) {
+            throw new SerializationException("二进制数据不完整");
+        }
+        return bytes[position++] & 0xFF;
+    }
+
+    public byte[] readRemaining() {
+        byte[] remaining = new byte[bytes.length - position];
+        System.arraycopy(bytes, position, remaining, 0, remaining.length);
+        position = bytes.length;
+        return remaining;
+    }
+
+    public boolean readBoolean() {
+        return readByte() != 0;
+    }
+
+    public long readVarLong() {
+        long zigzag = readUnsignedVarLong();
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+
+    public long readUnsignedVarLong() {
+        long result = 0;
+        int shift = 0;
+        while (shift < 64) {
+            int b = readByte();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+            shift += 7;
+        }
+        throw new SerializationException("变长整数格式错误");
+    }
+
+    public Long readNullableLong() {
+        return readBoolean() ? readVarLong() : null;
+    }
+
+    public Integer readNullableInt() {
+        return readBoolean() ? (int) readVarLong() : null;
+    }
+
+    public String readString() {
+        if (!readBoolean()) {
+            return null;
+        }
+        int length = (int) readUnsignedVarLong();
+        if (length > bytes.length - position) {
+            throw new SerializationException("二进制数据不完整");
+        }
+        String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    public <E extends Enum<E>> E readEnum(Class<E> type) {
+        String name = readString();
+        return name == null ? null : Enum.valueOf(type, name);
+    }
+
+    public LocalDateTime readDateTime() {
+        if (!readBoolean()) {
+            return null;
+        }
+        long epochSecond = readVarLong();
+        int nano = (int) readUnsignedVarLong();
+        return LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,88 @@
+package com.testplatform.serializer;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * 紧凑二进制输出
+ * 整数使用变长编码（zigzag + varint），字符串为 长度 + UTF-8 字节，可空字段前带一个标记字节
+ */
+public class CodecOutput {
+
+    private final ByteArrayOutputStream buffer;
+
+    public CodecOutput() {
+        this(64);
+    }
+
+    public CodecOutput(int initialSize) {
+        this.buffer = new ByteArrayOutputStream(initialSize);
+    }
+
+    public void writeByte(int value) {
+        buffer.write(value);
+    }
+
+    public void writeBytes(byte[] bytes) {
+        buffer.write(bytes, 0, bytes.length);
+    }
+
+    public void writeBoolean(boolean value) {
+        buffer.write(value ? 1 : 0);
+    }
+
+    public void writeVarLong(long value) {
+        long zigzag = (value << 1) ^ (value >> 63);
+        writeUnsignedVarLong(zigzag);
+    }
+
+    public void writeUnsignedVarLong(long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.write((int) value);
+    }
+
+    public void writeNullableLong(Long value) {
+        writeBoolean(value != null);
+        if (value != null) {
+            writeVarLong(value);
+        }
+    }
+
+    public void writeNullableInt(Integer value) {
+        writeBoolean(value != null);
+        if (value != null) {
+            writeVarLong(value);
+        }
+    }
+
+    public void writeString(String value) {
+        writeBoolean(value != null);
+        if (value != null) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeUnsignedVarLong(bytes.length);
+            writeBytes(bytes);
+        }
+    }
+
+    public void writeEnum(Enum<?> value) {
+        // 按名称写入，枚举调整顺序后仍可正确读取
+        writeString(value == null ? null : value.name());
+    }
+
+    public void writeDateTime(LocalDateTime value) {
+        writeBoolean(value != null);
+        if (value != null) {
+            writeVarLong(value.toEpochSecond(ZoneOffset.UTC));
+            writeUnsignedVarLong(value.getNano());
+        }
+    }
+
+    public byte[] toByteArray() {
+        return buffer.toByteArray();
+    }
+}
@@ -0,0 +1,44 @@
+package com.testplatform.serializer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 编解码器注册表
+ * 每个类型对应一个固定的类型ID，类型ID会写入Redis中的数据，已分配的ID不可修改或复用
+ */
+public class CodecRegistry {
+
+    /**
+     * 保留ID：未注册类型，以 类名 + JSON 的形式写入
+     */
+    public static final int FALLBACK_TYPE_ID = 0;
+
+    private final Map<Integer, ValueCodec<?>> codecsById = new HashMap<>();
+    private final Map<Class<?>, Integer> idsByType = new HashMap<>();
+
+    public CodecRegistry register(int typeId, ValueCodec<?> codec) {
+        if (typeId <= FALLBACK_TYPE_ID) {
+            throw new IllegalArgumentException("类型ID必须大于0: " + typeId);
+        }
+        if (codecsById.containsKey(typeId)) {
+            throw new IllegalArgumentException("类型ID已被占用: " + typeId);
+        }
+        codecsById.put(typeId, codec);
+        idsByType.put(codec.getType(), typeId);
+        return this;
+    }
+
+    /**
+     * 获取类型ID，未注册时返回 {@link #FALLBACK_TYPE_ID}
+     */
+    public int getTypeId(Class<?> type) {
+        Integer typeId = idsByType.get(type);
+        return typeId != null ? typeId : FALLBACK_TYPE_ID;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> ValueCodec<T> getCodec(int typeId) {
+        return (ValueCodec<T>) codecsById.get(typeId);
+    }
+}
@@ -0,0 +1,182 @@
+package com.testplatform.serializer;
+
+import com.testplatform.entity.ExecutionTask;
+import com.testplatform.entity.User;
+import com.testplatform.entity.enums.TaskStatus;
+import com.testplatform.entity.enums.UserRole;
+
+/**
+ * 内置编解码器
+ */
+public final class StandardCodecs {
+
+    public static final int STRING = 1;
+    public static final int LONG = 2;
+    public static final int INTEGER = 3;
+    public static final int BOOLEAN = 4;
+    public static final int USER = 10;
+    public static final int EXECUTION_TASK = 11;
+
+    private StandardCodecs() {
+    }
+
+    /**
+     * 创建包含所有内置编解码器的注册表
+     */
+    public static CodecRegistry createRegistry() {
+        return new CodecRegistry()
+            .register(STRING, new StringCodec())
+            .register(LONG, new LongCodec())
+            .register(INTEGER, new IntegerCodec())
+            .register(BOOLEAN, new BooleanCodec())
+            .register(USER, new UserCodec())
+            .register(EXECUTION_TASK, new ExecutionTaskCodec());
+    }
+
+    static class StringCodec implements ValueCodec<String> {
+        @Override
+        public Class<String> getType() {
+            return String.class;
+        }
+
+        @Override
+        public void write(String value, CodecOutput out) {
+            out.writeString(value);
+        }
+
+        @Override
+        public String read(CodecInput in) {
+            return in.readString();
+        }
+    }
+
+    static class LongCodec implements ValueCodec<Long> {
+        @Override
+        public Class<Long> getType() {
+            return Long.class;
+        }
+
+        @Override
+        public void write(Long value, CodecOutput out) {
+            out.writeVarLong(value);
+        }
+
+        @Override
+        public Long read(CodecInput in) {
+            return in.readVarLong();
+        }
+    }
+
+    static class IntegerCodec implements ValueCodec<Integer> {
+        @Override
+        public Class<Integer> getType() {
+            return Integer.class;
+        }
+
+        @Override
+        public void write(Integer value, CodecOutput out) {
+            out.writeVarLong(value);
+        }
+
+        @Override
+        public Integer read(CodecInput in) {
+            return (int) in.readVarLong();
+        }
+    }
+
+    static class BooleanCodec implements ValueCodec<Boolean> {
+        @Override
+        public Class<Boolean> getType() {
+            return Boolean.class;
+        }
+
+        @Override
+        public void write(Boolean value, CodecOutput out) {
+            out.writeBoolean(value);
+        }
+
+        @Override
+        public Boolean read(CodecInput in) {
+            return in.readBoolean();
+        }
+    }
+
+    /**
+     * 用户编解码器
+     * 缓存中不保存密码哈希，密码校验始终从数据库加载（CustomUserDetailsService）。
+     * 原密码字段的位置保留为空值，旧数据仍可读取，读到的密码直接丢弃。
+     */
+    static class UserCodec implements ValueCodec<User> {
+        @Override
+        public Class<User> getType() {
+            return User.class;
+        }
+
+        @Override
+        public void write(User user, CodecOutput out) {
+            out.writeNullableLong(user.getId());
+            out.writeString(user.getUsername());
+            out.writeString(null);  // 原密码字段
+            out.writeString(user.getRealName());
+            out.writeEnum(user.getRole());
+            out.writeDateTime(user.getCreatedAt());
+            out.writeDateTime(user.getUpdatedAt());
+        }
+
+        @Override
+        public User read(CodecInput in) {
+            User user = new User();
+            user.setId(in.readNullableLong());
+            user.setUsername(in.readString());
+            in.readString();  // 原密码字段
+            user.setRealName(in.readString());
+            user.setRole(in.readEnum(UserRole.class));
+            user.setCreatedAt(in.readDateTime());
+            user.setUpdatedAt(in.readDateTime());
+            return user;
+        }
+    }
+
+    static class ExecutionTaskCodec implements ValueCodec<ExecutionTask> {
+        @Override
+        public Class<ExecutionTask> getType() {
+            return ExecutionTask.class;
+        }
+
+        @Override
+        public void write(ExecutionTask task, CodecOutput out) {
+            out.writeString(task.getTaskId());
+            out.writeString(task.getCaseId());
+            out.writeEnum(task.getStatus());
+            out.writeNullableLong(task.getTimeout());
+            out.writeString(task.getWorkerId());
+            out.writeNullableInt(task.getAttempts());
+            out.writeNullableLong(task.getCreatedAt());
+            out.writeNullableLong(task.getQueuedAt());
+            out.writeNullableLong(task.getStartedAt());
+            out.writeNullableLong(task.getFinishedAt());
+            out.writeNullableLong(task.getLeaseUntil());
+            out.writeString(task.getMessage());
+            out.writeString(task.getRunId());
+        }
+
+        @Override
+        public ExecutionTask read(CodecInput in) {
+            ExecutionTask task = new ExecutionTask();
+            task.setTaskId(in.readString());
+            task.setCaseId(in.readString());
+            task.setStatus(in.readEnum(TaskStatus.class));
+            task.setTimeout(in.readNullableLong());
+            task.setWorkerId(in.readString());
+            task.setAttempts(in.readNullableInt());
+            task.setCreatedAt(in.readNullableLong());
+            task.setQueuedAt(in.readNullableLong());
+            task.setStartedAt(in.readNullableLong());
+            task.setFinishedAt(in.readNullableLong());
+            task.setLeaseUntil(in.readNullableLong());
+            task.setMessage(in.readString());
+            task.setRunId(in.readString());
+            return task;
+        }
+    }
+}
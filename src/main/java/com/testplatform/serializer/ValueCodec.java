@@ -0,0 +1,17 @@
+package com.testplatform.serializer;
+
+/**
+ * 单一类型的二进制编解码器
+ * 注册到 {@link CodecRegistry} 后由 {@link BinaryRedisSerializer} 使用
+ */
+public interface ValueCodec<T> {
+
+    /**
+     * 编解码的类型
+     */
+    Class<T> getType();
+
+    void write(T value, CodecOutput out);
+
+    T read(CodecInput in);
+}
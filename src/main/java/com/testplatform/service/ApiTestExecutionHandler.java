@@ -0,0 +1,288 @@
+package com.testplatform.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.testplatform.dto.ApiAssertion;
+import com.testplatform.dto.ApiStep;
+import com.testplatform.entity.ExecutionTask;
+import com.testplatform.entity.TestCase;
+import com.testplatform.repository.TestCaseRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 接口测试执行器
+ * 按顺序执行用例中配置的HTTP步骤并校验断言，任一步骤失败即视为用例失败。
+ * 多个用例由执行节点的工作线程并发执行，所有请求共用一个带连接池的HttpClient（HTTP/1.1 keep-alive），
+ * 并按目标主机限制同时在途的请求数，避免把被测服务压垮。
+ * 请求耗时指标 execution.http.requests 的 target 标签只区分 base（execution.http.base-url）和 other，
+ * 步骤中的地址由用户填写，不直接作为标签。
+ */
+@Slf4j
+@Component
+public class ApiTestExecutionHandler implements ExecutionTaskHandler {
+
+    private static final Pattern VARIABLE_PATTERN = Pattern.compile("\\$\\{([\\w.-]+)}");
+    private static final TypeReference<List<ApiStep>> STEP_LIST_TYPE = new TypeReference<List<ApiStep>>() {};
+
+    private final TestCaseRepository testCaseRepository;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final HttpClient httpClient;
+    private final Cache<String, Semaphore> hostPermits;  // 长时间未访问的主机自动移除
+
+    private final String baseUrl;
+    private final URI baseUri;
+    private final int perHostLimit;
+    private final long acquireTimeoutMs;
+    private final long requestTimeoutMs;
+
+    public ApiTestExecutionHandler(TestCaseRepository testCaseRepository,
+                                   ObjectMapper objectMapper,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${execution.http.base-url:}") String baseUrl,
+                                   @Value("${execution.http.per-host-limit:32}") int perHostLimit,
+                                   @Value("${execution.http.acquire-timeout-ms:10000}") long acquireTimeoutMs,
+                                   @Value("${execution.http.connect-timeout-ms:3000}") long connectTimeoutMs,
+                                   @Value("${execution.http.request-timeout-ms:10000}") long requestTimeoutMs) {
+        this.testCaseRepository = testCaseRepository;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.baseUrl = baseUrl;
+        this.baseUri = StringUtils.hasText(baseUrl) ? URI.create(baseUrl) : null;
+        this.perHostLimit = perHostLimit;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.requestTimeoutMs = requestTimeoutMs;
+        this.hostPermits = Caffeine.newBuilder()
+                .maximumSize(1000)
+                .expireAfterAccess(10, TimeUnit.MINUTES)
+                .build();
+        // HttpClient 内部按 host:port 复用连接，整个进程共享一个实例
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    @Override
+    public String handle(ExecutionTask task) throws Exception {
+        TestCase testCase = testCaseRepository.findById(Integer.valueOf(task.getCaseId()))
+            .orElseThrow(() -> new RuntimeException("测试用例不存在"));
+        List<ApiStep> steps = parseSteps(testCase.getApiSteps());
+
+        Map<String, String> variables = new HashMap<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < steps.size(); i++) {
+            ApiStep step = steps.get(i);
+            String stepName = "步骤" + (i + 1) + (StringUtils.hasText(step.getName()) ? "[" + step.getName() + "]" : "");
+            try {
+                executeStep(step, variables);
+            } catch (StepFailedException e) {
+                throw new RuntimeException(stepName + " " + e.getMessage());
+            } catch (IOException e) {
+                throw new RuntimeException(stepName + " 请求失败: " + e.getMessage(), e);
+            }
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        return String.format("%d个步骤全部通过，耗时%dms", steps.size(), elapsedMs);
+    }
+
+    /**
+     * 解析用例的接口步骤
+     */
+    public List<ApiStep> parseSteps(String apiSteps) {
+        if (!StringUtils.hasText(apiSteps)) {
+            throw new RuntimeException("用例未配置接口步骤");
+        }
+        List<ApiStep> steps;
+        try {
+            steps = objectMapper.readValue(apiSteps, STEP_LIST_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("接口步骤格式错误: " + e.getOriginalMessage());
+        }
+        if (steps.isEmpty()) {
+            throw new RuntimeException("用例未配置接口步骤");
+        }
+        for (ApiStep step : steps) {
+            if (!StringUtils.hasText(step.getUrl())) {
+                throw new RuntimeException("接口步骤缺少url");
+            }
+        }
+        return steps;
+    }
+
+    private void executeStep(ApiStep step, Map<String, String> variables) throws IOException, InterruptedException {
+        URI uri = resolve(substitute(step.getUrl(), variables));
+        HttpRequest request = buildRequest(step, uri, variables);
+
+        String host = uri.getScheme() + "://" + uri.getAuthority();
+        Semaphore permits = hostPermits.get(host, key -> new Semaphore(perHostLimit));
+        if (!permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+            throw new StepFailedException("等待目标主机并发许可超时: " + host);
+        }
+
+        HttpResponse<String> response;
+        long latencyMs;
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            outcome = (response.statusCode() / 100) + "xx";
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            permits.release();
+            latencyMs = TimeUnit.NANOSECONDS.toMillis(elapsed);
+            Timer.builder("execution.http.requests")
+                .tag("target", isBaseUrl(uri) ? "base" : "other")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        }
+
+        JsonNode json = null;
+        for (ApiAssertion assertion : step.getAssertions()) {
+            if (assertion.getType() == ApiAssertion.Type.JSON_PATH && json == null) {
+                json = readJson(response);
+            }
+            String failure = check(assertion, response, json, latencyMs, variables);
+            if (failure != null) {
+                throw new StepFailedException(failure);
+            }
+        }
+
+        if (!step.getExtract().isEmpty()) {
+            if (json == null) {
+                json = readJson(response);
+            }
+            for (Map.Entry<String, String> entry : step.getExtract().entrySet()) {
+                JsonNode node = json.at(entry.getValue());
+                if (node.isMissingNode()) {
+                    throw new StepFailedException("提取变量失败，响应中不存在: " + entry.getValue());
+                }
+                variables.put(entry.getKey(), node.isValueNode() ? node.asText() : node.toString());
+            }
+        }
+    }
+
+    private HttpRequest buildRequest(ApiStep step, URI uri, Map<String, String> variables) {
+        long timeoutMs = step.getTimeoutMs() != null ? step.getTimeoutMs() : requestTimeoutMs;
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofMillis(timeoutMs));
+        step.getHeaders().forEach((name, value) -> builder.header(name, substitute(value, variables)));
+
+        HttpRequest.BodyPublisher body = step.getBody() == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofString(substitute(step.getBody(), variables));
+        try {
+            return builder.method(step.getMethod().toUpperCase(), body).build();
+        } catch (IllegalArgumentException e) {
+            throw new StepFailedException("请求构造失败: " + e.getMessage());
+        }
+    }
+
+    private String check(ApiAssertion assertion, HttpResponse<String> response, JsonNode json,
+                         long latencyMs, Map<String, String> variables) {
+        if (assertion.getType() == null) {
+            return "断言类型不能为空";
+        }
+        String expected = substitute(assertion.getExpected(), variables);
+        switch (assertion.getType()) {
+            case STATUS:
+                return String.valueOf(response.statusCode()).equals(expected)
+                        ? null : "状态码断言失败，期望 " + expected + "，实际 " + response.statusCode();
+            case BODY_CONTAINS:
+                return response.body() != null && expected != null && response.body().contains(expected)
+                        ? null : "响应体不包含 " + expected;
+            case JSON_PATH: {
+                JsonNode node = json.at(assertion.getPath());
+                String actual = node.isMissingNode() ? null : (node.isValueNode() ? node.asText() : node.toString());
+                return expected != null && expected.equals(actual)
+                        ? null : "JSON断言失败 " + assertion.getPath() + "，期望 " + expected + "，实际 " + actual;
+            }
+            case HEADER: {
+                String actual = response.headers().firstValue(assertion.getPath()).orElse(null);
+                return expected != null && expected.equals(actual)
+                        ? null : "响应头断言失败 " + assertion.getPath() + "，期望 " + expected + "，实际 " + actual;
+            }
+            case MAX_LATENCY:
+                return latencyMs <= Long.parseLong(expected)
+                        ? null : "响应耗时 " + latencyMs + "ms 超过 " + expected + "ms";
+            default:
+                return "不支持的断言类型: " + assertion.getType();
+        }
+    }
+
+    private JsonNode readJson(HttpResponse<String> response) {
+        try {
+            return objectMapper.readTree(response.body());
+        } catch (IOException e) {
+            throw new StepFailedException("响应体不是合法的JSON");
+        }
+    }
+
+    private URI resolve(String url) {
+        try {
+            if (url.startsWith("http://") || url.startsWith("https://")) {
+                return URI.create(url);
+            }
+            if (!StringUtils.hasText(baseUrl)) {
+                throw new StepFailedException("相对地址需要配置 execution.http.base-url: " + url);
+            }
+            return URI.create(baseUrl.replaceAll("/+$", "") + (url.startsWith("/") ? url : "/" + url));
+        } catch (IllegalArgumentException e) {
+            throw new StepFailedException("请求地址不合法: " + url);
+        }
+    }
+
+    private boolean isBaseUrl(URI uri) {
+        return baseUri != null
+            && uri.getScheme().equalsIgnoreCase(baseUri.getScheme())
+            && uri.getAuthority().equalsIgnoreCase(baseUri.getAuthority());
+    }
+
+    private static String substitute(String text, Map<String, String> variables) {
+        if (text == null || variables.isEmpty() || text.indexOf('$') < 0) {
+            return text;
+        }
+        Matcher matcher = VARIABLE_PATTERN.matcher(text);
+        StringBuffer result = new StringBuffer();
+        while (matcher.find()) {
+            String value = variables.getOrDefault(matcher.group(1), matcher.group(0));
+            matcher.appendReplacement(result, Matcher.quoteReplacement(value));
+        }
+        matcher.appendTail(result);
+        return result.toString();
+    }
+
+    /**
+     * 步骤执行失败（断言不通过、请求无法构造等），消息直接作为任务失败原因
+     */
+    private static class StepFailedException extends RuntimeException {
+        StepFailedException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.testplatform.service;
+
+import com.testplatform.dto.ChangeSet;
+import com.testplatform.entity.ChangeTombstone;
+import com.testplatform.entity.Requirement;
+import com.testplatform.entity.TestCase;
+import com.testplatform.repository.ChangeTombstoneRepository;
+import com.testplatform.repository.RequirementRepository;
+import com.testplatform.repository.TestCaseRepository;
+import com.testplatform.util.CursorCodec;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import javax.persistence.criteria.Predicate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 增量同步服务
+ * 新增和修改按 (updated_at, id) 升序在复合索引上范围扫描，删除从墓碑表按序号读取。
+ * 游标记录两者各自的位置，客户端保存游标后定期拉取即可维护本地副本。
+ * 更新时间在事务提交前写入，只返回早于 settle 窗口的变更，避免长事务晚提交的记录被游标跳过。
+ */
+@Slf4j
+@Service
+public class ChangeFeedService {
+
+    public static final String TEST_CASE = "test_case";
+    public static final String REQUIREMENT = "requirement";
+
+    private final TestCaseRepository testCaseRepository;
+    private final RequirementRepository requirementRepository;
+    private final ChangeTombstoneRepository tombstoneRepository;
+    private final long settleMillis;
+    private final int maxLimit;
+    private final long retentionDays;
+
+    public ChangeFeedService(TestCaseRepository testCaseRepository,
+                             RequirementRepository requirementRepository,
+                             ChangeTombstoneRepository tombstoneRepository,
+                             @Value("${changes.settle-ms:5000}") long settleMillis,
+                             @Value("${changes.max-limit:500}") int maxLimit,
+                             @Value("${changes.tombstone-retention-days:30}") long retentionDays) {
+        this.testCaseRepository = testCaseRepository;
+        this.requirementRepository = requirementRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.settleMillis = settleMillis;
+        this.maxLimit = maxLimit;
+        this.retentionDays = retentionDays;
+    }
+
+    /**
+     * 记录删除，需在删除记录的同一事务中调用
+     */
+    public void recordDeletion(String entityType, Integer id) {
+        ChangeTombstone tombstone = new ChangeTombstone();
+        tombstone.setEntityType(entityType);
+        tombstone.setEntityId(id);
+        tombstoneRepository.save(tombstone);
+    }
+
+    /**
+     * 获取游标之后的测试用例变更
+     */
+    public ChangeSet<TestCase> findTestCaseChanges(String cursor, int limit) {
+        return findChanges(TEST_CASE, cursor, limit,
+            (spec, pageable) -> testCaseRepository.findSlice(spec, pageable, testCaseRepository::findAllWithAssociations),
+            TestCase::getUpdatedAt, TestCase::getId);
+    }
+
+    /**
+     * 获取游标之后的需求变更
+     */
+    public ChangeSet<Requirement> findRequirementChanges(String cursor, int limit) {
+        return findChanges(REQUIREMENT, cursor, limit, requirementRepository::findSlice,
+            Requirement::getUpdatedAt, Requirement::getId);
+    }
+
+    /**
+     * 清理超过保留期的墓碑
+     */
+    @Transactional
+    @Scheduled(fixedDelayString = "${changes.purge-interval-ms:3600000}")
+    public void purgeTombstones() {
+        int deleted = tombstoneRepository.deleteOlderThan(LocalDateTime.now().minusDays(retentionDays));
+        if (deleted > 0) {
+            log.info("清理删除墓碑{}条", deleted);
+        }
+    }
+
+    /**
+     * 游标格式：最后一条变更的 updatedAt|id|最后一条墓碑序号|签发时的同步上界
+     */
+    private <T> ChangeSet<T> findChanges(String entityType, String cursor, int limit,
+            BiFunction<Specification<T>, Pageable, Slice<T>> sliceQuery,
+            Function<T, LocalDateTime> updatedAtOf, Function<T, Integer> idOf) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime horizon = now.minus(settleMillis, ChronoUnit.MILLIS);
+        int size = Math.min(Math.max(limit, 1), maxLimit);
+
+        LocalDateTime afterUpdatedAt = null;
+        Integer afterId = 0;
+        Long afterSeq;
+        if (StringUtils.hasText(cursor)) {
+            String[] values = CursorCodec.decode(cursor, 4);
+            LocalDateTime issuedAt;
+            try {
+                afterUpdatedAt = values[0].isEmpty() ? null : LocalDateTime.parse(values[0]);
+                afterId = Integer.valueOf(values[1]);
+                afterSeq = Long.valueOf(values[2]);
+                issuedAt = LocalDateTime.parse(values[3]);
+            } catch (RuntimeException e) {
+                throw new RuntimeException("无效的同步游标");
+            }
+            // 之后的墓碑可能已被清理，无法保证删除不遗漏
+            if (issuedAt.isBefore(now.minusDays(retentionDays))) {
+                throw new RuntimeException("同步游标已过期，请重新全量同步");
+            }
+        } else {
+            // 首次同步从头读取现存记录，此前的删除与客户端无关
+            Long maxSeq = tombstoneRepository.findMaxSeq(entityType, horizon);
+            afterSeq = maxSeq != null ? maxSeq : 0L;
+        }
+
+        Slice<T> slice = sliceQuery.apply(changedAfter(afterUpdatedAt, afterId, horizon),
+            PageRequest.of(0, size, Sort.by(Sort.Direction.ASC, "updatedAt", "id")));
+        List<T> upserts = slice.getContent();
+        // 先查ID再加载实体，期间又被修改的记录更新时间已超出上界，不能作为游标位置，之后会再次返回
+        for (int i = upserts.size() - 1; i >= 0; i--) {
+            LocalDateTime updatedAt = updatedAtOf.apply(upserts.get(i));
+            if (!updatedAt.isAfter(horizon)) {
+                afterUpdatedAt = updatedAt;
+                afterId = idOf.apply(upserts.get(i));
+                break;
+            }
+        }
+
+        List<ChangeTombstone> tombstones = tombstoneRepository.findAfter(entityType, afterSeq, horizon,
+            PageRequest.of(0, size + 1));
+        boolean moreTombstones = tombstones.size() > size;
+        if (moreTombstones) {
+            tombstones = tombstones.subList(0, size);
+        }
+        if (!tombstones.isEmpty()) {
+            afterSeq = tombstones.get(tombstones.size() - 1).getSeq();
+        }
+        List<Integer> deletes = tombstones.stream()
+            .map(ChangeTombstone::getEntityId)
+            .collect(Collectors.toList());
+
+        String nextCursor = CursorCodec.encode(afterUpdatedAt != null ? afterUpdatedAt.toString() : "",
+            String.valueOf(afterId), String.valueOf(afterSeq), horizon.toString());
+        return new ChangeSet<>(upserts, deletes, nextCursor, slice.hasNext() || moreTombstones);
+    }
+
+    /**
+     * (updated_at, id) > 游标值 且 updated_at <= 同步上界
+     */
+    private static <T> Specification<T> changedAfter(LocalDateTime updatedAt, Integer id, LocalDateTime horizon) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.lessThanOrEqualTo(root.get("updatedAt"), horizon));
+            if (updatedAt != null) {
+                predicates.add(cb.or(
+                    cb.greaterThan(root.get("updatedAt"), updatedAt),
+                    cb.and(cb.equal(root.get("updatedAt"), updatedAt), cb.greaterThan(root.get("id"), id))));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+}
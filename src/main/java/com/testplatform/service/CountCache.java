@@ -0,0 +1,36 @@
+package com.testplatform.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * 近似总数缓存
+ * 以“表名 + 查询条件”为键缓存 COUNT(*) 结果，有效期内同样条件的分页请求不再重复计数。
+ */
+@Component
+public class CountCache {
+
+    private final Cache<String, Long> cache;
+
+    public CountCache(@Value("${paging.approximate-count.ttl-seconds:60}") long ttlSeconds,
+                      @Value("${paging.approximate-count.max-size:1000}") long maxSize,
+                      MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "approximateCount");
+    }
+
+    public long get(String key, Supplier<Long> counter) {
+        return cache.get(key, k -> counter.get());
+    }
+}
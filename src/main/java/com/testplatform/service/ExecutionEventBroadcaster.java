@@ -0,0 +1,220 @@
+package com.testplatform.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.testplatform.dto.ExecutionEvent;
+import com.testplatform.util.RedisUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PostConstruct;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 执行事件推送服务
+ * 每个节点只订阅一次 execution:events 频道，收到事件后分发给本节点的所有SSE订阅者。
+ * 每个订阅者有一个有界队列，由 sseExecutor 按需排空；队列满说明客户端消费跟不上，直接断开该订阅者，
+ * 客户端可重连后通过进度接口补齐状态。
+ * 每次排空最多写出 drain-batch 个事件后让出线程，单次写出超过 write-timeout-ms 的订阅者同样视为过慢而断开；
+ * 写出阻塞的上限由 server.tomcat.connection-timeout（套接字写超时）保证，慢客户端不会长期占住线程。
+ */
+@Slf4j
+@Service
+public class ExecutionEventBroadcaster implements MessageListener {
+
+    private final RedisUtil redisUtil;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolTaskExecutor sseExecutor;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Counter droppedCounter;
+
+    private final int queueCapacity;
+    private final long timeoutMillis;
+    private final int drainBatch;
+    private final long writeTimeoutNanos;
+
+    public ExecutionEventBroadcaster(RedisUtil redisUtil,
+                                     RedisMessageListenerContainer listenerContainer,
+                                     ObjectMapper objectMapper,
+                                     @Qualifier("sseExecutor") ThreadPoolTaskExecutor sseExecutor,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${execution.sse.queue-capacity:256}") int queueCapacity,
+                                     @Value("${execution.sse.timeout-ms:1800000}") long timeoutMillis,
+                                     @Value("${execution.sse.drain-batch:32}") int drainBatch,
+                                     @Value("${execution.sse.write-timeout-ms:5000}") long writeTimeoutMillis) {
+        this.redisUtil = redisUtil;
+        this.listenerContainer = listenerContainer;
+        this.objectMapper = objectMapper;
+        this.sseExecutor = sseExecutor;
+        this.queueCapacity = queueCapacity;
+        this.timeoutMillis = timeoutMillis;
+        this.drainBatch = drainBatch;
+        this.writeTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(writeTimeoutMillis);
+        this.droppedCounter = Counter.builder("execution.sse.dropped")
+            .description("因消费过慢被断开的SSE订阅者数")
+            .register(meterRegistry);
+        Gauge.builder("execution.sse.subscribers", subscribers, Set::size)
+            .description("当前SSE订阅者数")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(ExecutionQueueService.EVENT_CHANNEL));
+    }
+
+    /**
+     * 新建订阅
+     * @param runId 只接收该批次的事件，为空时接收全部事件
+     */
+    public SseEmitter subscribe(String runId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, runId, queueCapacity);
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        // 立即写出响应头，客户端据此确认连接已建立
+        subscriber.offer(SseEmitter.event().comment("connected"));
+        return emitter;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Object body = redisUtil.deserializeMessage(message.getBody());
+        if (!(body instanceof ExecutionEvent)) {
+            return;
+        }
+        ExecutionEvent event = (ExecutionEvent) body;
+        String json;
+        try {
+            // 每个事件只序列化一次，所有订阅者共用
+            json = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            log.warn("序列化执行事件失败: {}", e.getMessage());
+            return;
+        }
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.accepts(event.getRunId())) {
+                subscriber.offer(SseEmitter.event().name("status").data(json));
+            }
+        }
+    }
+
+    /**
+     * 定时发送心跳注释，保持代理连接并及时发现已断开的客户端
+     */
+    @Scheduled(fixedDelayString = "${execution.sse.heartbeat-ms:15000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(SseEmitter.event().comment("ping"));
+        }
+    }
+
+    private class Subscriber {
+        private final SseEmitter emitter;
+        private final String runId;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean closed;
+
+        Subscriber(SseEmitter emitter, String runId, int capacity) {
+            this.emitter = emitter;
+            this.runId = runId;
+            this.queue = new LinkedBlockingQueue<>(capacity);
+        }
+
+        boolean accepts(String eventRunId) {
+            return runId == null || runId.equals(eventRunId);
+        }
+
+        /**
+         * 入队并在需要时调度排空，不阻塞调用线程
+         */
+        void offer(SseEmitter.SseEventBuilder event) {
+            if (closed) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                drop();
+                return;
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    sseExecutor.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    drop();
+                }
+            }
+        }
+
+        private void drain() {
+            SseEmitter.SseEventBuilder event;
+            int sent = 0;
+            // 每次最多写出 drainBatch 个事件，剩余的重新排队，其他订阅者可以穿插执行
+            while (!closed && sent < drainBatch && (event = queue.poll()) != null) {
+                long start = System.nanoTime();
+                try {
+                    emitter.send(event);
+                } catch (Exception e) {
+                    // 客户端已断开或写出超时
+                    close();
+                    return;
+                }
+                if (System.nanoTime() - start > writeTimeoutNanos) {
+                    drop();
+                    return;
+                }
+                sent++;
+            }
+            scheduled.set(false);
+            // 释放调度标记后可能有新事件入队
+            if (!closed && !queue.isEmpty()) {
+                schedule();
+            }
+        }
+
+        private void drop() {
+            if (closed) {
+                return;
+            }
+            droppedCounter.increment();
+            log.info("SSE订阅者消费过慢，断开连接");
+            close();
+            try {
+                sseExecutor.execute(emitter::complete);
+            } catch (RejectedExecutionException e) {
+                // 线程池已满，等待连接超时或下次写出失败时释放
+            }
+        }
+
+        private void close() {
+            closed = true;
+            subscribers.remove(this);
+            queue.clear();
+        }
+    }
+}
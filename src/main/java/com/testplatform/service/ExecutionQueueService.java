@@ -0,0 +1,532 @@
+package com.testplatform.service;
+
+import com.testplatform.dto.ExecutionEvent;
+import com.testplatform.entity.ExecutionTask;
+import com.testplatform.entity.enums.TaskStatus;
+import com.testplatform.repository.ExecutionTaskRepository;
+import com.testplatform.util.RedisUtil;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.RedisStreamCommands.XClaimOptions;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.PendingMessages;
+import org.springframework.data.redis.connection.stream.PendingMessagesSummary;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 执行队列服务
+ * 基于Redis Streams和消费者组实现的分布式任务队列：
+ * 入队时写入任务哈希并追加一条流消息；执行节点通过 XREADGROUP 领取消息，领取后消息进入待确认列表（PEL），
+ * 执行节点通过心跳（XCLAIM 重置空闲时间）续约；空闲时间超过租约的消息视为执行节点已失联，由任意节点重新入队。
+ * 任务完成后 XACK 并 XDEL，因此流长度即为排队中和执行中的任务数。
+ * 每次状态变更都是对任务 status 字段的比较并更新，并发的取消、领取、完成和重新入队只有一个生效；
+ * 变更成功后才更新所属批次的进度计数，并在 EVENT_CHANNEL 上发布 ExecutionEvent。
+ */
+@Slf4j
+@Service
+public class ExecutionQueueService {
+
+    public static final String STREAM_KEY = "execution:stream";
+    public static final String CONSUMER_GROUP = "execution-workers";
+    public static final String EVENT_CHANNEL = "execution:events";
+    private static final String FIELD_TASK_ID = "taskId";
+    private static final String RUN_KEY_PREFIX = "execution:run:";
+    private static final String FIELD_TOTAL = "total";
+
+    // 任务仍在执行中且仍属于本次领取（执行节点和领取次数一致）时，确认并删除流消息、写入最终状态、
+    // 删除租约字段并设置保留时间，检查和变更在同一个脚本中完成
+    // KEYS: 任务哈希, 流；ARGV: 消费者组, 消息ID, RUNNING, workerId, attempts, 保留秒数, 字段/值对...
+    private static final RedisScript<Long> COMPLETE_SCRIPT = new DefaultRedisScript<>(
+        "if redis.call('hget', KEYS[1], 'status') ~= ARGV[3] "
+            + "or redis.call('hget', KEYS[1], 'workerId') ~= ARGV[4] "
+            + "or redis.call('hget', KEYS[1], 'attempts') ~= ARGV[5] then return 0 end "
+            + "redis.call('xack', KEYS[2], ARGV[1], ARGV[2]) "
+            + "redis.call('xdel', KEYS[2], ARGV[2]) "
+            + "redis.call('hset', KEYS[1], unpack(ARGV, 7)) "
+            + "redis.call('hdel', KEYS[1], 'leaseUntil') "
+            + "redis.call('expire', KEYS[1], ARGV[6]) "
+            + "return 1",
+        Long.class);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisUtil redisUtil;
+    private final ExecutionTaskRepository executionTaskRepository;
+    private final Timer claimLatencyTimer;
+
+    @Value("${execution.task.retention-seconds:604800}")
+    private long retentionSeconds;  // 任务结束后的保留时间
+
+    public ExecutionQueueService(RedisTemplate<String, Object> redisTemplate,
+                                 RedisUtil redisUtil,
+                                 ExecutionTaskRepository executionTaskRepository,
+                                 MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.redisUtil = redisUtil;
+        this.executionTaskRepository = executionTaskRepository;
+        this.claimLatencyTimer = Timer.builder("execution.queue.claim.latency")
+            .description("任务从入队到被执行节点领取的耗时")
+            .register(meterRegistry);
+        Gauge.builder("execution.queue.depth", this, ExecutionQueueService::queueDepth)
+            .description("排队中和执行中的任务数")
+            .register(meterRegistry);
+        Gauge.builder("execution.queue.pending", this, ExecutionQueueService::pendingCount)
+            .description("已被领取但未确认的任务数")
+            .register(meterRegistry);
+    }
+
+    /**
+     * 创建消费者组（流不存在时一并创建），已存在时忽略
+     */
+    public void ensureConsumerGroup() {
+        try {
+            redisTemplate.opsForStream().createGroup(STREAM_KEY, ReadOffset.from("0"), CONSUMER_GROUP);
+        } catch (RuntimeException e) {
+            // 消费者组已存在时 Redis 返回 BUSYGROUP，其他错误需要抛出
+            if (!isBusyGroup(e)) {
+                throw e;
+            }
+        }
+    }
+
+    private static boolean isBusyGroup(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t.getMessage() != null && t.getMessage().contains("BUSYGROUP")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 批量入队，一次往返完成所有任务哈希和流消息的写入
+     */
+    public List<ExecutionTask> enqueue(Collection<String> caseIds) {
+        long now = System.currentTimeMillis();
+        String runId = UUID.randomUUID().toString();
+        String runKey = runKey(runId);
+        List<ExecutionTask> tasks = new ArrayList<>(caseIds.size());
+        for (String caseId : caseIds) {
+            ExecutionTask task = new ExecutionTask();
+            task.setTaskId(UUID.randomUUID().toString());
+            task.setCaseId(caseId);
+            task.setRunId(runId);
+            task.setStatus(TaskStatus.QUEUED);
+            task.setAttempts(0);
+            task.setCreatedAt(now);
+            task.setQueuedAt(now);
+            tasks.add(task);
+        }
+        List<Object> results = redisUtil.executePipelined(operations -> {
+            for (ExecutionTask task : tasks) {
+                executionTaskRepository.save(task, operations);
+                operations.opsForStream().add(StreamRecords.newRecord()
+                    .in(STREAM_KEY)
+                    .ofMap(Collections.<Object, Object>singletonMap(FIELD_TASK_ID, task.getTaskId())));
+            }
+            operations.opsForHash().increment(runKey, FIELD_TOTAL, tasks.size());
+            operations.opsForHash().increment(runKey, progressField(TaskStatus.QUEUED), tasks.size());
+            operations.expire(runKey, retentionSeconds, TimeUnit.SECONDS);
+            operations.opsForHash().entries(runKey);
+        });
+        log.info("执行任务入队: {} 个, 批次: {}", tasks.size(), runId);
+
+        ExecutionEvent event = new ExecutionEvent();
+        event.setRunId(runId);
+        event.setStatus(TaskStatus.QUEUED);
+        event.setTimestamp(now);
+        event.setProgress(toProgress(results.get(results.size() - 1)));
+        publish(event);
+        return tasks;
+    }
+
+    /**
+     * 取消排队中的任务；执行中或已结束的任务不能取消
+     */
+    public ExecutionTask cancel(String taskId) {
+        ExecutionTask task = executionTaskRepository.findById(taskId);
+        if (task == null) {
+            throw new RuntimeException("执行任务不存在");
+        }
+        if (task.getStatus() != TaskStatus.QUEUED) {
+            throw new RuntimeException("只能取消排队中的任务");
+        }
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("status", TaskStatus.CANCELLED.name());
+        fields.put("finishedAt", System.currentTimeMillis());
+        if (!executionTaskRepository.compareAndSetStatus(taskId, TaskStatus.QUEUED, fields)) {
+            throw new RuntimeException("只能取消排队中的任务");  // 已被执行节点领取
+        }
+        List<Object> results = redisUtil.executePipelined(operations -> {
+            executionTaskRepository.expire(taskId, retentionSeconds, operations);
+            countTransition(task.getRunId(), TaskStatus.QUEUED, TaskStatus.CANCELLED, operations);
+        });
+        task.setStatus(TaskStatus.CANCELLED);
+        publishTransition(task, null, results);
+        return task;
+    }
+
+    /**
+     * 查询批次进度
+     */
+    public Map<String, Long> getRunProgress(String runId) {
+        Map<Object, Object> hash = redisTemplate.opsForHash().entries(runKey(runId));
+        if (hash.isEmpty()) {
+            throw new RuntimeException("执行批次不存在");
+        }
+        return toProgress(hash);
+    }
+
+    public ExecutionTask getTask(String taskId) {
+        ExecutionTask task = executionTaskRepository.findById(taskId);
+        if (task == null) {
+            throw new RuntimeException("执行任务不存在");
+        }
+        return task;
+    }
+
+    /**
+     * 批量查询任务状态（一次往返）
+     */
+    public List<ExecutionTask> getTasks(Collection<String> taskIds) {
+        return executionTaskRepository.findAllById(taskIds);
+    }
+
+    /**
+     * 批量查询任务状态，只读取状态字段（一次往返），适合轮询大量任务的看板
+     */
+    public Map<String, TaskStatus> getTaskStatuses(Collection<String> taskIds) {
+        return executionTaskRepository.findStatuses(taskIds);
+    }
+
+    /**
+     * 以消费者身份读取新消息，没有消息时最多阻塞 blockMillis 毫秒
+     */
+    public List<MapRecord<String, Object, Object>> read(String consumerName, int count, long blockMillis) {
+        List<MapRecord<String, Object, Object>> records = redisTemplate.opsForStream().read(
+            Consumer.from(CONSUMER_GROUP, consumerName),
+            StreamReadOptions.empty().count(count).block(Duration.ofMillis(blockMillis)),
+            StreamOffset.create(STREAM_KEY, ReadOffset.lastConsumed()));
+        return records != null ? records : Collections.emptyList();
+    }
+
+    public String getTaskId(MapRecord<String, Object, Object> record) {
+        Object taskId = record.getValue().get(FIELD_TASK_ID);
+        return taskId != null ? taskId.toString() : null;
+    }
+
+    /**
+     * 领取任务：状态改为执行中并记录执行节点和租约
+     * @return 任务，已取消或不存在时返回 null
+     */
+    public ExecutionTask claim(String taskId, String consumerName, long leaseMillis) {
+        ExecutionTask task = executionTaskRepository.findById(taskId);
+        if (task == null || task.getStatus() != TaskStatus.QUEUED) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("status", TaskStatus.RUNNING.name());
+        fields.put("workerId", consumerName);
+        fields.put("attempts", task.getAttempts() + 1);
+        fields.put("startedAt", now);
+        fields.put("leaseUntil", now + leaseMillis);
+        if (!executionTaskRepository.compareAndSetStatus(taskId, TaskStatus.QUEUED, fields)) {
+            return null;  // 读取后被取消
+        }
+        if (task.getQueuedAt() != null) {
+            claimLatencyTimer.record(Math.max(0, now - task.getQueuedAt()), TimeUnit.MILLISECONDS);
+        }
+        task.setStatus(TaskStatus.RUNNING);
+        task.setWorkerId(consumerName);
+        task.setAttempts(task.getAttempts() + 1);
+        task.setStartedAt(now);
+        task.setLeaseUntil(now + leaseMillis);
+
+        List<Object> results = redisUtil.executePipelined(operations -> {
+            countTransition(task.getRunId(), TaskStatus.QUEUED, TaskStatus.RUNNING, operations);
+        });
+        publishTransition(task, null, results);
+        return task;
+    }
+
+    /**
+     * 心跳续约：重置消息的空闲时间并延长租约
+     */
+    public void renewLeases(String consumerName, Map<RecordId, String> running, long leaseMillis) {
+        if (running.isEmpty()) {
+            return;
+        }
+        RecordId[] recordIds = running.keySet().toArray(new RecordId[0]);
+        long leaseUntil = System.currentTimeMillis() + leaseMillis;
+        redisUtil.executePipelined(operations -> {
+            xClaimJustId(operations, consumerName, Duration.ZERO, recordIds);
+            for (String taskId : running.values()) {
+                executionTaskRepository.updateFields(taskId,
+                    Collections.singletonMap("leaseUntil", leaseUntil), operations);
+            }
+        });
+    }
+
+    /**
+     * 结束任务：确认并删除流消息，写入最终状态
+     * 只有任务仍在执行中、且执行节点和领取次数与 task 一致时才会写入状态，与确认消息在同一个Lua脚本中完成；
+     * 租约已过期并被重新入队（包括再次被领取）的任务不会被覆盖
+     * @return 是否成功写入
+     */
+    public boolean complete(RecordId recordId, ExecutionTask task, TaskStatus status, String message) {
+        String taskId = task.getTaskId();
+        List<Object> args = new ArrayList<>(Arrays.asList(
+            utf8(CONSUMER_GROUP), utf8(recordId.getValue()),
+            serializeValue(TaskStatus.RUNNING.name()),
+            task.getWorkerId() != null ? serializeValue(task.getWorkerId()) : new byte[0],
+            serializeValue(task.getAttempts()), utf8(String.valueOf(retentionSeconds))));
+        addField(args, "status", status.name());
+        addField(args, "finishedAt", System.currentTimeMillis());
+        if (message != null) {
+            addField(args, "message", message);
+        }
+        Long updated = redisTemplate.execute(COMPLETE_SCRIPT, RedisSerializer.byteArray(),
+            new GenericToStringSerializer<>(Long.class),
+            Arrays.asList(ExecutionTaskRepository.key(taskId), STREAM_KEY), args.toArray());
+        if (updated == null || updated != 1L) {
+            log.warn("任务租约已失效或已被重新入队，忽略执行结果: {}", taskId);
+            return false;
+        }
+        List<Object> results = redisUtil.executePipelined(operations -> {
+            countTransition(task.getRunId(), TaskStatus.RUNNING, status, operations);
+        });
+        task.setStatus(status);
+        task.setMessage(message);
+        publishTransition(task, message, results);
+        return true;
+    }
+
+    /**
+     * 丢弃消息（任务已取消或不存在）
+     */
+    public void discard(RecordId recordId) {
+        redisUtil.executePipelined(operations -> {
+            operations.opsForStream().acknowledge(STREAM_KEY, CONSUMER_GROUP, recordId);
+            operations.opsForStream().delete(STREAM_KEY, recordId);
+        });
+    }
+
+    /**
+     * 重新入队租约过期的任务
+     * 通过 XCLAIM 的最小空闲时间保证同一条消息只会被一个节点接管
+     * @return 重新入队的任务数
+     */
+    public int requeueExpired(String consumerName, long leaseMillis, int maxAttempts) {
+        PendingMessages pending = redisTemplate.opsForStream()
+            .pending(STREAM_KEY, CONSUMER_GROUP, Range.unbounded(), 100);
+        List<RecordId> expired = new ArrayList<>();
+        for (PendingMessage message : pending) {
+            if (message.getElapsedTimeSinceLastDelivery().toMillis() >= leaseMillis) {
+                expired.add(message.getId());
+            }
+        }
+        if (expired.isEmpty()) {
+            return 0;
+        }
+
+        List<RecordId> claimed = redisTemplate.execute((RedisCallback<List<RecordId>>) connection ->
+            connection.streamCommands().xClaimJustId(rawStreamKey(), CONSUMER_GROUP, consumerName,
+                XClaimOptions.minIdle(Duration.ofMillis(leaseMillis)).ids(expired)));
+        if (claimed == null || claimed.isEmpty()) {
+            return 0;
+        }
+
+        List<MapRecord<String, Object, Object>> records = new ArrayList<>();
+        for (RecordId recordId : claimed) {
+            List<MapRecord<String, Object, Object>> range = redisTemplate.opsForStream()
+                .range(STREAM_KEY, Range.closed(recordId.getValue(), recordId.getValue()));
+            if (range != null) {
+                records.addAll(range);
+            }
+        }
+
+        long now = System.currentTimeMillis();
+        int requeued = 0;
+        for (MapRecord<String, Object, Object> record : records) {
+            String taskId = getTaskId(record);
+            ExecutionTask task = taskId != null ? executionTaskRepository.findById(taskId) : null;
+            if (task == null || task.getStatus() == null || isFinished(task.getStatus())) {
+                discard(record.getId());
+                continue;
+            }
+            if (task.getStatus() == TaskStatus.QUEUED) {
+                // 执行节点读取消息后、领取前失联，任务仍在排队：换一条新的流消息重新投递
+                log.warn("任务消息领取前执行节点失联，重新投递: {}", taskId);
+                redisUtil.executePipelined(operations -> {
+                    operations.opsForStream().acknowledge(STREAM_KEY, CONSUMER_GROUP, record.getId());
+                    operations.opsForStream().delete(STREAM_KEY, record.getId());
+                    operations.opsForStream().add(StreamRecords.newRecord()
+                        .in(STREAM_KEY)
+                        .ofMap(Collections.<Object, Object>singletonMap(FIELD_TASK_ID, taskId)));
+                });
+                requeued++;
+                continue;
+            }
+            if (task.getAttempts() >= maxAttempts) {
+                log.warn("任务多次执行节点失联，标记为失败: {}", taskId);
+                complete(record.getId(), task, TaskStatus.FAILED, "执行节点失联次数超过上限");
+                continue;
+            }
+            Map<String, Object> fields = new HashMap<>();
+            fields.put("status", TaskStatus.QUEUED.name());
+            fields.put("queuedAt", now);
+            if (!executionTaskRepository.compareAndSetStatus(taskId, TaskStatus.RUNNING, fields)) {
+                discard(record.getId());  // 执行节点已在此期间完成
+                continue;
+            }
+            log.warn("任务租约过期，重新入队: {} (原执行节点 {})", taskId, task.getWorkerId());
+            // 新的流消息在清除执行节点字段之后追加，此前任务不会被领取
+            List<Object> results = redisUtil.executePipelined(operations -> {
+                operations.opsForStream().acknowledge(STREAM_KEY, CONSUMER_GROUP, record.getId());
+                operations.opsForStream().delete(STREAM_KEY, record.getId());
+                executionTaskRepository.removeFields(taskId, operations, "workerId", "startedAt", "leaseUntil");
+                operations.opsForStream().add(StreamRecords.newRecord()
+                    .in(STREAM_KEY)
+                    .ofMap(Collections.<Object, Object>singletonMap(FIELD_TASK_ID, taskId)));
+                countTransition(task.getRunId(), TaskStatus.RUNNING, TaskStatus.QUEUED, operations);
+            });
+            task.setStatus(TaskStatus.QUEUED);
+            task.setWorkerId(null);
+            publishTransition(task, "执行节点失联，重新入队", results);
+            requeued++;
+        }
+        return requeued;
+    }
+
+    /**
+     * 在管道中更新批次进度计数，最后一条命令读取计数快照（其结果位于管道结果末尾）
+     */
+    private void countTransition(String runId, TaskStatus from, TaskStatus to,
+                                 RedisOperations<String, Object> operations) {
+        if (runId == null) {
+            return;
+        }
+        String runKey = runKey(runId);
+        operations.opsForHash().increment(runKey, progressField(from), -1);
+        operations.opsForHash().increment(runKey, progressField(to), 1);
+        operations.opsForHash().entries(runKey);
+    }
+
+    private void publishTransition(ExecutionTask task, String message, List<Object> pipelineResults) {
+        ExecutionEvent event = new ExecutionEvent();
+        event.setTaskId(task.getTaskId());
+        event.setCaseId(task.getCaseId());
+        event.setRunId(task.getRunId());
+        event.setStatus(task.getStatus());
+        event.setWorkerId(task.getWorkerId());
+        event.setMessage(message);
+        event.setTimestamp(System.currentTimeMillis());
+        if (task.getRunId() != null && !pipelineResults.isEmpty()) {
+            event.setProgress(toProgress(pipelineResults.get(pipelineResults.size() - 1)));
+        }
+        publish(event);
+    }
+
+    private void publish(ExecutionEvent event) {
+        try {
+            redisUtil.publish(EVENT_CHANNEL, event);
+        } catch (Exception e) {
+            // 事件只用于实时展示，发布失败不影响任务状态
+            log.warn("发布执行事件失败: {}", e.getMessage());
+        }
+    }
+
+    private static boolean isFinished(TaskStatus status) {
+        return status == TaskStatus.COMPLETED || status == TaskStatus.FAILED || status == TaskStatus.CANCELLED;
+    }
+
+    @SuppressWarnings("unchecked")
+    private byte[] serializeValue(Object value) {
+        return ((RedisSerializer<Object>) redisTemplate.getHashValueSerializer()).serialize(value);
+    }
+
+    private void addField(List<Object> args, String field, Object value) {
+        args.add(utf8(field));
+        args.add(serializeValue(value));
+    }
+
+    private static byte[] utf8(String value) {
+        return StringRedisSerializer.UTF_8.serialize(value);
+    }
+
+    private static String runKey(String runId) {
+        return RUN_KEY_PREFIX + runId;
+    }
+
+    private static String progressField(TaskStatus status) {
+        return status.name().toLowerCase();
+    }
+
+    private static Map<String, Long> toProgress(Object hash) {
+        Map<String, Long> progress = new HashMap<>();
+        if (hash instanceof Map) {
+            ((Map<?, ?>) hash).forEach((field, value) -> progress.put(field.toString(),
+                value instanceof Number ? ((Number) value).longValue() : Long.parseLong(value.toString())));
+        }
+        return progress;
+    }
+
+    private void xClaimJustId(RedisOperations<String, Object> operations,
+                              String consumerName, Duration minIdle, RecordId... recordIds) {
+        operations.execute((RedisCallback<Object>) connection ->
+            connection.streamCommands().xClaimJustId(rawStreamKey(), CONSUMER_GROUP, consumerName,
+                XClaimOptions.minIdle(minIdle).ids(recordIds)));
+    }
+
+    private static byte[] rawStreamKey() {
+        return StringRedisSerializer.UTF_8.serialize(STREAM_KEY);
+    }
+
+    private double queueDepth() {
+        try {
+            Long size = redisTemplate.opsForStream().size(STREAM_KEY);
+            return size != null ? size : 0;
+        } catch (Exception e) {
+            return Double.NaN;
+        }
+    }
+
+    private double pendingCount() {
+        try {
+            PendingMessagesSummary summary = redisTemplate.opsForStream().pending(STREAM_KEY, CONSUMER_GROUP);
+            return summary != null ? summary.getTotalPendingMessages() : 0;
+        } catch (Exception e) {
+            return Double.NaN;
+        }
+    }
+}
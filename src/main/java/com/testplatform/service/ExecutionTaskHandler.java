@@ -0,0 +1,16 @@
+package com.testplatform.service;
+
+import com.testplatform.entity.ExecutionTask;
+
+/**
+ * 执行任务处理器
+ * 由执行节点在领取任务后调用，返回正常视为执行成功，抛出异常视为执行失败
+ */
+public interface ExecutionTaskHandler {
+
+    /**
+     * 执行任务
+     * @return 执行结果说明，可为 null
+     */
+    String handle(ExecutionTask task) throws Exception;
+}
@@ -0,0 +1,189 @@
+package com.testplatform.service;
+
+import com.testplatform.entity.ExecutionTask;
+import com.testplatform.entity.enums.TaskStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.net.InetAddress;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 执行节点
+ * 启动 concurrency 个工作线程，各自从执行队列领取并执行任务；后台定时为执行中的任务续约，
+ * 并接管租约过期（执行节点失联）的任务重新入队。
+ * 通过 execution.worker.enabled 控制是否在当前进程中运行，也可以用 worker 配置文件以无Web的方式单独部署。
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "execution.worker.enabled", havingValue = "true", matchIfMissing = true)
+public class ExecutionWorker {
+
+    private final ExecutionQueueService executionQueueService;
+    private final ObjectProvider<ExecutionTaskHandler> handlerProvider;
+
+    @Value("${execution.worker.concurrency:32}")
+    private int concurrency;
+
+    @Value("${execution.worker.lease-ms:30000}")
+    private long leaseMillis;
+
+    @Value("${execution.worker.block-ms:5000}")
+    private long blockMillis;
+
+    @Value("${execution.worker.max-attempts:3}")
+    private int maxAttempts;
+
+    private final String consumerName;
+    private final Map<RecordId, String> running = new ConcurrentHashMap<>();  // 当前节点执行中的消息 -> 任务ID
+
+    private volatile boolean active;
+    private volatile boolean groupReady;
+    private ExecutorService workers;
+    private ScheduledExecutorService scheduler;
+
+    public ExecutionWorker(ExecutionQueueService executionQueueService,
+                           ObjectProvider<ExecutionTaskHandler> handlerProvider) {
+        this.executionQueueService = executionQueueService;
+        this.handlerProvider = handlerProvider;
+        this.consumerName = resolveHostName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    @PostConstruct
+    public void start() {
+        active = true;
+
+        workers = Executors.newFixedThreadPool(concurrency, namedThreadFactory("execution-worker-"));
+        for (int i = 0; i < concurrency; i++) {
+            workers.submit(this::pollLoop);
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(namedThreadFactory("execution-lease-"));
+        long heartbeatInterval = Math.max(1000, leaseMillis / 3);
+        scheduler.scheduleWithFixedDelay(this::heartbeat, heartbeatInterval, heartbeatInterval, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::requeueExpired, leaseMillis, Math.max(1000, leaseMillis / 2), TimeUnit.MILLISECONDS);
+
+        log.info("执行节点已启动: {}, 并发数: {}", consumerName, concurrency);
+    }
+
+    @PreDestroy
+    public void stop() {
+        active = false;
+        scheduler.shutdownNow();
+        workers.shutdown();
+        try {
+            // 等待执行中的任务结束，未结束的任务在租约过期后由其他节点重新入队
+            if (!workers.awaitTermination(blockMillis + 5000, TimeUnit.MILLISECONDS)) {
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        log.info("执行节点已停止: {}", consumerName);
+    }
+
+    private void pollLoop() {
+        while (active) {
+            try {
+                if (!groupReady) {
+                    executionQueueService.ensureConsumerGroup();
+                    groupReady = true;
+                }
+                List<MapRecord<String, Object, Object>> records = executionQueueService.read(consumerName, 1, blockMillis);
+                for (MapRecord<String, Object, Object> record : records) {
+                    process(record);
+                }
+            } catch (Exception e) {
+                if (!active) {
+                    break;
+                }
+                log.error("读取执行队列失败: {}", e.getMessage());
+                sleepQuietly(1000);
+            }
+        }
+    }
+
+    private void process(MapRecord<String, Object, Object> record) {
+        String taskId = executionQueueService.getTaskId(record);
+        ExecutionTask task = taskId != null ? executionQueueService.claim(taskId, consumerName, leaseMillis) : null;
+        if (task == null) {
+            // 任务已取消或不存在
+            executionQueueService.discard(record.getId());
+            return;
+        }
+
+        running.put(record.getId(), taskId);
+        try {
+            ExecutionTaskHandler handler = handlerProvider.getIfAvailable();
+            if (handler == null) {
+                executionQueueService.complete(record.getId(), task, TaskStatus.FAILED, "未配置任务处理器");
+                return;
+            }
+            String message = handler.handle(task);
+            executionQueueService.complete(record.getId(), task, TaskStatus.COMPLETED, message);
+        } catch (Exception e) {
+            log.error("任务执行失败: {}", taskId, e);
+            executionQueueService.complete(record.getId(), task, TaskStatus.FAILED, e.getMessage());
+        } finally {
+            running.remove(record.getId());
+        }
+    }
+
+    private void heartbeat() {
+        try {
+            executionQueueService.renewLeases(consumerName, new HashMap<>(running), leaseMillis);
+        } catch (Exception e) {
+            log.error("任务续约失败: {}", e.getMessage());
+        }
+    }
+
+    private void requeueExpired() {
+        try {
+            int requeued = executionQueueService.requeueExpired(consumerName, leaseMillis, maxAttempts);
+            if (requeued > 0) {
+                log.info("重新入队租约过期的任务: {} 个", requeued);
+            }
+        } catch (Exception e) {
+            log.error("检查过期租约失败: {}", e.getMessage());
+        }
+    }
+
+    private static CustomizableThreadFactory namedThreadFactory(String prefix) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(prefix);
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+
+    private static String resolveHostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "worker";
+        }
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
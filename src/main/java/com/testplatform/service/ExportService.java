@@ -0,0 +1,193 @@
+package com.testplatform.service;
+
+import com.testplatform.dto.TestCaseQueryRequest;
+import com.testplatform.entity.Requirement;
+import com.testplatform.entity.TestCase;
+import com.testplatform.export.ExportFormat;
+import com.testplatform.export.ExportWriter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Root;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 数据导出服务
+ * 使用与列表查询相同的过滤条件，通过只进游标逐行读取并立即写出；每处理一批就清空持久化上下文，
+ * 内存占用与导出行数无关。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ExportService {
+
+    // MySQL驱动只有在 fetchSize 为 Integer.MIN_VALUE 时才逐行流式读取，否则会把整个结果集读入内存
+    private static final int STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+    private static final int CHUNK_SIZE = 500;
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final List<String> CASE_COLUMNS = Arrays.asList(
+        "ID", "标题", "优先级", "状态", "前置条件", "步骤", "创建人", "需求编号", "自动化标识", "创建时间", "更新时间");
+    private static final List<String> REQUIREMENT_COLUMNS = Arrays.asList(
+        "ID", "需求编号", "需求名称", "描述", "模块", "创建人", "状态", "执行人", "创建时间", "更新时间");
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TestCaseService testCaseService;
+    private final RequirementService requirementService;
+
+    /**
+     * 导出测试用例
+     */
+    public void exportTestCases(TestCaseQueryRequest request, ExportFormat format, OutputStream out) throws IOException {
+        long start = System.currentTimeMillis();
+        long count = 0;
+        Specification<TestCase> filters = testCaseService.buildSpecification(request);
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try (ExportWriter writer = format.open(out, CASE_COLUMNS)) {
+            CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+            CriteriaQuery<TestCase> query = cb.createQuery(TestCase.class);
+            Root<TestCase> root = query.from(TestCase.class);
+            root.fetch("creator", JoinType.LEFT);
+            query.select(root)
+                .where(filters.toPredicate(root, query, cb))
+                .orderBy(cb.desc(root.get("createdAt")), cb.desc(root.get("id")));
+
+            List<TestCase> chunk = new ArrayList<>(CHUNK_SIZE);
+            try (Stream<TestCase> stream = streamingQuery(entityManager, query).getResultStream()) {
+                Iterator<TestCase> iterator = stream.iterator();
+                while (iterator.hasNext()) {
+                    chunk.add(iterator.next());
+                    if (chunk.size() >= CHUNK_SIZE) {
+                        count += writeTestCases(writer, chunk);
+                        entityManager.clear();
+                    }
+                }
+            }
+            count += writeTestCases(writer, chunk);
+        } finally {
+            entityManager.close();
+        }
+        log.info("导出测试用例 {} 条, 格式: {}, 耗时 {}ms", count, format, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 导出需求
+     */
+    public void exportRequirements(String reqCode, String reqName, Integer moduleId, String reqStatus,
+                                   Long executorId, ExportFormat format, OutputStream out) throws IOException {
+        long start = System.currentTimeMillis();
+        long count = 0;
+        Specification<Requirement> filters = requirementService.buildSpecification(
+            reqCode, reqName, moduleId, reqStatus, executorId);
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try (ExportWriter writer = format.open(out, REQUIREMENT_COLUMNS)) {
+            CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+            CriteriaQuery<Requirement> query = cb.createQuery(Requirement.class);
+            Root<Requirement> root = query.from(Requirement.class);
+            root.fetch("creator", JoinType.LEFT);
+            root.fetch("module", JoinType.LEFT);
+            query.select(root)
+                .where(filters.toPredicate(root, query, cb))
+                .orderBy(cb.desc(root.get("reqCode")));
+
+            try (Stream<Requirement> stream = streamingQuery(entityManager, query).getResultStream()) {
+                Iterator<Requirement> iterator = stream.iterator();
+                while (iterator.hasNext()) {
+                    Requirement requirement = iterator.next();
+                    writer.writeRow(Arrays.asList(
+                        requirement.getId(),
+                        requirement.getReqCode(),
+                        requirement.getReqName(),
+                        requirement.getDescription(),
+                        requirement.getModule() != null ? requirement.getModule().getModuleName() : null,
+                        requirement.getCreator() != null ? requirement.getCreator().getRealName() : null,
+                        requirement.getReqStatus() != null ? requirement.getReqStatus().name() : null,
+                        requirement.getExecutorIds(),
+                        format(requirement.getCreatedAt()),
+                        format(requirement.getUpdatedAt())));
+                    if (++count % CHUNK_SIZE == 0) {
+                        entityManager.clear();
+                    }
+                }
+            }
+        } finally {
+            entityManager.close();
+        }
+        log.info("导出需求 {} 条, 格式: {}, 耗时 {}ms", count, format, System.currentTimeMillis() - start);
+    }
+
+    private static <T> TypedQuery<T> streamingQuery(EntityManager entityManager, CriteriaQuery<T> query) {
+        return entityManager.createQuery(query)
+            .setHint(QueryHints.HINT_FETCH_SIZE, STREAMING_FETCH_SIZE)
+            .setHint(QueryHints.HINT_READONLY, true);
+    }
+
+    /**
+     * 写出一批用例；需求编号按批次一次查出
+     * 流式结果集占用着当前连接，这里的查询由 JdbcTemplate 在另一个连接上执行
+     */
+    private int writeTestCases(ExportWriter writer, List<TestCase> chunk) throws IOException {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        Map<Integer, List<String>> requirementCodes = findRequirementCodes(
+            chunk.stream().map(TestCase::getId).collect(Collectors.toList()));
+        for (TestCase testCase : chunk) {
+            List<String> codes = requirementCodes.getOrDefault(testCase.getId(), Collections.emptyList());
+            writer.writeRow(Arrays.asList(
+                testCase.getId(),
+                testCase.getTitle(),
+                testCase.getPriority() != null ? testCase.getPriority().name() : null,
+                testCase.getStatus() != null ? testCase.getStatus().getDescription() : null,
+                testCase.getPrecondition(),
+                testCase.getCaseDetail(),
+                testCase.getCreator() != null ? testCase.getCreator().getRealName() : null,
+                String.join(",", codes),
+                testCase.getAutomationKey(),
+                format(testCase.getCreatedAt()),
+                format(testCase.getUpdatedAt())));
+        }
+        int size = chunk.size();
+        chunk.clear();
+        return size;
+    }
+
+    private Map<Integer, List<String>> findRequirementCodes(List<Integer> caseIds) {
+        Map<Integer, List<String>> codes = new HashMap<>();
+        namedParameterJdbcTemplate.query(
+            "SELECT tcr.test_case_id, r.req_code FROM test_case_requirement tcr "
+                + "JOIN requirement r ON r.id = tcr.requirement_id WHERE tcr.test_case_id IN (:ids)",
+            Collections.singletonMap("ids", caseIds),
+            rs -> {
+                codes.computeIfAbsent(rs.getInt("test_case_id"), id -> new ArrayList<>()).add(rs.getString("req_code"));
+            });
+        return codes;
+    }
+
+    private static String format(LocalDateTime time) {
+        return time != null ? time.format(DATE_TIME_FORMATTER) : null;
+    }
+}
@@ -1,13 +1,25 @@
 package com.testplatform.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.testplatform.common.Result;
+import com.testplatform.dto.ModuleCatalogSnapshot;
 import com.testplatform.entity.Module;
 import com.testplatform.repository.ModuleRepository;
+import com.testplatform.search.IndexChangeEvent;
+import com.testplatform.search.SearchDocumentType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Slf4j
 @Service
@@ -15,13 +27,70 @@ import java.util.List;
 public class ModuleService {
 
     private final ModuleRepository moduleRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+
+    // 模块变更提交后递增，快照版本落后时在下次读取时重建
+    private final AtomicLong catalogVersion = new AtomicLong();
+    private volatile ModuleCatalogSnapshot catalogSnapshot;
 
     /**
-     * 获取所有启用的模块
+     * 快照最长使用时长，超过后即使版本未变也重建，防止其他节点的变更消息丢失后一直返回旧目录；0表示不限制
      */
-    public List<Module> getAllActiveModules() {
-        log.info("获取所有启用的模块");
-        return moduleRepository.findByModuleStatus(true);
+    @Value("${module.catalog.max-age-seconds:300}")
+    private long catalogMaxAgeSeconds;
+
+    /**
+     * 获取启用模块目录快照
+     * 模块未变更且快照未过期时直接返回内存中的快照，不查库也不重新序列化；
+     * 重建在变更提交后进行，需读主库，不能路由到可能尚未同步的副本
+     */
+    public ModuleCatalogSnapshot getCatalogSnapshot() {
+        ModuleCatalogSnapshot snapshot = catalogSnapshot;
+        if (isCurrent(snapshot, catalogVersion.get())) {
+            return snapshot;
+        }
+        synchronized (this) {
+            snapshot = catalogSnapshot;
+            long version = catalogVersion.get();
+            if (isCurrent(snapshot, version)) {
+                return snapshot;
+            }
+            // 构建期间若又有变更，版本号已前进，下次读取会再次重建
+            snapshot = buildCatalogSnapshot(version);
+            catalogSnapshot = snapshot;
+            log.info("模块目录快照已重建: version={}, {}个模块", version, snapshot.getModules().size());
+            return snapshot;
+        }
+    }
+
+    private boolean isCurrent(ModuleCatalogSnapshot snapshot, long version) {
+        if (snapshot == null || snapshot.getVersion() != version) {
+            return false;
+        }
+        return catalogMaxAgeSeconds <= 0
+            || System.currentTimeMillis() - snapshot.getBuiltAt() < catalogMaxAgeSeconds * 1000;
+    }
+
+    /**
+     * 模块变更提交后使快照失效；其他节点的变更由 SearchService 转发
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onModuleChange(IndexChangeEvent event) {
+        if (event.getType() == SearchDocumentType.MODULE) {
+            catalogVersion.incrementAndGet();
+        }
+    }
+
+    private ModuleCatalogSnapshot buildCatalogSnapshot(long version) {
+        List<Module> modules = Collections.unmodifiableList(moduleRepository.findByModuleStatus(true));
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(Result.success(modules));
+            String etag = "\"" + DigestUtils.md5DigestAsHex(json) + "\"";
+            return new ModuleCatalogSnapshot(version, modules, json, etag, System.currentTimeMillis());
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("模块列表序列化失败: " + e.getMessage());
+        }
     }
 
     /**
@@ -37,7 +106,9 @@ public class ModuleService {
             throw new RuntimeException("模块名已存在");
         }
 
-        return moduleRepository.save(module);
+        Module savedModule = moduleRepository.save(module);
+        eventPublisher.publishEvent(IndexChangeEvent.of(SearchDocumentType.MODULE, savedModule.getId()));
+        return savedModule;
     }
 
     /**
@@ -64,12 +135,14 @@ public class ModuleService {
         existingModule.setDescription(module.getDescription());
         existingModule.setModuleStatus(module.getModuleStatus());
 
+        eventPublisher.publishEvent(IndexChangeEvent.of(SearchDocumentType.MODULE, id));
         return moduleRepository.save(existingModule);
     }
 
     /**
      * 获取模块详情
      */
+    @Transactional(readOnly = true)
     public Module getModuleById(Integer id) {
         log.info("获取模块详情: {}", id);
         return moduleRepository.findById(id)
@@ -94,5 +167,6 @@ public class ModuleService {
             
         module.setModuleStatus(status);
         moduleRepository.save(module);
+        eventPublisher.publishEvent(IndexChangeEvent.of(SearchDocumentType.MODULE, id));
     }
 } 
\ No newline at end of file
@@ -1,21 +1,32 @@
 package com.testplatform.service;
 
+import com.testplatform.common.TotalMode;
+import com.testplatform.dto.PageResult;
 import com.testplatform.dto.RequirementRequest;
 import com.testplatform.entity.Module;
 import com.testplatform.entity.Requirement;
+import com.testplatform.entity.RequirementExecutor;
 import com.testplatform.entity.User;
 import com.testplatform.entity.enums.RequirementStatus;
 import com.testplatform.repository.ModuleRepository;
+import com.testplatform.repository.RequirementExecutorRepository;
 import com.testplatform.repository.RequirementRepository;
+import com.testplatform.repository.RequirementRepositoryCustom;
 import com.testplatform.repository.UserRepository;
+import com.testplatform.search.IndexChangeEvent;
+import com.testplatform.search.SearchDocumentType;
+import com.testplatform.util.CursorCodec;
+import com.testplatform.util.FieldSelector;
 import com.testplatform.util.RequirementCodeGenerator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import lombok.var;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
@@ -24,8 +35,16 @@ import org.springframework.util.StringUtils;
 
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -36,7 +55,10 @@ public class RequirementService {
     private final RequirementRepository requirementRepository;
     private final ModuleRepository moduleRepository;
     private final UserRepository userRepository;
+    private final RequirementExecutorRepository requirementExecutorRepository;
     private final RequirementCodeGenerator codeGenerator;
+    private final CountCache countCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * 创建需求
@@ -72,14 +94,13 @@ public class RequirementService {
             requirement.setModule(module);
         }
         
-        // 设置执行者ID列表
+        Requirement savedRequirement = requirementRepository.save(requirement);
+
+        // 设置执行者
         if (request.getExecutorIds() != null && !request.getExecutorIds().isEmpty()) {
-            requirement.setExecutorIds(request.getExecutorIds().stream()
-                .map(String::valueOf)
-                .collect(Collectors.joining(",")));
+            updateExecutors(savedRequirement, request.getExecutorIds());
         }
-
-        Requirement savedRequirement = requirementRepository.save(requirement);
+        eventPublisher.publishEvent(IndexChangeEvent.of(SearchDocumentType.REQUIREMENT, savedRequirement.getId()));
         log.info("需求创建成功: {}", savedRequirement.getReqCode());
         return savedRequirement;
     }
@@ -108,18 +129,47 @@ public class RequirementService {
         
         // 更新执行者列表
         if (request.getExecutorIds() != null) {
-            requirement.setExecutorIds(request.getExecutorIds().stream()
-                .map(String::valueOf)
-                .collect(Collectors.joining(",")));
+            updateExecutors(requirement, request.getExecutorIds());
         }
 
         requirementRepository.save(requirement);
+        eventPublisher.publishEvent(IndexChangeEvent.of(SearchDocumentType.REQUIREMENT, id));
         log.info("需求更新成功: {}", requirement.getReqCode());
     }
 
+    /**
+     * 更新需求的执行者：同步 requirement_executor 表（只增删有变化的行），并刷新展示用的 executorIds
+     */
+    private void updateExecutors(Requirement requirement, List<Long> executorIds) {
+        Set<Long> userIds = new LinkedHashSet<>(executorIds);
+        userIds.remove(null);
+        requirement.setExecutorIds(userIds.isEmpty() ? null : userIds.stream()
+            .map(String::valueOf)
+            .collect(Collectors.joining(",")));
+
+        List<RequirementExecutor> existing = requirementExecutorRepository.findByRequirementId(requirement.getId());
+        List<RequirementExecutor> removed = new ArrayList<>();
+        for (RequirementExecutor executor : existing) {
+            if (!userIds.remove(executor.getUser().getId())) {
+                removed.add(executor);
+            }
+        }
+        requirementExecutorRepository.deleteAll(removed);
+
+        List<RequirementExecutor> added = new ArrayList<>();
+        for (Long userId : userIds) {
+            RequirementExecutor executor = new RequirementExecutor();
+            executor.setRequirement(requirement);
+            executor.setUser(userRepository.getReferenceById(userId));
+            added.add(executor);
+        }
+        requirementExecutorRepository.saveAll(added);
+    }
+
     /**
      * 获取需求详情
      */
+    @Transactional(readOnly = true)
     public Requirement getRequirementById(Integer id) {
         log.info("获取需求详情: {}", id);
         return requirementRepository.findById(id)
@@ -129,20 +179,26 @@ public class RequirementService {
     /**
      * 分页查询需求
      */
-    public Page<Requirement> findRequirements(String reqCode, String reqName, 
-            Integer moduleId, String reqStatus, Pageable pageable) {
-        log.info("查询需求列表: reqCode={}, reqName={}, moduleId={}, reqStatus={}", 
-            reqCode, reqName, moduleId, reqStatus);
+    @Transactional(readOnly = true)
+    public PageResult<Requirement> findRequirements(String reqCode, String reqName,
+            Integer moduleId, String reqStatus, Long executorId, String cursor, String totalMode, Pageable pageable) {
+        log.info("查询需求列表: reqCode={}, reqName={}, moduleId={}, reqStatus={}, executorId={}", 
+            reqCode, reqName, moduleId, reqStatus, executorId);
             
-        Specification<Requirement> spec = (root, query, cb) -> {
+        Specification<Requirement> filters = buildSpecification(reqCode, reqName, moduleId, reqStatus, executorId);
+        String countKey = Arrays.asList(reqCode, reqName, moduleId, reqStatus, executorId).toString();
+        return query(filters, countKey, cursor, totalMode, pageable);
+    }
+
+    /**
+     * 构建需求查询条件（不含关联预加载），分页查询和导出共用
+     * @param executorId 只查询分配给该用户的需求
+     */
+    public Specification<Requirement> buildSpecification(String reqCode, String reqName,
+            Integer moduleId, String reqStatus, Long executorId) {
+        return (root, query, cb) -> {
             var predicates = new ArrayList<Predicate>();
             
-            // 添加 fetch join 来预加载关联实体
-            if (query.getResultType().equals(Requirement.class)) {
-                root.fetch("creator", JoinType.LEFT);
-                root.fetch("module", JoinType.LEFT);
-            }
-            
             if (StringUtils.hasText(reqCode)) {
                 predicates.add(cb.like(root.get("reqCode"), "%" + reqCode + "%"));
             }
@@ -155,17 +211,25 @@ public class RequirementService {
             if (StringUtils.hasText(reqStatus)) {
                 predicates.add(cb.equal(root.get("reqStatus"), RequirementStatus.valueOf(reqStatus)));
             }
+            if (executorId != null) {
+                // 子查询走 requirement_executor 的 (user_id, requirement_id) 索引
+                Subquery<Integer> assigned = query.subquery(Integer.class);
+                Root<RequirementExecutor> executor = assigned.from(RequirementExecutor.class);
+                assigned.select(executor.get("requirement").get("id"))
+                    .where(cb.equal(executor.get("user").get("id"), executorId));
+                predicates.add(root.get("id").in(assigned));
+            }
             
             return cb.and(predicates.toArray(new Predicate[0]));
         };
-        
-        return requirementRepository.findAll(spec, pageable);
     }
 
     /**
      * 搜索需求
      */
-    public Page<Requirement> searchRequirements(String keyword, Pageable pageable) {
+    @Transactional(readOnly = true)
+    public PageResult<Requirement> searchRequirements(String keyword, String cursor, String totalMode,
+            Pageable pageable) {
         log.info("搜索需求，关键字: {}", keyword);
         
         Specification<Requirement> spec = (root, query, cb) -> {
@@ -181,8 +245,7 @@ public class RequirementService {
         };
         
         // 添加排序条件：按需求编号降序
-        return requirementRepository.findAll(
-            spec, 
+        return query(spec, "search:" + keyword, cursor, totalMode,
             PageRequest.of(
                 pageable.getPageNumber(),
                 pageable.getPageSize(),
@@ -190,4 +253,80 @@ public class RequirementService {
             )
         );
     }
-} 
\ No newline at end of file
+
+    /**
+     * 分页查询需求的指定字段（fields 参数），只查询请求的列
+     */
+    @Transactional(readOnly = true)
+    public PageResult<Map<String, Object>> findRequirementFields(String reqCode, String reqName,
+            Integer moduleId, String reqStatus, Long executorId, String fields, String cursor, String totalMode,
+            Pageable pageable) {
+        Set<String> selected = FieldSelector.parse(fields, RequirementRepositoryCustom.PROJECTABLE_FIELDS);
+        if (selected == null) {
+            throw new RuntimeException("未指定查询字段");
+        }
+        // 游标分页需要 reqCode 生成下一页游标，未请求时查出后再去掉
+        boolean extraReqCode = cursor != null && selected.add("reqCode");
+        Specification<Requirement> filters = buildSpecification(reqCode, reqName, moduleId, reqStatus, executorId);
+        String countKey = Arrays.asList(reqCode, reqName, moduleId, reqStatus, executorId).toString();
+        PageResult<Map<String, Object>> result = query(filters, countKey, cursor, totalMode, pageable,
+            (spec, page) -> requirementRepository.findFieldPage(spec, page, selected),
+            (spec, page) -> requirementRepository.findFieldSlice(spec, page, selected),
+            row -> (String) row.get("reqCode"));
+        if (extraReqCode) {
+            result.getContent().forEach(row -> row.remove("reqCode"));
+        }
+        return result;
+    }
+
+    private PageResult<Requirement> query(Specification<Requirement> filters, String countKey,
+            String cursor, String totalMode, Pageable pageable) {
+        Specification<Requirement> withAssociations = (root, query, cb) -> {
+            // 添加 fetch join 来预加载关联实体
+            if (query.getResultType().equals(Requirement.class)) {
+                root.fetch("creator", JoinType.LEFT);
+                root.fetch("module", JoinType.LEFT);
+            }
+            return filters.toPredicate(root, query, cb);
+        };
+        return query(withAssociations, countKey, cursor, totalMode, pageable,
+            requirementRepository::findAll, requirementRepository::findSlice, Requirement::getReqCode);
+    }
+
+    /**
+     * 按分页方式执行需求查询
+     * 游标分页按需求编号（唯一）降序，条件 req_code < 游标值 直接走唯一索引
+     */
+    private <T> PageResult<T> query(Specification<Requirement> spec, String countKey,
+            String cursor, String totalMode, Pageable pageable,
+            BiFunction<Specification<Requirement>, Pageable, Page<T>> pageQuery,
+            BiFunction<Specification<Requirement>, Pageable, Slice<T>> sliceQuery,
+            Function<T, String> codeOf) {
+        if (cursor != null) {
+            Specification<Requirement> cursorSpec = spec;
+            if (!cursor.isEmpty()) {
+                String afterCode = CursorCodec.decode(cursor, 1)[0];
+                Specification<Requirement> after = (root, query, cb) -> cb.lessThan(root.get("reqCode"), afterCode);
+                cursorSpec = cursorSpec.and(after);
+            }
+            Slice<T> slice = sliceQuery.apply(cursorSpec,
+                PageRequest.of(0, pageable.getPageSize(), Sort.by(Sort.Direction.DESC, "reqCode")));
+            String nextCursor = slice.hasNext()
+                ? CursorCodec.encode(codeOf.apply(slice.getContent().get(slice.getNumberOfElements() - 1)))
+                : null;
+            return new PageResult<>(slice.getContent(), null, false, slice.hasNext(), nextCursor);
+        }
+
+        TotalMode mode = TotalMode.of(totalMode);
+        if (mode == TotalMode.EXACT) {
+            Page<T> page = pageQuery.apply(spec, pageable);
+            return new PageResult<>(page.getContent(), page.getTotalElements(), false, page.hasNext(), null);
+        }
+        Slice<T> slice = sliceQuery.apply(spec, pageable);
+        Long total = null;
+        if (mode == TotalMode.APPROXIMATE) {
+            total = countCache.get("requirement:" + countKey, () -> requirementRepository.count(spec));
+        }
+        return new PageResult<>(slice.getContent(), total, total != null, slice.hasNext(), null);
+    }
+}
\ No newline at end of file
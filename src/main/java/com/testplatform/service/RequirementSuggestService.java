@@ -0,0 +1,133 @@
+package com.testplatform.service;
+
+import com.testplatform.dto.RequirementSuggestion;
+import com.testplatform.search.IndexChangeEvent;
+import com.testplatform.search.SearchDocumentType;
+import com.testplatform.util.SuggestIndex;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 需求联想服务
+ * 所有需求的编号和名称常驻内存，联想查询不访问数据库。
+ * 需求新增或修改提交后按ID增量更新（包括其他节点的变更），并定时全量重新加载兜底。
+ * 全量加载期间收到的变更会记下ID，在新索引替换完成后重新读取，避免被加载前的快照覆盖。
+ */
+@Slf4j
+@Service
+public class RequirementSuggestService {
+
+    private static final String SELECT_SQL = "SELECT id, req_code, req_name FROM requirement";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final SuggestIndex suggestIndex = new SuggestIndex();
+    private final int maxLimit;
+    private final Object reloadLock = new Object();
+    private Set<Integer> changedDuringReload;  // 非null表示正在全量加载
+
+    public RequirementSuggestService(JdbcTemplate jdbcTemplate,
+                                     NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${requirement.suggest.max-limit:50}") int maxLimit) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.maxLimit = maxLimit;
+        Gauge.builder("requirement.suggest.entries", suggestIndex, SuggestIndex::size)
+            .description("联想索引中的需求数")
+            .register(meterRegistry);
+    }
+
+    /**
+     * 按编号或名称联想需求
+     */
+    public List<RequirementSuggestion> suggest(String keyword, int limit) {
+        if (!StringUtils.hasText(keyword)) {
+            return Collections.emptyList();
+        }
+        return suggestIndex.search(keyword, Math.min(Math.max(limit, 1), maxLimit)).stream()
+            .map(entry -> new RequirementSuggestion(entry.getId(), entry.getCode(), entry.getName()))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * 全量加载，启动时立即执行一次
+     */
+    @Scheduled(fixedDelayString = "${requirement.suggest.reload-interval-ms:600000}")
+    public void reload() {
+        long start = System.currentTimeMillis();
+        synchronized (reloadLock) {
+            changedDuringReload = new HashSet<>();
+        }
+        Set<Integer> changed = null;
+        try {
+            List<SuggestIndex.Entry> entries = new ArrayList<>();
+            jdbcTemplate.query(SELECT_SQL, rs -> {
+                entries.add(new SuggestIndex.Entry(rs.getInt("id"), rs.getString("req_code"), rs.getString("req_name")));
+            });
+            suggestIndex.replaceAll(entries);
+            synchronized (reloadLock) {
+                changed = changedDuringReload;
+                changedDuringReload = null;
+            }
+            log.info("需求联想索引加载完成, 条目数: {}, 耗时 {}ms", entries.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.warn("加载需求联想索引失败: {}", e.getMessage());
+        } finally {
+            synchronized (reloadLock) {
+                changedDuringReload = null;
+            }
+        }
+        // 加载期间的增量更新可能已被旧快照覆盖，替换后重新读取
+        if (changed != null && !changed.isEmpty()) {
+            refresh(changed);
+        }
+    }
+
+    /**
+     * 需求变更提交后按ID更新
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onIndexChange(IndexChangeEvent event) {
+        if (event.getType() != SearchDocumentType.REQUIREMENT) {
+            return;
+        }
+        synchronized (reloadLock) {
+            if (changedDuringReload != null) {
+                changedDuringReload.addAll(event.getIds());
+            }
+        }
+        refresh(event.getIds());
+    }
+
+    private void refresh(Collection<Integer> ids) {
+        try {
+            Set<Integer> remaining = new HashSet<>(ids);
+            namedParameterJdbcTemplate.query(SELECT_SQL + " WHERE id IN (:ids)",
+                Collections.singletonMap("ids", ids),
+                rs -> {
+                    suggestIndex.put(rs.getInt("id"), rs.getString("req_code"), rs.getString("req_name"));
+                    remaining.remove(rs.getInt("id"));
+                });
+            remaining.forEach(suggestIndex::remove);
+        } catch (Exception e) {
+            log.warn("更新需求联想索引失败, ID: {}, 原因: {}", ids, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.testplatform.service;
+
+import com.testplatform.entity.ExecutionTask;
+import com.testplatform.entity.ScheduledRun;
+import com.testplatform.util.RedisUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * 定时执行计划调度器
+ * 所有节点都运行该调度器，但只有持有Redis租约的节点（主节点）扫描到期计划；
+ * 触发前以原触发时间为条件推进 next_fire_time，即使租约过期导致短暂出现两个主节点，同一次触发也只会执行一次。
+ * 主节点宕机后租约自然过期，由其他节点接管。
+ */
+@Slf4j
+@Component
+public class ScheduledRunScheduler {
+
+    private static final String LEADER_KEY = "schedule:leader";
+    private static final int MAX_COUNTED_MISFIRES = 1000;
+
+    private final ScheduledRunService scheduledRunService;
+    private final ExecutionQueueService executionQueueService;
+    private final RedisUtil redisUtil;
+    private final String nodeId;
+
+    private final Timer triggerLagTimer;
+    private final Counter misfireCounter;
+    private final Counter firedCounter;
+    private final Counter failedCounter;
+
+    @Value("${schedule.lease-ms:30000}")
+    private long leaseMillis;
+
+    @Value("${schedule.misfire-threshold-ms:60000}")
+    private long misfireThresholdMillis;
+
+    private volatile boolean leader;
+
+    public ScheduledRunScheduler(ScheduledRunService scheduledRunService,
+                                 ExecutionQueueService executionQueueService,
+                                 RedisUtil redisUtil,
+                                 MeterRegistry meterRegistry) {
+        this.scheduledRunService = scheduledRunService;
+        this.executionQueueService = executionQueueService;
+        this.redisUtil = redisUtil;
+        this.nodeId = hostName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+        this.triggerLagTimer = Timer.builder("schedule.trigger.lag")
+            .description("计划触发时间与实际触发时间的差值")
+            .register(meterRegistry);
+        this.misfireCounter = Counter.builder("schedule.misfires")
+            .description("因调度延迟而被合并跳过的触发次数")
+            .register(meterRegistry);
+        this.firedCounter = Counter.builder("schedule.triggers")
+            .tag("result", "fired")
+            .register(meterRegistry);
+        this.failedCounter = Counter.builder("schedule.triggers")
+            .tag("result", "failed")
+            .register(meterRegistry);
+        Gauge.builder("schedule.leader", this, scheduler -> scheduler.leader ? 1 : 0)
+            .description("当前节点是否为调度主节点")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${schedule.poll-interval-ms:5000}")
+    public void poll() {
+        try {
+            if (!holdLease()) {
+                return;
+            }
+            LocalDateTime now = LocalDateTime.now();
+            for (ScheduledRun scheduledRun : scheduledRunService.findDue(now)) {
+                fire(scheduledRun, now);
+            }
+        } catch (Exception e) {
+            log.error("扫描执行计划失败: {}", e.getMessage());
+        }
+    }
+
+    private boolean holdLease() {
+        boolean held = leader
+            ? redisUtil.renewLease(LEADER_KEY, nodeId, leaseMillis)
+            : redisUtil.acquireLease(LEADER_KEY, nodeId, leaseMillis);
+        if (held != leader) {
+            log.info(held ? "成为调度主节点: {}" : "失去调度主节点身份: {}", nodeId);
+            leader = held;
+        }
+        return held;
+    }
+
+    private void fire(ScheduledRun scheduledRun, LocalDateTime now) {
+        LocalDateTime scheduled = scheduledRun.getNextFireTime();
+        CronExpression cron;
+        try {
+            cron = CronExpression.parse(scheduledRun.getCronExpression());
+        } catch (IllegalArgumentException e) {
+            log.error("执行计划cron表达式不合法，跳过: {}", scheduledRun.getId());
+            return;
+        }
+
+        // 计划触发时间之后、当前时间之前的其余触发点合并为本次触发
+        int missed = 0;
+        LocalDateTime next = cron.next(scheduled);
+        while (next != null && !next.isAfter(now) && missed < MAX_COUNTED_MISFIRES) {
+            missed++;
+            next = cron.next(next);
+        }
+        if (next != null && !next.isAfter(now)) {
+            next = cron.next(now);
+        }
+        if (!scheduledRunService.advance(scheduledRun, next, now)) {
+            // 已被其他节点触发，或计划刚被修改
+            return;
+        }
+
+        Duration lag = Duration.between(scheduled, now);
+        triggerLagTimer.record(lag);
+        if (missed > 0) {
+            misfireCounter.increment(missed);
+        }
+        if (lag.toMillis() > misfireThresholdMillis) {
+            log.warn("执行计划触发延迟 {}ms，合并跳过 {} 次触发: {}", lag.toMillis(), missed, scheduledRun.getId());
+        }
+
+        try {
+            Set<String> caseIds = scheduledRunService.resolveCaseIds(scheduledRun);
+            if (caseIds.isEmpty()) {
+                log.warn("执行计划没有可执行的用例: {}", scheduledRun.getId());
+                return;
+            }
+            List<ExecutionTask> tasks = executionQueueService.enqueue(caseIds);
+            scheduledRunService.updateLastRunId(scheduledRun.getId(), tasks.get(0).getRunId());
+            firedCounter.increment();
+            log.info("执行计划已触发: {}, 用例数: {}, 下次触发: {}", scheduledRun.getId(), caseIds.size(), next);
+        } catch (Exception e) {
+            failedCounter.increment();
+            log.error("执行计划触发失败: {}", scheduledRun.getId(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (leader) {
+            try {
+                redisUtil.releaseLease(LEADER_KEY, nodeId);
+            } catch (Exception e) {
+                log.warn("释放调度租约失败: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "unknown";
+        }
+    }
+}
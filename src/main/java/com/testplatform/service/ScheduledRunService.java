@@ -0,0 +1,165 @@
+package com.testplatform.service;
+
+import com.testplatform.entity.ScheduledRun;
+import com.testplatform.repository.ScheduledRunRepository;
+import com.testplatform.repository.TestCaseRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 定时执行计划服务
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ScheduledRunService {
+
+    private final ScheduledRunRepository scheduledRunRepository;
+    private final TestCaseRepository testCaseRepository;
+
+    /**
+     * 获取所有执行计划
+     */
+    public List<ScheduledRun> getAllScheduledRuns() {
+        return scheduledRunRepository.findAll();
+    }
+
+    /**
+     * 获取执行计划详情
+     */
+    public ScheduledRun getScheduledRun(Integer id) {
+        return scheduledRunRepository.findById(id)
+            .orElseThrow(() -> new RuntimeException("执行计划不存在"));
+    }
+
+    /**
+     * 创建执行计划
+     */
+    @Transactional
+    public ScheduledRun createScheduledRun(ScheduledRun scheduledRun) {
+        log.info("创建执行计划: {}", scheduledRun.getName());
+        validate(scheduledRun);
+        scheduledRun.setId(null);
+        scheduledRun.setLastFireTime(null);
+        scheduledRun.setLastRunId(null);
+        scheduledRun.setNextFireTime(Boolean.TRUE.equals(scheduledRun.getEnabled())
+            ? nextFireTime(scheduledRun.getCronExpression(), LocalDateTime.now()) : null);
+        return scheduledRunRepository.save(scheduledRun);
+    }
+
+    /**
+     * 更新执行计划，cron 变更或重新启用时从当前时间重新计算下次触发时间
+     */
+    @Transactional
+    public ScheduledRun updateScheduledRun(Integer id, ScheduledRun scheduledRun) {
+        log.info("更新执行计划: {}", id);
+        validate(scheduledRun);
+        ScheduledRun existing = getScheduledRun(id);
+        existing.setName(scheduledRun.getName());
+        existing.setCronExpression(scheduledRun.getCronExpression());
+        existing.setCaseIds(scheduledRun.getCaseIds());
+        existing.setRequirementId(scheduledRun.getRequirementId());
+        existing.setEnabled(scheduledRun.getEnabled());
+        existing.setNextFireTime(Boolean.TRUE.equals(existing.getEnabled())
+            ? nextFireTime(existing.getCronExpression(), LocalDateTime.now()) : null);
+        return scheduledRunRepository.save(existing);
+    }
+
+    /**
+     * 启用/停用执行计划
+     */
+    @Transactional
+    public void toggleScheduledRun(Integer id, Boolean enabled) {
+        log.info("切换执行计划状态: {} -> {}", id, enabled);
+        ScheduledRun existing = getScheduledRun(id);
+        existing.setEnabled(enabled);
+        existing.setNextFireTime(Boolean.TRUE.equals(enabled)
+            ? nextFireTime(existing.getCronExpression(), LocalDateTime.now()) : null);
+        scheduledRunRepository.save(existing);
+    }
+
+    /**
+     * 删除执行计划
+     */
+    @Transactional
+    public void deleteScheduledRun(Integer id) {
+        log.info("删除执行计划: {}", id);
+        scheduledRunRepository.delete(getScheduledRun(id));
+    }
+
+    /**
+     * 查询已到触发时间的计划
+     */
+    public List<ScheduledRun> findDue(LocalDateTime now) {
+        return scheduledRunRepository.findByEnabledTrueAndNextFireTimeLessThanEqual(now);
+    }
+
+    /**
+     * 抢占本次触发
+     * @return 是否抢占成功；其他节点已触发或计划已被修改时返回 false
+     */
+    @Transactional
+    public boolean advance(ScheduledRun scheduledRun, LocalDateTime next, LocalDateTime fired) {
+        return scheduledRunRepository.advance(scheduledRun.getId(), scheduledRun.getNextFireTime(), next, fired) == 1;
+    }
+
+    @Transactional
+    public void updateLastRunId(Integer id, String runId) {
+        scheduledRunRepository.updateLastRunId(id, runId);
+    }
+
+    /**
+     * 解析计划的用例范围
+     */
+    public Set<String> resolveCaseIds(ScheduledRun scheduledRun) {
+        Set<String> caseIds = new LinkedHashSet<>();
+        if (StringUtils.hasText(scheduledRun.getCaseIds())) {
+            for (String caseId : scheduledRun.getCaseIds().split(",")) {
+                if (StringUtils.hasText(caseId)) {
+                    caseIds.add(caseId.trim());
+                }
+            }
+        }
+        if (scheduledRun.getRequirementId() != null) {
+            testCaseRepository.findIdsByRequirementId(scheduledRun.getRequirementId())
+                .forEach(caseId -> caseIds.add(String.valueOf(caseId)));
+        }
+        return caseIds;
+    }
+
+    public static LocalDateTime nextFireTime(String cronExpression, LocalDateTime after) {
+        return CronExpression.parse(cronExpression).next(after);
+    }
+
+    private static void validate(ScheduledRun scheduledRun) {
+        if (!StringUtils.hasText(scheduledRun.getName())) {
+            throw new RuntimeException("计划名称不能为空");
+        }
+        if (!StringUtils.hasText(scheduledRun.getCronExpression())
+                || !CronExpression.isValidExpression(scheduledRun.getCronExpression())) {
+            throw new RuntimeException("cron表达式不合法");
+        }
+        if (!StringUtils.hasText(scheduledRun.getCaseIds()) && scheduledRun.getRequirementId() == null) {
+            throw new RuntimeException("请指定用例或需求");
+        }
+        if (StringUtils.hasText(scheduledRun.getCaseIds())) {
+            for (String caseId : scheduledRun.getCaseIds().split(",")) {
+                if (StringUtils.hasText(caseId) && !caseId.trim().matches("\\d+")) {
+                    throw new RuntimeException("用例ID格式错误: " + caseId.trim());
+                }
+            }
+        }
+        if (scheduledRun.getEnabled() == null) {
+            scheduledRun.setEnabled(true);
+        }
+    }
+}
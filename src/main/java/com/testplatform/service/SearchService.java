@@ -0,0 +1,247 @@
+package com.testplatform.service;
+
+import com.testplatform.dto.SearchHit;
+import com.testplatform.search.IndexChangeEvent;
+import com.testplatform.search.SearchDocument;
+import com.testplatform.search.SearchDocumentLoader;
+import com.testplatform.search.SearchDocumentType;
+import com.testplatform.search.SearchIndex;
+import com.testplatform.util.RedisUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * 全文检索服务
+ * 用例、需求、模块保存后发布 IndexChangeEvent，事务提交后按ID重新读取并更新本节点的索引，
+ * 同时通过Redis通知其他节点；其他节点收到后以本地事件重新发布，各节点的本地索引保持一致。
+ */
+@Slf4j
+@Service
+public class SearchService implements MessageListener, ApplicationRunner {
+
+    private static final String CHANGE_CHANNEL = "search:index";
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final AtomicBoolean rebuilding = new AtomicBoolean(false);
+
+    private final SearchIndex searchIndex;
+    private final SearchDocumentLoader documentLoader;
+    private final RedisUtil redisUtil;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ConfigurableApplicationContext applicationContext;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final int maxLimit;
+    private final boolean rebuildOnStartup;
+    private final boolean exitAfterRebuild;
+
+    public SearchService(SearchIndex searchIndex,
+                         SearchDocumentLoader documentLoader,
+                         RedisUtil redisUtil,
+                         RedisMessageListenerContainer listenerContainer,
+                         ConfigurableApplicationContext applicationContext,
+                         ApplicationEventPublisher eventPublisher,
+                         @Value("${search.max-limit:100}") int maxLimit,
+                         @Value("${search.rebuild-on-startup:false}") boolean rebuildOnStartup,
+                         @Value("${search.exit-after-rebuild:false}") boolean exitAfterRebuild) {
+        this.searchIndex = searchIndex;
+        this.documentLoader = documentLoader;
+        this.redisUtil = redisUtil;
+        this.listenerContainer = listenerContainer;
+        this.applicationContext = applicationContext;
+        this.eventPublisher = eventPublisher;
+        this.maxLimit = maxLimit;
+        this.rebuildOnStartup = rebuildOnStartup;
+        this.exitAfterRebuild = exitAfterRebuild;
+    }
+
+    @PostConstruct
+    public void init() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANGE_CHANNEL));
+    }
+
+    /**
+     * 检索用例、需求和模块
+     * @param types 逗号分隔的类型（test_case、requirement、module），为空时检索全部
+     */
+    public List<SearchHit> search(String keyword, String types, int limit) {
+        if (!StringUtils.hasText(keyword)) {
+            throw new RuntimeException("检索关键词不能为空");
+        }
+        Set<SearchDocumentType> typeSet = EnumSet.noneOf(SearchDocumentType.class);
+        if (StringUtils.hasText(types)) {
+            for (String type : types.split(",")) {
+                if (StringUtils.hasText(type)) {
+                    typeSet.add(SearchDocumentType.of(type));
+                }
+            }
+        }
+        try {
+            return searchIndex.search(keyword, typeSet, Math.min(Math.max(limit, 1), maxLimit));
+        } catch (IOException e) {
+            throw new RuntimeException("检索失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 事务提交后更新索引；不在事务中发布的事件立即处理
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onIndexChange(IndexChangeEvent event) {
+        apply(event.getType(), event.getIds());
+        if (event.isRemote()) {
+            return;
+        }
+        try {
+            String ids = event.getIds().stream().map(String::valueOf).collect(Collectors.joining(","));
+            redisUtil.publish(CHANGE_CHANNEL, nodeId + "|" + event.getType().name() + "|" + ids);
+        } catch (Exception e) {
+            log.warn("通知其他节点更新索引失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 接收其他节点发布的索引变更
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Object body = redisUtil.deserializeMessage(message.getBody());
+        if (body == null) {
+            return;
+        }
+        String[] parts = body.toString().split("\\|", 3);
+        if (parts.length != 3 || nodeId.equals(parts[0])) {
+            return;
+        }
+        IndexChangeEvent event;
+        try {
+            List<Integer> ids = Arrays.stream(parts[2].split(","))
+                .map(Integer::valueOf)
+                .collect(Collectors.toList());
+            event = new IndexChangeEvent(SearchDocumentType.valueOf(parts[1]), ids, true);
+        } catch (RuntimeException e) {
+            log.warn("无法解析索引变更消息: {}", body);
+            return;
+        }
+        eventPublisher.publishEvent(event);
+    }
+
+    /**
+     * 按数据库中的最新数据更新索引，已删除的记录从索引中移除
+     */
+    private void apply(SearchDocumentType type, List<Integer> ids) {
+        try {
+            long generation = System.currentTimeMillis();
+            Set<Integer> remaining = new HashSet<>(ids);
+            for (SearchDocument document : documentLoader.load(type, ids)) {
+                searchIndex.upsert(document, generation);
+                remaining.remove(document.getId());
+            }
+            for (Integer id : remaining) {
+                searchIndex.delete(type, id);
+            }
+        } catch (Exception e) {
+            // 索引更新失败不影响业务写入，可通过重建索引修复
+            log.warn("更新索引失败, 类型: {}, ID: {}, 原因: {}", type, ids, e.getMessage());
+        }
+    }
+
+    /**
+     * 重建本节点的索引
+     * 先用新的批次号写入全部记录，再删除旧批次的文档，重建过程中检索结果保持完整
+     * @return 写入的文档数
+     */
+    public long rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            throw new RuntimeException("索引正在重建中");
+        }
+        long start = System.currentTimeMillis();
+        try {
+            long generation = start;
+            AtomicLong count = new AtomicLong();
+            for (SearchDocumentType type : SearchDocumentType.values()) {
+                documentLoader.forEach(type, document -> {
+                    try {
+                        searchIndex.upsert(document, generation);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    count.incrementAndGet();
+                });
+            }
+            searchIndex.deleteOlderThan(generation);
+            searchIndex.commit();
+            log.info("索引重建完成, 文档数: {}, 耗时 {}ms", count.get(), System.currentTimeMillis() - start);
+            return count.get();
+        } catch (IOException | UncheckedIOException e) {
+            throw new RuntimeException("重建索引失败: " + e.getMessage());
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    /**
+     * 在后台线程中重建索引
+     */
+    public void rebuildAsync() {
+        if (rebuilding.get()) {
+            throw new RuntimeException("索引正在重建中");
+        }
+        Thread thread = new Thread(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                log.error("后台重建索引失败: {}", e.getMessage());
+            }
+        }, "search-rebuild");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * 启动时检查索引
+     * 离线重建模式（search.exit-after-rebuild）下同步重建后退出进程；否则索引为空或配置了启动重建时在后台重建
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        if (exitAfterRebuild) {
+            int exitCode = 0;
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                log.error("离线重建索引失败: {}", e.getMessage());
+                exitCode = 1;
+            }
+            int code = exitCode;
+            System.exit(SpringApplication.exit(applicationContext, () -> code));
+        }
+        if (rebuildOnStartup || searchIndex.isEmpty()) {
+            rebuildAsync();
+        }
+    }
+}
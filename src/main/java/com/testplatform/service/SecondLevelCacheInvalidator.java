@@ -0,0 +1,134 @@
+package com.testplatform.service;
+
+import com.testplatform.util.RedisUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.AbstractStandardBasicType;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * 二级缓存跨节点失效
+ * 二级缓存只在本进程内，本节点提交的写入由Hibernate自行维护。
+ * 带缓存的实体在事务提交后通过Redis发布/订阅通知其他节点，
+ * 其他节点清除该实体的缓存条目。
+ */
+@Slf4j
+@Service
+public class SecondLevelCacheInvalidator implements MessageListener,
+        PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private static final String EVICT_CHANNEL = "l2cache:evict";
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final SessionFactoryImplementor sessionFactory;
+    private final RedisUtil redisUtil;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    public SecondLevelCacheInvalidator(EntityManagerFactory entityManagerFactory,
+                                       RedisUtil redisUtil,
+                                       RedisMessageListenerContainer listenerContainer) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.redisUtil = redisUtil;
+        this.listenerContainer = listenerContainer;
+    }
+
+    @PostConstruct
+    public void init() {
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+        listenerContainer.addMessageListener(this, new ChannelTopic(EVICT_CHANNEL));
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        publish(event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        publish(event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        publish(event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    /**
+     * 只处理配置了二级缓存的实体
+     */
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return persister.canWriteToCache();
+    }
+
+    // 拼写错误的旧方法已废弃，但在接口中仍是抽象方法，委托给上面的方法
+    @Override
+    @SuppressWarnings("deprecation")
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return requiresPostCommitHandling(persister);
+    }
+
+    /**
+     * 接收其他节点发布的失效消息，格式为 节点ID|实体名|主键
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Object body = redisUtil.deserializeMessage(message.getBody());
+        if (body == null) {
+            return;
+        }
+        String[] parts = body.toString().split("\\|", 3);
+        if (parts.length != 3 || nodeId.equals(parts[0])) {
+            return;
+        }
+        try {
+            EntityPersister persister = sessionFactory.getMetamodel().entityPersister(parts[1]);
+            Object id = ((AbstractStandardBasicType<?>) persister.getIdentifierType()).fromStringValue(parts[2]);
+            sessionFactory.getCache().evictEntityData(persister.getEntityName(), (Serializable) id);
+        } catch (RuntimeException e) {
+            log.warn("无法处理二级缓存失效消息: {}", body);
+        }
+    }
+
+    private void publish(EntityPersister persister, Serializable id) {
+        try {
+            redisUtil.publish(EVICT_CHANNEL, nodeId + "|" + persister.getEntityName() + "|" + id);
+        } catch (Exception e) {
+            log.warn("通知其他节点清除二级缓存失败: {}", e.getMessage());
+        }
+    }
+}
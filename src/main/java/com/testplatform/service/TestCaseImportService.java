@@ -0,0 +1,472 @@
+package com.testplatform.service;
+
+import com.testplatform.dto.ImportJob;
+import com.testplatform.dto.TestCaseImportRow;
+import com.testplatform.entity.User;
+import com.testplatform.entity.enums.TestCasePriority;
+import com.testplatform.entity.enums.TestCaseStatus;
+import com.testplatform.repository.IdSequenceRepository;
+import com.testplatform.repository.UserRepository;
+import com.testplatform.search.IndexChangeEvent;
+import com.testplatform.search.SearchDocumentType;
+import com.testplatform.util.CsvReader;
+import com.testplatform.util.XMindReader;
+import com.testplatform.util.XlsxReader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 测试用例批量导入服务
+ * 上传的文件先落盘，由 importExecutor 在后台流式解析；每满一批先一次性解析需求编号、查询已存在的自动化标识，
+ * 重复的行单独报错，其余行按号段预分配用例ID，用JDBC批量写入 test_case 和 test_case_requirement，每批一个事务。
+ * 任务进度保存在Redis中，任意节点都可以查询。
+ */
+@Slf4j
+@Service
+public class TestCaseImportService {
+
+    private static final String JOB_KEY_PREFIX = "import_job:";
+    private static final int MAX_TITLE_LENGTH = 200;
+
+    private static final String INSERT_CASE_SQL = "INSERT INTO test_case "
+            + "(id, title, priority, case_detail, precondition, creator_id, status, created_at, updated_at, "
+            + "case_remark, automation_key) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_LINK_SQL =
+            "INSERT INTO test_case_requirement (test_case_id, requirement_id) VALUES (?, ?)";
+
+    // 表头别名（小写）-> 字段
+    private static final Map<String, String> HEADER_ALIASES = new HashMap<>();
+
+    static {
+        register("title", "title", "标题", "用例标题", "用例名称");
+        register("priority", "priority", "优先级");
+        register("precondition", "precondition", "前置条件");
+        register("steps", "steps", "步骤", "用例步骤", "测试步骤");
+        register("remark", "remark", "备注");
+        register("requirements", "requirements", "需求", "需求编号", "关联需求");
+        register("automationKey", "automation_key", "automationkey", "自动化标识");
+    }
+
+    private static void register(String field, String... aliases) {
+        for (String alias : aliases) {
+            HEADER_ALIASES.put(alias.toLowerCase(Locale.ROOT), field);
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final IdSequenceRepository idSequenceRepository;
+    private final UserRepository userRepository;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final ThreadPoolTaskExecutor importExecutor;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final int batchSize;
+    private final long jobTtlSeconds;
+
+    public TestCaseImportService(JdbcTemplate jdbcTemplate,
+                                 NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+                                 TransactionTemplate transactionTemplate,
+                                 IdSequenceRepository idSequenceRepository,
+                                 UserRepository userRepository,
+                                 RedisTemplate<String, Object> redisTemplate,
+                                 @Qualifier("importExecutor") ThreadPoolTaskExecutor importExecutor,
+                                 ApplicationEventPublisher eventPublisher,
+                                 @Value("${test-case.import.batch-size:1000}") int batchSize,
+                                 @Value("${test-case.import.job-ttl-seconds:86400}") long jobTtlSeconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.idSequenceRepository = idSequenceRepository;
+        this.userRepository = userRepository;
+        this.redisTemplate = redisTemplate;
+        this.importExecutor = importExecutor;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+        this.jobTtlSeconds = jobTtlSeconds;
+    }
+
+    /**
+     * 提交导入任务
+     * 支持 .csv（UTF-8）、.xlsx、.xmind
+     */
+    public ImportJob submit(MultipartFile file, String username) throws Exception {
+        String fileName = file.getOriginalFilename() != null ? file.getOriginalFilename() : "";
+        String format = format(fileName);
+        User creator = userRepository.findByUsername(username)
+            .orElseThrow(() -> new RuntimeException("用户不存在"));
+
+        // 请求结束后上传的临时文件会被清理，需要先转存
+        File tempFile = File.createTempFile("case-import-", "." + format);
+        file.transferTo(tempFile);
+
+        ImportJob job = new ImportJob();
+        job.setJobId(UUID.randomUUID().toString());
+        job.setFileName(fileName);
+        job.setCreatedAt(System.currentTimeMillis());
+        saveJob(job);
+        try {
+            importExecutor.execute(() -> run(job, tempFile, format, creator.getId()));
+        } catch (RejectedExecutionException e) {
+            Files.deleteIfExists(tempFile.toPath());
+            redisTemplate.delete(JOB_KEY_PREFIX + job.getJobId());
+            throw new RuntimeException("导入任务过多，请稍后再试");
+        }
+        log.info("用例导入任务已提交: {}, 文件: {}", job.getJobId(), fileName);
+        return job;
+    }
+
+    /**
+     * 查询导入任务进度
+     */
+    public ImportJob getJob(String jobId) {
+        Object job = redisTemplate.opsForValue().get(JOB_KEY_PREFIX + jobId);
+        if (!(job instanceof ImportJob)) {
+            throw new RuntimeException("导入任务不存在");
+        }
+        return (ImportJob) job;
+    }
+
+    private void run(ImportJob job, File file, String format, Long creatorId) {
+        long start = System.currentTimeMillis();
+        job.setStatus(ImportJob.Status.RUNNING);
+        saveJob(job);
+        Batch batch = new Batch(job, creatorId);
+        try {
+            switch (format) {
+                case "csv":
+                    try (Reader reader = new BufferedReader(new InputStreamReader(
+                            Files.newInputStream(file.toPath()), StandardCharsets.UTF_8), 64 * 1024)) {
+                        CsvReader.read(reader, new TableRowMapper(batch::add));
+                    }
+                    break;
+                case "xlsx":
+                    XlsxReader.read(file, new TableRowMapper(batch::add));
+                    break;
+                default:
+                    XMindReader.read(file, batch::add);
+                    break;
+            }
+            batch.flush();
+            job.setStatus(ImportJob.Status.COMPLETED);
+        } catch (Exception e) {
+            log.error("用例导入失败: {}", job.getJobId(), e);
+            job.addError("导入中断: " + e.getMessage());
+            job.setStatus(ImportJob.Status.FAILED);
+        } finally {
+            job.setFinishedAt(System.currentTimeMillis());
+            saveJob(job);
+            try {
+                Files.deleteIfExists(file.toPath());
+            } catch (Exception e) {
+                log.warn("删除导入临时文件失败: {}", file);
+            }
+        }
+        log.info("用例导入结束: {}, 成功 {} 条, 失败 {} 条, 耗时 {}ms",
+            job.getJobId(), job.getSucceeded(), job.getFailed(), System.currentTimeMillis() - start);
+    }
+
+    private void saveJob(ImportJob job) {
+        redisTemplate.opsForValue().set(JOB_KEY_PREFIX + job.getJobId(), job, jobTtlSeconds, TimeUnit.SECONDS);
+    }
+
+    private static String format(String fileName) {
+        String lower = fileName.toLowerCase(Locale.ROOT);
+        if (lower.endsWith(".csv")) {
+            return "csv";
+        }
+        if (lower.endsWith(".xlsx")) {
+            return "xlsx";
+        }
+        if (lower.endsWith(".xmind")) {
+            return "xmind";
+        }
+        throw new RuntimeException("仅支持 csv、xlsx、xmind 格式");
+    }
+
+    /**
+     * 按表头把CSV/Excel的行转换为用例，第一行为表头
+     */
+    private static class TableRowMapper implements Consumer<List<String>> {
+        private final Consumer<TestCaseImportRow> target;
+        private String[] fields;
+        private int rowNumber;
+
+        TableRowMapper(Consumer<TestCaseImportRow> target) {
+            this.target = target;
+        }
+
+        @Override
+        public void accept(List<String> cells) {
+            rowNumber++;
+            if (fields == null) {
+                fields = new String[cells.size()];
+                for (int i = 0; i < cells.size(); i++) {
+                    fields[i] = HEADER_ALIASES.get(cells.get(i).trim().toLowerCase(Locale.ROOT));
+                }
+                if (!Arrays.asList(fields).contains("title")) {
+                    throw new RuntimeException("表头中缺少标题列");
+                }
+                return;
+            }
+            TestCaseImportRow row = new TestCaseImportRow();
+            row.setRowNumber(rowNumber);
+            for (int i = 0; i < cells.size() && i < fields.length; i++) {
+                String value = cells.get(i);
+                if (fields[i] == null || !StringUtils.hasText(value)) {
+                    continue;
+                }
+                switch (fields[i]) {
+                    case "title":
+                        row.setTitle(value.trim());
+                        break;
+                    case "priority":
+                        row.setPriority(value.trim());
+                        break;
+                    case "precondition":
+                        row.setPrecondition(value);
+                        break;
+                    case "steps":
+                        row.setSteps(value);
+                        break;
+                    case "remark":
+                        row.setRemark(value);
+                        break;
+                    case "automationKey":
+                        row.setAutomationKey(value.trim());
+                        break;
+                    case "requirements":
+                        for (String code : value.split("[,，;；\\s]+")) {
+                            if (!code.isEmpty()) {
+                                row.getRequirementCodes().add(code);
+                            }
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            }
+            target.accept(row);
+        }
+    }
+
+    /**
+     * 攒批写入
+     */
+    private class Batch {
+        private final ImportJob job;
+        private final Long creatorId;
+        private final List<TestCaseImportRow> rows = new ArrayList<>(batchSize);
+        private final Map<String, Integer> requirementIds = new HashMap<>();  // 整个任务内缓存已解析的需求编号
+        private final Set<String> unknownRequirements = new HashSet<>();
+        private final Set<String> existingAutomationKeys = new HashSet<>();  // 当前批次中数据库已存在的自动化标识
+
+        Batch(ImportJob job, Long creatorId) {
+            this.job = job;
+            this.creatorId = creatorId;
+        }
+
+        void add(TestCaseImportRow row) {
+            rows.add(row);
+            if (rows.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (rows.isEmpty()) {
+                return;
+            }
+            resolveRequirements();
+            resolveAutomationKeys();
+
+            List<TestCaseImportRow> valid = new ArrayList<>(rows.size());
+            Map<String, Integer> automationKeyRows = new HashMap<>();  // 批次内自动化标识 -> 首次出现的行号
+            for (TestCaseImportRow row : rows) {
+                String error = validate(row, automationKeyRows);
+                if (error != null) {
+                    job.setFailed(job.getFailed() + 1);
+                    job.addError("第" + row.getRowNumber() + "条: " + error);
+                } else {
+                    valid.add(row);
+                }
+            }
+            job.setProcessed(job.getProcessed() + rows.size());
+            rows.clear();
+
+            if (!valid.isEmpty()) {
+                try {
+                    insert(valid);
+                    job.setSucceeded(job.getSucceeded() + valid.size());
+                } catch (Exception e) {
+                    log.warn("用例批量写入失败: {}", e.getMessage());
+                    job.setFailed(job.getFailed() + valid.size());
+                    job.addError("第" + valid.get(0).getRowNumber() + "~" + valid.get(valid.size() - 1).getRowNumber()
+                        + "条写入失败: " + rootMessage(e));
+                }
+            }
+            saveJob(job);
+        }
+
+        private void resolveRequirements() {
+            Set<String> codes = new HashSet<>();
+            for (TestCaseImportRow row : rows) {
+                for (String code : row.getRequirementCodes()) {
+                    if (!requirementIds.containsKey(code) && !unknownRequirements.contains(code)) {
+                        codes.add(code);
+                    }
+                }
+            }
+            if (codes.isEmpty()) {
+                return;
+            }
+            namedParameterJdbcTemplate.query("SELECT id, req_code FROM requirement WHERE req_code IN (:codes)",
+                Collections.singletonMap("codes", codes),
+                rs -> {
+                    requirementIds.put(rs.getString("req_code"), rs.getInt("id"));
+                });
+            for (String code : codes) {
+                if (!requirementIds.containsKey(code)) {
+                    unknownRequirements.add(code);
+                }
+            }
+        }
+
+        /**
+         * 一次查询当前批次中已存在的自动化标识（automation_key 唯一），这些行单独报错，不影响整批写入
+         * 之前批次写入的标识同样会被查到，因此文件内跨批次的重复也能识别
+         */
+        private void resolveAutomationKeys() {
+            existingAutomationKeys.clear();
+            Set<String> keys = new HashSet<>();
+            for (TestCaseImportRow row : rows) {
+                if (row.getAutomationKey() != null) {
+                    keys.add(row.getAutomationKey());
+                }
+            }
+            if (keys.isEmpty()) {
+                return;
+            }
+            namedParameterJdbcTemplate.query("SELECT automation_key FROM test_case WHERE automation_key IN (:keys)",
+                Collections.singletonMap("keys", keys),
+                rs -> {
+                    existingAutomationKeys.add(normalizeKey(rs.getString("automation_key")));
+                });
+        }
+
+        private String validate(TestCaseImportRow row, Map<String, Integer> automationKeyRows) {
+            if (!StringUtils.hasText(row.getTitle())) {
+                return "标题不能为空";
+            }
+            if (row.getTitle().length() > MAX_TITLE_LENGTH) {
+                return "标题超过" + MAX_TITLE_LENGTH + "个字符";
+            }
+            if (row.getPriority() != null && parsePriority(row.getPriority()) == null) {
+                return "优先级不合法: " + row.getPriority();
+            }
+            for (String code : row.getRequirementCodes()) {
+                if (unknownRequirements.contains(code)) {
+                    return "需求不存在: " + code;
+                }
+            }
+            String automationKey = row.getAutomationKey();
+            if (automationKey != null) {
+                String normalized = normalizeKey(automationKey);
+                if (existingAutomationKeys.contains(normalized)) {
+                    return "自动化标识已存在: " + automationKey;
+                }
+                Integer firstRow = automationKeyRows.putIfAbsent(normalized, row.getRowNumber());
+                if (firstRow != null) {
+                    return "自动化标识与第" + firstRow + "条重复: " + automationKey;
+                }
+            }
+            return null;
+        }
+
+        private void insert(List<TestCaseImportRow> valid) {
+            long firstId = idSequenceRepository.allocate(IdSequenceRepository.TEST_CASE, valid.size());
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            List<Object[]> cases = new ArrayList<>(valid.size());
+            List<Object[]> links = new ArrayList<>();
+            List<Integer> ids = new ArrayList<>(valid.size());
+            for (int i = 0; i < valid.size(); i++) {
+                TestCaseImportRow row = valid.get(i);
+                long id = firstId + i;
+                ids.add((int) id);
+                TestCasePriority priority = row.getPriority() != null ? parsePriority(row.getPriority()) : TestCasePriority.P1;
+                cases.add(new Object[]{
+                    id, row.getTitle(), priority.name(), row.getSteps() != null ? row.getSteps() : "",
+                    row.getPrecondition(), creatorId,
+                    TestCaseStatus.编写_评审中.getDescription(),  // 与 TestCaseStatusConverter 的存储值一致
+                    now, now, row.getRemark(), row.getAutomationKey()
+                });
+                for (String code : new HashSet<>(row.getRequirementCodes())) {
+                    links.add(new Object[]{id, requirementIds.get(code)});
+                }
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(INSERT_CASE_SQL, cases);
+                if (!links.isEmpty()) {
+                    jdbcTemplate.batchUpdate(INSERT_LINK_SQL, links);
+                }
+            });
+            // 批次已提交，整批更新全文索引
+            eventPublisher.publishEvent(new IndexChangeEvent(SearchDocumentType.TEST_CASE, ids));
+        }
+    }
+
+    private static TestCasePriority parsePriority(String value) {
+        for (TestCasePriority priority : TestCasePriority.values()) {
+            if (priority.name().equalsIgnoreCase(value) || priority.getDescription().equals(value)) {
+                return priority;
+            }
+        }
+        return null;
+    }
+
+    // 与数据库的唯一索引一致：排序规则不区分大小写
+    private static String normalizeKey(String automationKey) {
+        return automationKey.toLowerCase(Locale.ROOT);
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null) {
+            root = root.getCause();
+        }
+        return root.getMessage();
+    }
+}
@@ -1,17 +1,26 @@
 package com.testplatform.service;
 
+import com.testplatform.common.TotalMode;
+import com.testplatform.dto.PageResult;
 import com.testplatform.dto.TestCaseCreateRequest;
 import com.testplatform.dto.TestCaseQueryRequest;
 import com.testplatform.dto.TestCaseUpdateRequest;
 import com.testplatform.entity.*;
 import com.testplatform.entity.enums.TestCaseStatus;
 import com.testplatform.repository.TestCaseRepository;
+import com.testplatform.repository.TestCaseRepositoryCustom;
 import com.testplatform.repository.RequirementRepository;
 import com.testplatform.repository.UserRepository;
 import com.testplatform.repository.UserTestCaseRepository;
+import com.testplatform.search.IndexChangeEvent;
+import com.testplatform.search.SearchDocumentType;
+import com.testplatform.util.CursorCodec;
+import com.testplatform.util.FieldSelector;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -27,9 +36,12 @@ import org.springframework.data.domain.PageRequest;
 import javax.persistence.criteria.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -44,6 +56,9 @@ public class TestCaseService {
     private final RequirementRepository requirementRepository;
     private final UserRepository userRepository;
     private final UserTestCaseRepository userTestCaseRepository;
+    private final CountCache countCache;
+    private final ChangeFeedService changeFeedService;
+    private final ApplicationEventPublisher eventPublisher;
     
     /**
      * 创建测试用例
@@ -62,6 +77,8 @@ public class TestCaseService {
         testCase.setPriority(request.getPriority());
         testCase.setCaseDetail(request.getSteps());
         testCase.setPrecondition(request.getPrecondition());
+        testCase.setApiSteps(request.getApiSteps());
+        testCase.setAutomationKey(StringUtils.hasText(request.getAutomationKey()) ? request.getAutomationKey().trim() : null);
         testCase.setCaseRemark(request.getRemark());
         testCase.setCreator(creator);
 
@@ -80,6 +97,7 @@ public class TestCaseService {
 
         // 保存测试用例
         TestCase savedTestCase = testCaseRepository.save(testCase);
+        eventPublisher.publishEvent(IndexChangeEvent.of(SearchDocumentType.TEST_CASE, savedTestCase.getId()));
         log.info("测试用例创建成功: {}", savedTestCase.getId());
         
         return savedTestCase;
@@ -116,7 +134,11 @@ public class TestCaseService {
         existingCase.setStatus(request.getStatus());
         existingCase.setCaseDetail(request.getSteps());
         existingCase.setPrecondition(request.getPrecondition());
+        existingCase.setApiSteps(request.getApiSteps());
+        existingCase.setAutomationKey(StringUtils.hasText(request.getAutomationKey()) ? request.getAutomationKey().trim() : null);
         existingCase.setCaseRemark(request.getRemark());
+        // 只改关联需求时实体本身不脏，不会刷新更新时间，增量同步将感知不到
+        existingCase.setUpdatedAt(LocalDateTime.now());
         
         // 更新关联需求
         if (request.getRequirementIds() != null) {
@@ -131,14 +153,115 @@ public class TestCaseService {
             existingCase.setRequirements(requirements);
         }
         
+        eventPublisher.publishEvent(IndexChangeEvent.of(SearchDocumentType.TEST_CASE, id));
         return testCaseRepository.save(existingCase);
     }
     
     /**
      * 分页查询测试用例
+     * 传入 cursor 时按游标分页，否则按页码分页，totalMode 决定是否计算总数
      */
-    public Page<TestCase> findTestCases(TestCaseQueryRequest request) {
-        Specification<TestCase> spec = (root, query, cb) -> {
+    @Transactional(readOnly = true)
+    public PageResult<TestCase> findTestCases(TestCaseQueryRequest request) {
+        // 先分页查ID再按ID加载关联，避免对集合fetch join导致的内存分页
+        return findTestCases(request, testCaseRepository::findAllWithAssociations,
+            testCase -> cursorOf(testCase.getCreatedAt(), testCase.getId()));
+    }
+
+    /**
+     * 分页查询测试用例的指定字段（fields 参数）
+     * 只查询请求的列，列表页不再读取步骤、前置条件等大字段
+     */
+    @Transactional(readOnly = true)
+    public PageResult<Map<String, Object>> findTestCaseFields(TestCaseQueryRequest request) {
+        Set<String> fields = FieldSelector.parse(request.getFields(), TestCaseRepositoryCustom.PROJECTABLE_FIELDS);
+        if (fields == null) {
+            throw new RuntimeException("未指定查询字段");
+        }
+        // 游标分页需要 createdAt 生成下一页游标，未请求时查出后再去掉
+        boolean extraCreatedAt = request.getCursor() != null && fields.add("createdAt");
+        PageResult<Map<String, Object>> result = findTestCases(request,
+            ids -> testCaseRepository.findFieldsByIds(ids, fields),
+            row -> cursorOf((LocalDateTime) row.get("createdAt"), (Integer) row.get("id")));
+        if (extraCreatedAt) {
+            result.getContent().forEach(row -> row.remove("createdAt"));
+        }
+        return result;
+    }
+
+    private <T> PageResult<T> findTestCases(TestCaseQueryRequest request,
+            Function<List<Integer>, List<T>> loader, Function<T, String> cursorOf) {
+        Specification<TestCase> filters = buildSpecification(request);
+        if (request.getCursor() != null) {
+            return findTestCasesByCursor(filters, request.getCursor(), request.getPageSize(), loader, cursorOf);
+        }
+
+        Pageable pageable = PageRequest.of(request.getPage() - 1, request.getPageSize(),
+            Sort.by(Sort.Direction.DESC, "createdAt"));
+        TotalMode totalMode = TotalMode.of(request.getTotalMode());
+        if (totalMode == TotalMode.EXACT) {
+            Page<T> page = testCaseRepository.findPage(filters, pageable, loader);
+            return new PageResult<>(page.getContent(), page.getTotalElements(), false, page.hasNext(), null);
+        }
+
+        Slice<T> slice = testCaseRepository.findSlice(filters, pageable, loader);
+        Long total = null;
+        if (totalMode == TotalMode.APPROXIMATE) {
+            total = countCache.get("test_case:" + filterKey(request), () -> testCaseRepository.count(filters));
+        }
+        return new PageResult<>(slice.getContent(), total, total != null, slice.hasNext(), null);
+    }
+
+    /**
+     * 按 (createdAt, id) 游标分页
+     * 条件 (created_at, id) < 游标值 可以直接在复合索引上定位，翻到多深都不会变慢
+     */
+    private <T> PageResult<T> findTestCasesByCursor(Specification<TestCase> filters, String cursor, int pageSize,
+            Function<List<Integer>, List<T>> loader, Function<T, String> cursorOf) {
+        Specification<TestCase> spec = filters;
+        if (!cursor.isEmpty()) {
+            String[] values = CursorCodec.decode(cursor, 2);
+            LocalDateTime createdAt;
+            Integer id;
+            try {
+                createdAt = LocalDateTime.parse(values[0]);
+                id = Integer.valueOf(values[1]);
+            } catch (RuntimeException e) {
+                throw new RuntimeException("无效的分页游标");
+            }
+            Specification<TestCase> after = (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("createdAt"), createdAt),
+                cb.and(cb.equal(root.get("createdAt"), createdAt), cb.lessThan(root.get("id"), id)));
+            spec = spec.and(after);
+        }
+
+        Slice<T> slice = testCaseRepository.findSlice(spec,
+            PageRequest.of(0, pageSize, Sort.by(Sort.Direction.DESC, "createdAt", "id")), loader);
+        String nextCursor = null;
+        if (slice.hasNext()) {
+            nextCursor = cursorOf.apply(slice.getContent().get(slice.getNumberOfElements() - 1));
+        }
+        return new PageResult<>(slice.getContent(), null, false, slice.hasNext(), nextCursor);
+    }
+
+    private static String cursorOf(LocalDateTime createdAt, Integer id) {
+        return CursorCodec.encode(createdAt.toString(), String.valueOf(id));
+    }
+
+    /**
+     * 近似总数缓存键，只包含过滤条件
+     */
+    private static String filterKey(TestCaseQueryRequest request) {
+        return Arrays.asList(request.getTitle(), request.getPriority(), request.getStatus(),
+            request.getDateRange(), request.getUserId(), request.getCreatorName(),
+            request.getRequirementIds()).toString();
+    }
+    
+    /**
+     * 构建用例查询条件（不含关联预加载），分页查询和导出共用
+     */
+    public Specification<TestCase> buildSpecification(TestCaseQueryRequest request) {
+        return (root, query, cb) -> {
             List<Predicate> predicates = new ArrayList<>();
             
             // 标题模糊搜索
@@ -180,24 +303,18 @@ public class TestCaseService {
                 predicates.add(root.get("id").in(subquery));
             }
             
-            // 需求ID过滤
+            // 需求ID过滤（使用子查询，关联多个需求的用例不会产生重复行）
             if (request.getRequirementIds() != null && !request.getRequirementIds().isEmpty()) {
-                Join<TestCase, Requirement> requirementJoin = root.join("requirements", JoinType.LEFT);
-                predicates.add(requirementJoin.get("id").in(request.getRequirementIds()));
-            }
-            
-            // 添加关联查询以避免N+1问题
-            if (query.getResultType().equals(TestCase.class)) {
-                root.fetch("creator", JoinType.LEFT);
-                root.fetch("requirements", JoinType.LEFT);
+                Subquery<Integer> subquery = query.subquery(Integer.class);
+                Root<TestCase> linkRoot = subquery.from(TestCase.class);
+                Join<TestCase, Requirement> requirementJoin = linkRoot.join("requirements");
+                subquery.select(linkRoot.get("id"))
+                    .where(requirementJoin.get("id").in(request.getRequirementIds()));
+                predicates.add(root.get("id").in(subquery));
             }
             
             return cb.and(predicates.toArray(new Predicate[0]));
         };
-        
-        return testCaseRepository.findAll(spec, 
-            PageRequest.of(request.getPage() - 1, request.getPageSize(), 
-                Sort.by(Sort.Direction.DESC, "createdAt")));
     }
     
     /**
@@ -213,6 +330,8 @@ public class TestCaseService {
         
         // 删除测试用例
         testCaseRepository.delete(testCase);
+        changeFeedService.recordDeletion(ChangeFeedService.TEST_CASE, id);
+        eventPublisher.publishEvent(IndexChangeEvent.of(SearchDocumentType.TEST_CASE, id));
         
         log.info("测试用例删除成功: {}", id);
     }
@@ -220,6 +339,7 @@ public class TestCaseService {
     /**
      * 获取测试用例详情
      */
+    @Transactional(readOnly = true)
     public TestCase getTestCaseDetail(Integer id) {
         return testCaseRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("测试用例不存在"));
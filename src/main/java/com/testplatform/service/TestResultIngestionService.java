@@ -0,0 +1,173 @@
+package com.testplatform.service;
+
+import com.testplatform.dto.IngestionResult;
+import com.testplatform.dto.JUnitCaseResult;
+import com.testplatform.util.JUnitReportReader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.InputStream;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * 测试结果导入服务
+ * 流式解析CI产出的JUnit报告，按批次把结果匹配到测试用例并用JDBC批量写入 test_result。
+ * 用例匹配规则：testcase 中声明了 case_id 属性时按ID匹配，否则按 classname.name 匹配 test_case.automation_key。
+ * 未匹配到用例的结果同样入库（test_case_id 为空），便于后续补充映射。
+ */
+@Slf4j
+@Service
+public class TestResultIngestionService {
+
+    private static final String INSERT_SQL = "INSERT INTO test_result "
+            + "(run_id, test_case_id, automation_key, status, duration_ms, message, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final int batchSize;
+
+    public TestResultIngestionService(JdbcTemplate jdbcTemplate,
+                                      NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+                                      @Value("${test-result.ingest.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * 导入JUnit XML报告
+     * 每满 batchSize 条提交一批，已提交的批次不会因后续解析失败而回滚，可按 runId 清理
+     */
+    public IngestionResult ingestJUnit(InputStream in, String source) {
+        long start = System.currentTimeMillis();
+        IngestionResult result = new IngestionResult();
+        result.setRunId(UUID.randomUUID().toString());
+        result.setSource(source);
+        log.info("开始导入测试结果: {}, runId: {}", source, result.getRunId());
+
+        List<JUnitCaseResult> buffer = new ArrayList<>(batchSize);
+        try {
+            JUnitReportReader.read(in, caseResult -> {
+                buffer.add(caseResult);
+                if (buffer.size() >= batchSize) {
+                    flush(buffer, result);
+                }
+            });
+            flush(buffer, result);
+        } catch (XMLStreamException e) {
+            log.error("解析测试报告失败: {}, 已导入 {} 条", source, result.getTotal());
+            throw new RuntimeException("测试报告格式错误（已导入" + result.getTotal() + "条，runId: "
+                    + result.getRunId() + "）: " + e.getMessage());
+        }
+
+        result.setElapsedMs(System.currentTimeMillis() - start);
+        log.info("测试结果导入完成: {}, 共 {} 条, 匹配 {} 条, 耗时 {}ms",
+                source, result.getTotal(), result.getMatched(), result.getElapsedMs());
+        return result;
+    }
+
+    private void flush(List<JUnitCaseResult> buffer, IngestionResult result) {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        Map<String, Integer> idsByKey = new HashMap<>();
+        Set<Integer> existingIds = new HashSet<>();
+        resolveCases(buffer, idsByKey, existingIds);
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(buffer.size());
+        for (JUnitCaseResult caseResult : buffer) {
+            String key = caseResult.getAutomationKey();
+            Integer caseId = caseResult.getCaseId() != null && existingIds.contains(caseResult.getCaseId())
+                    ? caseResult.getCaseId()
+                    : idsByKey.get(key);
+            rows.add(new Object[]{
+                result.getRunId(), caseId, key, caseResult.getStatus().name(),
+                caseResult.getDurationMs(), caseResult.getMessage(), now
+            });
+            count(caseResult, caseId != null, result);
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows, new int[]{
+            Types.VARCHAR, Types.INTEGER, Types.VARCHAR, Types.VARCHAR, Types.BIGINT, Types.VARCHAR, Types.TIMESTAMP
+        });
+        buffer.clear();
+    }
+
+    /**
+     * 一次查询解析整批结果对应的用例
+     */
+    private void resolveCases(List<JUnitCaseResult> batch, Map<String, Integer> idsByKey, Set<Integer> existingIds) {
+        Set<String> keys = new HashSet<>();
+        Set<Integer> ids = new HashSet<>();
+        for (JUnitCaseResult caseResult : batch) {
+            if (caseResult.getCaseId() != null) {
+                ids.add(caseResult.getCaseId());
+            }
+            if (caseResult.getAutomationKey() != null) {
+                keys.add(caseResult.getAutomationKey());
+            }
+        }
+        if (keys.isEmpty() && ids.isEmpty()) {
+            return;
+        }
+
+        StringBuilder sql = new StringBuilder("SELECT id, automation_key FROM test_case WHERE ");
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        if (!keys.isEmpty()) {
+            sql.append("automation_key IN (:keys)");
+            params.addValue("keys", keys);
+        }
+        if (!ids.isEmpty()) {
+            sql.append(keys.isEmpty() ? "" : " OR ").append("id IN (:ids)");
+            params.addValue("ids", ids);
+        }
+        namedParameterJdbcTemplate.query(sql.toString(), params, rs -> {
+            int id = rs.getInt("id");
+            existingIds.add(id);
+            String key = rs.getString("automation_key");
+            if (key != null) {
+                idsByKey.put(key, id);
+            }
+        });
+    }
+
+    private static void count(JUnitCaseResult caseResult, boolean matched, IngestionResult result) {
+        result.setTotal(result.getTotal() + 1);
+        if (matched) {
+            result.setMatched(result.getMatched() + 1);
+        } else {
+            result.setUnmatched(result.getUnmatched() + 1);
+        }
+        switch (caseResult.getStatus()) {
+            case PASSED:
+                result.setPassed(result.getPassed() + 1);
+                break;
+            case FAILED:
+                result.setFailed(result.getFailed() + 1);
+                break;
+            case ERROR:
+                result.setErrored(result.getErrored() + 1);
+                break;
+            case SKIPPED:
+                result.setSkipped(result.getSkipped() + 1);
+                break;
+            default:
+                break;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.testplatform.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.testplatform.entity.User;
+import com.testplatform.util.RedisUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 用户两级缓存
+ * 一级为进程内缓存（按数量和时间淘汰），二级为Redis缓存；两级都未命中时从数据库加载并回填。
+ * 用户更新或删除时清除两级缓存，并通过Redis发布/订阅通知其他节点清除本地缓存。
+ * 两级缓存中的用户都不含密码（Redis中另见 StandardCodecs.UserCodec），无论哪一级命中返回的内容都一致；
+ * 取得的用户不能用于密码校验，也不能直接作为实体保存。
+ */
+@Slf4j
+@Service
+public class UserCacheService implements MessageListener {
+
+    private static final String EVICT_CHANNEL = "user:evict";
+
+    private final RedisUtil redisUtil;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final Cache<String, User> localCache;
+    private final long redisTtlMillis;
+
+    private final Counter redisHitCounter;
+    private final Counter redisMissCounter;
+
+    public UserCacheService(RedisUtil redisUtil,
+                            RedisMessageListenerContainer listenerContainer,
+                            MeterRegistry meterRegistry,
+                            @Value("${user.cache.local.max-size:1000}") long localMaxSize,
+                            @Value("${user.cache.local.ttl-seconds:60}") long localTtlSeconds,
+                            @Value("${user.cache.redis.ttl-seconds:1800}") long redisTtlSeconds) {
+        this.redisUtil = redisUtil;
+        this.listenerContainer = listenerContainer;
+        this.redisTtlMillis = TimeUnit.SECONDS.toMillis(redisTtlSeconds);
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(localTtlSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+        // 本地缓存命中率：cache.gets{cache=userLocal}；Redis缓存命中率：cache.gets{cache=userRedis}
+        CaffeineCacheMetrics.monitor(meterRegistry, localCache, "userLocal");
+        this.redisHitCounter = meterRegistry.counter("cache.gets", "cache", "userRedis", "result", "hit");
+        this.redisMissCounter = meterRegistry.counter("cache.gets", "cache", "userRedis", "result", "miss");
+    }
+
+    @PostConstruct
+    public void init() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(EVICT_CHANNEL));
+    }
+
+    /**
+     * 获取用户，依次查找本地缓存、Redis缓存，最后调用loader从数据库加载
+     */
+    public User get(String username, Function<String, User> loader) {
+        return localCache.get(username, key -> {
+            User cachedUser = getFromRedis(key);
+            if (cachedUser != null) {
+                redisHitCounter.increment();
+                return cachedUser;
+            }
+            redisMissCounter.increment();
+            
+            User user = withoutPassword(loader.apply(key));
+            putToRedis(key, user);
+            return user;
+        });
+    }
+
+    // 缓存数据库加载结果的副本，去掉密码，也不与调用方共享实体对象
+    private static User withoutPassword(User user) {
+        User copy = new User();
+        copy.setId(user.getId());
+        copy.setUsername(user.getUsername());
+        copy.setRealName(user.getRealName());
+        copy.setRole(user.getRole());
+        copy.setCreatedAt(user.getCreatedAt());
+        copy.setUpdatedAt(user.getUpdatedAt());
+        return copy;
+    }
+
+    /**
+     * 清除用户缓存，并通知其他节点
+     */
+    public void evict(String username) {
+        redisUtil.executePipelined(operations -> evict(username, operations));
+    }
+
+    /**
+     * 清除用户缓存，Redis命令加入调用方的管道中执行
+     * @param otherKeys 需要一并删除的其他键，与用户缓存在同一条 DEL 中删除
+     */
+    public void evict(String username, RedisOperations<String, Object> operations, String... otherKeys) {
+        localCache.invalidate(username);
+        List<String> keys = new ArrayList<>(otherKeys.length + 1);
+        keys.add(RedisUtil.userKey(username));
+        Collections.addAll(keys, otherKeys);
+        redisUtil.deleteAll(keys, operations);
+        operations.convertAndSend(EVICT_CHANNEL, username);
+    }
+
+    /**
+     * 接收其他节点发布的清除消息
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Object username = redisUtil.deserializeMessage(message.getBody());
+        if (username != null) {
+            localCache.invalidate(username.toString());
+        }
+    }
+
+    // Redis不可用时降级为直接查库
+    private User getFromRedis(String username) {
+        try {
+            return redisUtil.getUser(username);
+        } catch (Exception e) {
+            log.warn("读取用户缓存失败: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void putToRedis(String username, User user) {
+        try {
+            redisUtil.saveUser(username, user, redisTtlMillis);
+        } catch (Exception e) {
+            log.warn("写入用户缓存失败: {}", e.getMessage());
+        }
+    }
+}
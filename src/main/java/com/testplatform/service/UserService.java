@@ -4,14 +4,16 @@ import com.testplatform.dto.LoginResponse;
 import com.testplatform.dto.ExecutorDTO;
 import com.testplatform.entity.User;
 import com.testplatform.repository.UserRepository;
+import com.testplatform.security.RoleVersionService;
+import com.testplatform.security.TokenRevocationService;
 import com.testplatform.util.JwtUtil;
 import com.testplatform.util.RedisUtil;
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -33,6 +35,9 @@ public class UserService {
     private final JwtUtil jwtUtil;
     private final RedisUtil redisUtil;
     private final AuthenticationManager authenticationManager;
+    private final RoleVersionService roleVersionService;
+    private final TokenRevocationService tokenRevocationService;
+    private final UserCacheService userCacheService;
     
     @Value("${jwt.expiration}")
     private Long expiration;
@@ -49,16 +54,16 @@ public class UserService {
         }
 
         // 认证
-        Authentication authentication = authenticationManager.authenticate(
+        authenticationManager.authenticate(
             new UsernamePasswordAuthenticationToken(username, password)
         );
         
-        // 生成token
-        String token = jwtUtil.generateToken(authentication);
-        
         // 获取用户信息
         User user = findByUsername(username);
         
+        // 生成携带用户ID、角色和角色版本的token，后续请求无需再查询用户
+        String token = jwtUtil.generateToken(user, roleVersionService.currentVersion(username));
+        
         // 构建响应
         LoginResponse.UserInfo userInfo = LoginResponse.UserInfo.builder()
             .id(user.getId())
@@ -94,24 +99,21 @@ public class UserService {
      * 根据用户名查找用户
      */
     public User findByUsername(String username) {
-        // 先从Redis缓存中获取
-        Object cachedUser = redisUtil.getUser(username);
-        if (cachedUser != null) {
-            return (User) cachedUser;
-        }
-        
-        // 缓存中没有，从数据库查询
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("用户不存在"));
+        // 依次从本地缓存、Redis缓存获取，都没有时从主库查询（结果会被缓存，不能读副本）
+        return userCacheService.get(username, key -> userRepository.findByUsername(key)
+                .orElseThrow(() -> new RuntimeException("用户不存在")));
     }
 
     /**
      * 退出登录
      */
-    public void logout(String username) {
-        // 清除Redis中的token和用户信息
-        redisUtil.deleteToken(username);
-        redisUtil.deleteUser(username);
+    public void logout(String token, Claims claims) {
+        String username = claims.getSubject();
+        // 一次往返完成：清除Redis中的token和用户信息，吊销当前token使其立即失效
+        redisUtil.executePipelined(operations -> {
+            userCacheService.evict(username, operations, RedisUtil.tokenKey(username));
+            tokenRevocationService.revoke(token, claims, operations);
+        });
     }
 
     /**
@@ -138,20 +140,31 @@ public class UserService {
         user.setId(existingUser.getId());
         user.setPassword(passwordEncoder.encode(user.getPassword()));
         
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        // 清除缓存
+        userCacheService.evict(user.getUsername());
+        
+        // 角色变更时使旧token失效
+        if (existingUser.getRole() != savedUser.getRole()) {
+            roleVersionService.bump(user.getUsername());
+        }
+        return savedUser;
     }
 
     public void deleteUser(String username) {
         User user = findByUsername(username);
-        userRepository.delete(user);
-        // 清除缓存
-        redisUtil.deleteUser(username);
-        redisUtil.deleteToken(username);
+        userRepository.deleteById(user.getId());  // 缓存中的用户不含密码，按ID删除而不是合并该对象
+        // 一次往返清除缓存和token
+        redisUtil.executePipelined(operations ->
+            userCacheService.evict(username, operations, RedisUtil.tokenKey(username)));
+        // 使该用户已签发的token失效
+        roleVersionService.bump(username);
     }
 
     /**
      * 获取所有可作为执行者的用户列表
      */
+    @Transactional(readOnly = true)
     public List<ExecutorDTO> getAllExecutors() {
         log.info("获取所有执行者列表");
         
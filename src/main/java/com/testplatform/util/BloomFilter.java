@@ -0,0 +1,80 @@
+package com.testplatform.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 线程安全的字符串布隆过滤器
+ * mightContain 返回 false 时元素一定不存在；返回 true 时可能存在（存在误判）
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final int numBits;
+    private final int numHashFunctions;
+
+    /**
+     * @param expectedInsertions 预计插入的元素数量
+     * @param fpp 期望的误判率，例如 0.01
+     */
+    public BloomFilter(int expectedInsertions, double fpp) {
+        int n = Math.max(1, expectedInsertions);
+        long m = (long) Math.ceil(-n * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        this.numBits = (int) Math.max(64, Math.min(Integer.MAX_VALUE - 63, m));
+        this.numHashFunctions = Math.max(1, (int) Math.round((double) numBits / n * Math.log(2)));
+        this.bits = new AtomicLongArray((numBits + 63) / 64);
+    }
+
+    public void put(String value) {
+        long hash1 = hash(value);
+        long hash2 = mix(hash1) | 1L;
+        for (int i = 0; i < numHashFunctions; i++) {
+            int index = (int) (((hash1 + i * hash2) & Long.MAX_VALUE) % numBits);
+            setBit(index);
+        }
+    }
+
+    public boolean mightContain(String value) {
+        long hash1 = hash(value);
+        long hash2 = mix(hash1) | 1L;
+        for (int i = 0; i < numHashFunctions; i++) {
+            int index = (int) (((hash1 + i * hash2) & Long.MAX_VALUE) % numBits);
+            if ((bits.get(index >>> 6) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void setBit(int index) {
+        int word = index >>> 6;
+        long mask = 1L << index;
+        long current;
+        do {
+            current = bits.get(word);
+            if ((current & mask) != 0) {
+                return;
+            }
+        } while (!bits.compareAndSet(word, current, current | mask));
+    }
+
+    // FNV-1a 64位哈希
+    private static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= (b & 0xff);
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    // murmur3 finalizer，用于派生第二个哈希
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
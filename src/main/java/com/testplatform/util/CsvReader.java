@@ -0,0 +1,80 @@
+package com.testplatform.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * CSV流式读取器（RFC 4180）
+ * 支持引号包裹的字段、字段内的换行和 "" 转义，逐行回调，不缓存整个文件。
+ */
+public final class CsvReader {
+
+    private CsvReader() {
+    }
+
+    public static void read(Reader reader, Consumer<List<String>> consumer) throws IOException {
+        List<String> row = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean fieldStarted = false;
+        int c = reader.read();
+        if (c == '\uFEFF') {
+            c = reader.read();  // 跳过Excel导出时带的BOM
+        }
+        while (c != -1) {
+            if (quoted) {
+                if (c == '"') {
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+                fieldStarted = true;
+            } else if (c == ',') {
+                row.add(field.toString());
+                field.setLength(0);
+                fieldStarted = true;
+            } else if (c == '\r' || c == '\n') {
+                if (c == '\r') {
+                    int next = reader.read();
+                    if (next != '\n') {
+                        c = next;
+                        endRow(row, field, fieldStarted, consumer);
+                        row = new ArrayList<>();
+                        fieldStarted = false;
+                        continue;
+                    }
+                }
+                endRow(row, field, fieldStarted, consumer);
+                row = new ArrayList<>();
+                fieldStarted = false;
+            } else {
+                field.append((char) c);
+                fieldStarted = true;
+            }
+            c = reader.read();
+        }
+        endRow(row, field, fieldStarted, consumer);
+    }
+
+    private static void endRow(List<String> row, StringBuilder field, boolean fieldStarted,
+                               Consumer<List<String>> consumer) {
+        if (!fieldStarted && row.isEmpty()) {
+            return;  // 空行
+        }
+        row.add(field.toString());
+        field.setLength(0);
+        consumer.accept(row);
+    }
+}
@@ -0,0 +1,37 @@
+package com.testplatform.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 分页游标编解码
+ * 游标是排序键的值用 | 连接后做URL安全的Base64编码，对客户端不透明
+ */
+public final class CursorCodec {
+
+    private static final String SEPARATOR = "|";
+
+    private CursorCodec() {
+    }
+
+    public static String encode(String... values) {
+        String joined = String.join(SEPARATOR, values);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(joined.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param expectedParts 游标中应包含的值个数
+     */
+    public static String[] decode(String cursor, int expectedParts) {
+        try {
+            String joined = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = joined.split("\\|", expectedParts);
+            if (parts.length != expectedParts) {
+                throw new IllegalArgumentException();
+            }
+            return parts;
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("无效的分页游标");
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.testplatform.util;
+
+import org.springframework.util.StringUtils;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * 列表接口 fields 参数解析
+ */
+public final class FieldSelector {
+
+    private FieldSelector() {
+    }
+
+    /**
+     * 解析逗号分隔的字段列表
+     * @param allowed 允许查询的字段
+     * @return 按请求顺序去重后的字段；未传 fields 时返回 null，表示返回完整数据
+     */
+    public static Set<String> parse(String fields, Set<String> allowed) {
+        if (!StringUtils.hasText(fields)) {
+            return null;
+        }
+        Set<String> selected = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!allowed.contains(name)) {
+                throw new RuntimeException("不支持的字段: " + name + "，可选字段: " + String.join(",", allowed));
+            }
+            selected.add(name);
+        }
+        return selected.isEmpty() ? null : selected;
+    }
+}
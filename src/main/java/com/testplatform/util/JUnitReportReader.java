@@ -0,0 +1,122 @@
+package com.testplatform.util;
+
+import com.testplatform.dto.JUnitCaseResult;
+import com.testplatform.entity.enums.TestResultStatus;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.function.Consumer;
+
+/**
+ * JUnit XML报告流式解析器
+ * 基于StAX逐个事件读取，每解析完一个 testcase 就回调一次，不在内存中保留整棵文档树；
+ * 失败信息只保留前 MAX_MESSAGE_LENGTH 个字符，system-out 等大段输出直接跳过，
+ * 因此内存占用与报告大小无关。
+ */
+public final class JUnitReportReader {
+
+    public static final int MAX_MESSAGE_LENGTH = 2000;
+    public static final String CASE_ID_PROPERTY = "case_id";
+
+    private JUnitReportReader() {
+    }
+
+    /**
+     * 解析报告
+     * @return 解析出的 testcase 数量
+     */
+    public static long read(InputStream in, Consumer<JUnitCaseResult> consumer) throws XMLStreamException {
+        XMLStreamReader reader = createFactory().createXMLStreamReader(in);
+        try {
+            long count = 0;
+            JUnitCaseResult current = null;
+            StringBuilder text = null;  // 仅在读取 failure/error 正文时非空
+
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    String element = reader.getLocalName();
+                    if ("testcase".equals(element)) {
+                        current = new JUnitCaseResult();
+                        current.setClassName(reader.getAttributeValue(null, "classname"));
+                        current.setName(reader.getAttributeValue(null, "name"));
+                        current.setDurationMs(parseSeconds(reader.getAttributeValue(null, "time")));
+                    } else if (current == null) {
+                        continue;
+                    } else if ("failure".equals(element) || "error".equals(element)) {
+                        current.setStatus("failure".equals(element) ? TestResultStatus.FAILED : TestResultStatus.ERROR);
+                        current.setMessage(truncate(reader.getAttributeValue(null, "message")));
+                        text = new StringBuilder();
+                    } else if ("skipped".equals(element)) {
+                        current.setStatus(TestResultStatus.SKIPPED);
+                        current.setMessage(truncate(reader.getAttributeValue(null, "message")));
+                    } else if ("property".equals(element)
+                            && CASE_ID_PROPERTY.equals(reader.getAttributeValue(null, "name"))) {
+                        current.setCaseId(parseInt(reader.getAttributeValue(null, "value")));
+                    }
+                } else if (text != null
+                        && (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA)) {
+                    int remaining = MAX_MESSAGE_LENGTH - text.length();
+                    if (remaining > 0) {
+                        int length = Math.min(remaining, reader.getTextLength());
+                        text.append(reader.getTextCharacters(), reader.getTextStart(), length);
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT && current != null) {
+                    String element = reader.getLocalName();
+                    if (text != null && ("failure".equals(element) || "error".equals(element))) {
+                        if (current.getMessage() == null || current.getMessage().isEmpty()) {
+                            current.setMessage(text.toString().trim());
+                        }
+                        text = null;
+                    } else if ("testcase".equals(element)) {
+                        consumer.accept(current);
+                        current = null;
+                        count++;
+                    }
+                }
+            }
+            return count;
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static XMLInputFactory createFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        // 报告来自外部上传，禁用DTD和外部实体，防止XXE
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+        return factory;
+    }
+
+    private static Long parseSeconds(String time) {
+        if (time == null || time.isEmpty()) {
+            return null;
+        }
+        try {
+            return new BigDecimal(time.replace(",", "")).movePointRight(3).longValue();
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Integer parseInt(String value) {
+        try {
+            return value == null ? null : Integer.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String truncate(String value) {
+        if (value == null || value.length() <= MAX_MESSAGE_LENGTH) {
+            return value;
+        }
+        return value.substring(0, MAX_MESSAGE_LENGTH);
+    }
+}
@@ -1,5 +1,6 @@
 package com.testplatform.util;
 
+import com.testplatform.entity.User;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
@@ -8,12 +9,22 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 
 @Component
 public class JwtUtil {
+
+    // 自包含token中携带的声明
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_ROLE_VERSION = "rv";
     
     @Value("${jwt.secret}")
     private String secret;
@@ -34,10 +45,20 @@ public class JwtUtil {
         return createToken(claims, username);
     }
 
+    // 从用户实体生成携带用户ID、角色和角色版本的 token，过滤器可据此直接构建认证信息
+    public String generateToken(User user, long roleVersion) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_USER_ID, user.getId());
+        claims.put(CLAIM_ROLE, user.getRole().name());
+        claims.put(CLAIM_ROLE_VERSION, roleVersion);
+        return createToken(claims, user.getUsername());
+    }
+
     private String createToken(Map<String, Object> claims, String subject) {
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(subject)
+                .setId(UUID.randomUUID().toString())  // jti，用于吊销
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))  // 设置过期时间
                 .signWith(SignatureAlgorithm.HS512, secret)
@@ -51,6 +72,17 @@ public class JwtUtil {
                 .getBody();
     }
 
+    // 计算 token 的 SHA-256 摘要，用作缓存或吊销记录的键
+    public static String digest(String token) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            byte[] hash = md.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
+        }
+    }
+
     public String getUsernameFromToken(String token) {
         return getClaimsFromToken(token).getSubject();
     }
@@ -61,8 +93,18 @@ public class JwtUtil {
         return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
     }
 
+    // 使用已解析的 Claims 验证 token，避免重复验签
+    public boolean validateToken(Claims claims, UserDetails userDetails) {
+        final String username = claims.getSubject();
+        return (username.equals(userDetails.getUsername()) && !isTokenExpired(claims));
+    }
+
     private boolean isTokenExpired(String token) {
-        final Date expiration = getClaimsFromToken(token).getExpiration();
+        return isTokenExpired(getClaimsFromToken(token));
+    }
+
+    private boolean isTokenExpired(Claims claims) {
+        final Date expiration = claims.getExpiration();
         return expiration.before(new Date());
     }
 } 
\ No newline at end of file
@@ -1,19 +1,61 @@
 package com.testplatform.util;
 
+import com.testplatform.entity.User;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 @Component
 @RequiredArgsConstructor
 public class RedisUtil {
 
     private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisTemplate<String, User> userRedisTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+
+    // 仅当租约仍归自己所有时才续期/释放
+    private static final RedisScript<Long> RENEW_LEASE_SCRIPT = new DefaultRedisScript<>(
+        "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('pexpire', KEYS[1], ARGV[2]) else return 0 end",
+        Long.class);
+    private static final RedisScript<Long> RELEASE_LEASE_SCRIPT = new DefaultRedisScript<>(
+        "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+        Long.class);
     
     private static final String TOKEN_KEY_PREFIX = "token:";
     private static final String USER_KEY_PREFIX = "user:";
+    private static final String ROLE_VERSION_KEY_PREFIX = "role_version:";
+    private static final String REVOKED_TOKEN_KEY_PREFIX = "revoked_token:";
+    private static final String RECENT_WRITE_KEY_PREFIX = "recent_write:";
+
+    public static String tokenKey(String username) {
+        return TOKEN_KEY_PREFIX + username;
+    }
+
+    public static String userKey(String username) {
+        return USER_KEY_PREFIX + username;
+    }
+
+    public static String revokedTokenKey(String tokenId) {
+        return REVOKED_TOKEN_KEY_PREFIX + tokenId;
+    }
     
     /**
      * 存储token
@@ -43,17 +85,17 @@ public class RedisUtil {
     /**
      * 存储用户信息
      */
-    public void saveUser(String username, Object userInfo, long expiration) {
+    public void saveUser(String username, User user, long expiration) {
         String key = USER_KEY_PREFIX + username;
-        redisTemplate.opsForValue().set(key, userInfo, expiration, TimeUnit.MILLISECONDS);
+        userRedisTemplate.opsForValue().set(key, user, expiration, TimeUnit.MILLISECONDS);
     }
     
     /**
      * 获取用户信息
      */
-    public Object getUser(String username) {
+    public User getUser(String username) {
         String key = USER_KEY_PREFIX + username;
-        return redisTemplate.opsForValue().get(key);
+        return userRedisTemplate.opsForValue().get(key);
     }
     
     /**
@@ -63,4 +105,181 @@ public class RedisUtil {
         String key = USER_KEY_PREFIX + username;
         redisTemplate.delete(key);
     }
+
+    /**
+     * 获取用户角色版本，不存在时为0
+     */
+    public long getRoleVersion(String username) {
+        String key = ROLE_VERSION_KEY_PREFIX + username;
+        Object value = redisTemplate.opsForValue().get(key);
+        return value != null ? Long.parseLong(value.toString()) : 0L;
+    }
+
+    /**
+     * 角色版本加一，返回新版本
+     */
+    public long incrementRoleVersion(String username) {
+        String key = ROLE_VERSION_KEY_PREFIX + username;
+        Long version = redisTemplate.opsForValue().increment(key);
+        return version != null ? version : 0L;
+    }
+
+    /**
+     * 判断token是否已吊销
+     */
+    public boolean isTokenRevoked(String tokenId) {
+        String key = REVOKED_TOKEN_KEY_PREFIX + tokenId;
+        return Boolean.TRUE.equals(redisTemplate.hasKey(key));
+    }
+
+    /**
+     * 记录用户刚刚写入过数据库，ttl 内该用户的只读查询走主库
+     */
+    public void markRecentWrite(String username, long ttlMillis) {
+        stringRedisTemplate.opsForValue().set(RECENT_WRITE_KEY_PREFIX + username, "1", ttlMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public boolean hasRecentWrite(String username) {
+        return Boolean.TRUE.equals(stringRedisTemplate.hasKey(RECENT_WRITE_KEY_PREFIX + username));
+    }
+
+    /**
+     * 扫描所有已吊销的token ID
+     */
+    public List<String> scanRevokedTokenIds() {
+        ScanOptions options = ScanOptions.scanOptions().match(REVOKED_TOKEN_KEY_PREFIX + "*").count(1000).build();
+        return redisTemplate.execute((RedisCallback<List<String>>) connection -> {
+            List<String> tokenIds = new ArrayList<>();
+            try (Cursor<byte[]> cursor = connection.scan(options)) {
+                while (cursor.hasNext()) {
+                    String key = new String(cursor.next(), StandardCharsets.UTF_8);
+                    tokenIds.add(key.substring(REVOKED_TOKEN_KEY_PREFIX.length()));
+                }
+            }
+            return tokenIds;
+        });
+    }
+
+    /**
+     * 在一次往返中批量执行多个命令
+     * 回调中通过 operations 发出的命令会进入管道，回调返回后统一发送；命令的返回值在回调中为 null
+     * @return 各命令的执行结果，顺序与发出顺序一致
+     */
+    public List<Object> executePipelined(Consumer<RedisOperations<String, Object>> commands) {
+        return redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                commands.accept((RedisOperations<String, Object>) operations);
+                return null;
+            }
+        });
+    }
+
+    /**
+     * 批量获取（MGET），不存在的键对应位置为 null
+     */
+    public List<Object> multiGet(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Object> values = redisTemplate.opsForValue().multiGet(keys);
+        return values != null ? values : Collections.emptyList();
+    }
+
+    /**
+     * 批量设置并指定过期时间（管道中执行多条 SET PX）
+     */
+    public void multiSet(Map<String, Object> values, long expiration) {
+        if (values.isEmpty()) {
+            return;
+        }
+        executePipelined(operations -> values.forEach((key, value) ->
+            operations.opsForValue().set(key, value, expiration, TimeUnit.MILLISECONDS)));
+    }
+
+    /**
+     * 批量删除（一条 DEL）
+     */
+    public long deleteAll(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return 0L;
+        }
+        Long deleted = redisTemplate.delete(keys);
+        return deleted != null ? deleted : 0L;
+    }
+
+    /**
+     * 批量删除（一条 DEL），命令加入调用方的管道中执行
+     */
+    public void deleteAll(Collection<String> keys, RedisOperations<String, Object> operations) {
+        if (!keys.isEmpty()) {
+            operations.delete(keys);
+        }
+    }
+
+    /**
+     * 批量读取哈希（管道中执行多条 HGETALL），不存在的键对应位置为空Map
+     */
+    @SuppressWarnings("unchecked")
+    public List<Map<Object, Object>> multiGetHashes(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Object> results = executePipelined(operations ->
+            keys.forEach(key -> operations.opsForHash().entries(key)));
+        List<Map<Object, Object>> hashes = new ArrayList<>(results.size());
+        for (Object result : results) {
+            hashes.add(result != null ? (Map<Object, Object>) result : Collections.emptyMap());
+        }
+        return hashes;
+    }
+
+    /**
+     * 批量读取多个哈希的同一字段（管道中执行多条 HGET），不存在的键或字段对应位置为 null
+     */
+    public List<Object> multiGetHashField(Collection<String> keys, String field) {
+        if (keys.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return executePipelined(operations -> keys.forEach(key -> operations.opsForHash().get(key, field)));
+    }
+
+    /**
+     * 尝试获取租约（SET NX PX），用于多节点间选主
+     */
+    public boolean acquireLease(String key, String owner, long ttlMillis) {
+        return Boolean.TRUE.equals(
+            stringRedisTemplate.opsForValue().setIfAbsent(key, owner, ttlMillis, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * 续期租约，租约已过期或被其他节点持有时返回 false
+     */
+    public boolean renewLease(String key, String owner, long ttlMillis) {
+        Long renewed = stringRedisTemplate.execute(RENEW_LEASE_SCRIPT,
+            Collections.singletonList(key), owner, String.valueOf(ttlMillis));
+        return renewed != null && renewed == 1L;
+    }
+
+    /**
+     * 释放自己持有的租约
+     */
+    public void releaseLease(String key, String owner) {
+        stringRedisTemplate.execute(RELEASE_LEASE_SCRIPT, Collections.singletonList(key), owner);
+    }
+
+    /**
+     * 发布消息
+     */
+    public void publish(String channel, Object message) {
+        redisTemplate.convertAndSend(channel, message);
+    }
+
+    /**
+     * 使用值序列化器反序列化订阅到的消息
+     */
+    public Object deserializeMessage(byte[] body) {
+        return redisTemplate.getValueSerializer().deserialize(body);
+    }
 } 
\ No newline at end of file
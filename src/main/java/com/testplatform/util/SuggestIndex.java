@@ -0,0 +1,208 @@
+package com.testplatform.util;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 内存中的编号/名称联想索引
+ * 对编号和名称（忽略大小写）的每个单字和相邻两字建立倒排表；查询时取查询串中最短的二元倒排表作为候选集，
+ * 再逐个校验是否包含查询串，支持前缀和中间匹配。前缀匹配排在中间匹配之前，编号匹配排在名称匹配之前；
+ * 命中结果用大小为 limit 的堆取前几名，不对全部候选排序。
+ * 读写通过读写锁保护，适合读多写少的场景。
+ */
+public class SuggestIndex {
+
+    private final Map<Integer, Entry> entries = new HashMap<>();
+    private final Map<String, Set<Integer>> grams = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * 新增或替换条目
+     */
+    public void put(Integer id, String code, String name) {
+        Entry entry = new Entry(id, code, name, normalize(code), normalize(name));
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+            entries.put(id, entry);
+            for (String gram : grams(entry)) {
+                grams.computeIfAbsent(gram, k -> new HashSet<>()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Integer id) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 用全量数据替换索引，新索引在锁外构建，替换期间查询不受影响
+     */
+    public void replaceAll(Collection<Entry> all) {
+        Map<Integer, Entry> newEntries = new HashMap<>(all.size() * 2);
+        Map<String, Set<Integer>> newGrams = new HashMap<>();
+        for (Entry entry : all) {
+            newEntries.put(entry.getId(), entry);
+            for (String gram : grams(entry)) {
+                newGrams.computeIfAbsent(gram, k -> new HashSet<>()).add(entry.getId());
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            entries.putAll(newEntries);
+            grams.clear();
+            grams.putAll(newGrams);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 查询包含 query 的前 limit 个条目
+     */
+    public List<Entry> search(String query, int limit) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+        Comparator<Entry> order = Comparator.<Entry>comparingInt(entry -> rank(entry, normalized))
+            .thenComparing(Entry::getCode, Comparator.nullsLast(Comparator.reverseOrder()));
+        // 堆顶是当前前 limit 名中排序最靠后的条目，新命中的条目比它靠前时替换
+        PriorityQueue<Entry> top = new PriorityQueue<>(limit + 1, order.reversed());
+        lock.readLock().lock();
+        try {
+            Set<Integer> candidates = candidates(normalized);
+            for (Integer id : candidates) {
+                Entry entry = entries.get(id);
+                if (entry.getNormalizedCode().contains(normalized) || entry.getNormalizedName().contains(normalized)) {
+                    if (top.size() < limit) {
+                        top.offer(entry);
+                    } else if (order.compare(entry, top.peek()) < 0) {
+                        top.poll();
+                        top.offer(entry);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Entry> matches = new ArrayList<>(top);
+        matches.sort(order);
+        return matches;
+    }
+
+    // 查询串长度为1时用单字倒排表，否则取最短的二元倒排表
+    private Set<Integer> candidates(String normalized) {
+        if (normalized.length() == 1) {
+            return grams.getOrDefault(normalized, Collections.emptySet());
+        }
+        Set<Integer> smallest = null;
+        for (int i = 0; i + 1 < normalized.length(); i++) {
+            Set<Integer> posting = grams.get(normalized.substring(i, i + 2));
+            if (posting == null) {
+                return Collections.emptySet();
+            }
+            if (smallest == null || posting.size() < smallest.size()) {
+                smallest = posting;
+            }
+        }
+        return smallest;
+    }
+
+    private static int rank(Entry entry, String normalized) {
+        if (entry.getNormalizedCode().startsWith(normalized)) {
+            return 0;
+        }
+        if (entry.getNormalizedName().startsWith(normalized)) {
+            return 1;
+        }
+        return entry.getNormalizedCode().contains(normalized) ? 2 : 3;
+    }
+
+    private void removeInternal(Integer id) {
+        Entry old = entries.remove(id);
+        if (old == null) {
+            return;
+        }
+        for (String gram : grams(old)) {
+            Set<Integer> posting = grams.get(gram);
+            if (posting != null) {
+                posting.remove(id);
+                if (posting.isEmpty()) {
+                    grams.remove(gram);
+                }
+            }
+        }
+    }
+
+    private static Set<String> grams(Entry entry) {
+        Set<String> result = new HashSet<>();
+        addGrams(entry.getNormalizedCode(), result);
+        addGrams(entry.getNormalizedName(), result);
+        return result;
+    }
+
+    private static void addGrams(String text, Set<String> result) {
+        for (int i = 0; i < text.length(); i++) {
+            result.add(text.substring(i, i + 1));
+            if (i + 1 < text.length()) {
+                result.add(text.substring(i, i + 2));
+            }
+        }
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 索引条目
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Entry {
+        private final Integer id;
+        private final String code;
+        private final String name;
+        private final String normalizedCode;
+        private final String normalizedName;
+
+        public Entry(Integer id, String code, String name) {
+            this(id, code, name, normalize(code), normalize(name));
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.testplatform.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.testplatform.dto.TestCaseImportRow;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * XMind用例读取器，支持 XMind Zen（content.json）和 XMind 8（content.xml）
+ * 约定：
+ * - 标题以 "tc:" / "tc：" / "tc-" 开头的主题为一条用例，去掉前缀后作为用例标题；
+ * - 用例的子主题依次为步骤，步骤的第一个子主题为预期结果；
+ * - 用例的备注作为前置条件，标签作为关联的需求编号，优先级图标 1/2/3 对应 P0/P1/P2。
+ */
+public final class XMindReader {
+
+    private XMindReader() {
+    }
+
+    public static void read(File file, Consumer<TestCaseImportRow> consumer) throws IOException, XMLStreamException {
+        List<Topic> roots;
+        try (ZipFile zip = new ZipFile(file)) {
+            ZipEntry json = zip.getEntry("content.json");
+            ZipEntry xml = zip.getEntry("content.xml");
+            if (json != null) {
+                try (InputStream in = zip.getInputStream(json)) {
+                    roots = readJson(in);
+                }
+            } else if (xml != null) {
+                try (InputStream in = zip.getInputStream(xml)) {
+                    roots = readXml(in);
+                }
+            } else {
+                throw new IOException("不是有效的XMind文件");
+            }
+        }
+        int[] sequence = {0};
+        for (Topic root : roots) {
+            collect(root, consumer, sequence);
+        }
+    }
+
+    private static void collect(Topic topic, Consumer<TestCaseImportRow> consumer, int[] sequence) {
+        String caseTitle = caseTitle(topic.title);
+        if (caseTitle == null) {
+            for (Topic child : topic.children) {
+                collect(child, consumer, sequence);
+            }
+            return;
+        }
+        TestCaseImportRow row = new TestCaseImportRow();
+        row.setRowNumber(++sequence[0]);
+        row.setTitle(caseTitle);
+        row.setPriority(topic.priority);
+        row.setPrecondition(topic.notes);
+        row.setRequirementCodes(topic.labels);
+
+        StringBuilder steps = new StringBuilder();
+        for (int i = 0; i < topic.children.size(); i++) {
+            Topic step = topic.children.get(i);
+            if (steps.length() > 0) {
+                steps.append('\n');
+            }
+            steps.append(i + 1).append(". ").append(step.title);
+            if (!step.children.isEmpty()) {
+                steps.append("\n   预期: ").append(step.children.get(0).title);
+            }
+        }
+        row.setSteps(steps.toString());
+        consumer.accept(row);
+    }
+
+    private static String caseTitle(String title) {
+        if (title == null) {
+            return null;
+        }
+        String trimmed = title.trim();
+        if (trimmed.length() > 3) {
+            String prefix = trimmed.substring(0, 3).toLowerCase();
+            if (prefix.equals("tc:") || prefix.equals("tc：") || prefix.equals("tc-")) {
+                return trimmed.substring(3).trim();
+            }
+        }
+        return null;
+    }
+
+    private static String priority(String markerId) {
+        if (markerId == null || !markerId.startsWith("priority-")) {
+            return null;
+        }
+        switch (markerId) {
+            case "priority-1":
+                return "P0";
+            case "priority-2":
+                return "P1";
+            default:
+                return "P2";
+        }
+    }
+
+    private static List<Topic> readJson(InputStream in) throws IOException {
+        JsonNode sheets = new ObjectMapper().readTree(in);
+        List<Topic> roots = new ArrayList<>();
+        for (JsonNode sheet : sheets) {
+            if (sheet.has("rootTopic")) {
+                roots.add(toTopic(sheet.get("rootTopic")));
+            }
+        }
+        return roots;
+    }
+
+    private static Topic toTopic(JsonNode node) {
+        Topic topic = new Topic();
+        topic.title = node.path("title").asText("");
+        topic.notes = node.path("notes").path("plain").path("content").asText(null);
+        for (JsonNode marker : node.path("markers")) {
+            String priority = priority(marker.path("markerId").asText(null));
+            if (priority != null) {
+                topic.priority = priority;
+            }
+        }
+        for (JsonNode label : node.path("labels")) {
+            topic.labels.add(label.asText());
+        }
+        for (JsonNode child : node.path("children").path("attached")) {
+            topic.children.add(toTopic(child));
+        }
+        return topic;
+    }
+
+    private static List<Topic> readXml(InputStream in) throws XMLStreamException {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        XMLStreamReader reader = factory.createXMLStreamReader(in);
+
+        List<Topic> roots = new ArrayList<>();
+        Deque<Topic> stack = new ArrayDeque<>();
+        boolean inAttached = true;  // 只读取 attached 子主题，忽略 detached（游离主题）
+        Deque<Boolean> attachedStack = new ArrayDeque<>();
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                String element = reader.getLocalName();
+                Topic current = stack.peek();
+                if ("topic".equals(element)) {
+                    Topic topic = new Topic();
+                    if (current == null) {
+                        roots.add(topic);
+                    } else if (inAttached) {
+                        current.children.add(topic);
+                    }
+                    stack.push(topic);
+                } else if ("topics".equals(element)) {
+                    attachedStack.push(inAttached);
+                    inAttached = "attached".equals(reader.getAttributeValue(null, "type"));
+                } else if (current != null && "title".equals(element)) {
+                    current.title = reader.getElementText();
+                } else if (current != null && "plain".equals(element)) {
+                    current.notes = reader.getElementText();
+                } else if (current != null && "label".equals(element)) {
+                    current.labels.add(reader.getElementText());
+                } else if (current != null && "marker-ref".equals(element)) {
+                    String priority = priority(reader.getAttributeValue(null, "marker-id"));
+                    if (priority != null) {
+                        current.priority = priority;
+                    }
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                String element = reader.getLocalName();
+                if ("topic".equals(element)) {
+                    stack.pop();
+                } else if ("topics".equals(element)) {
+                    inAttached = attachedStack.pop();
+                }
+            }
+        }
+        reader.close();
+        return roots;
+    }
+
+    private static class Topic {
+        private String title = "";
+        private String notes;
+        private String priority;
+        private final List<String> labels = new ArrayList<>();
+        private final List<Topic> children = new ArrayList<>();
+    }
+}
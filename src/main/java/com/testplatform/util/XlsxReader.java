@@ -0,0 +1,172 @@
+package com.testplatform.util;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Excel（.xlsx）流式读取器
+ * xlsx 是包含若干XML的zip包，这里直接用StAX逐行读取第一个工作表，不构建整个工作簿对象；
+ * 只有共享字符串表会完整加载到内存。
+ */
+public final class XlsxReader {
+
+    private static final String SHARED_STRINGS = "xl/sharedStrings.xml";
+    private static final String FIRST_SHEET = "xl/worksheets/sheet1.xml";
+
+    private XlsxReader() {
+    }
+
+    public static void read(File file, Consumer<List<String>> consumer) throws IOException, XMLStreamException {
+        try (ZipFile zip = new ZipFile(file)) {
+            List<String> sharedStrings = readSharedStrings(zip);
+            ZipEntry sheet = firstSheet(zip);
+            if (sheet == null) {
+                throw new IOException("Excel文件中没有工作表");
+            }
+            try (InputStream in = zip.getInputStream(sheet)) {
+                readSheet(in, sharedStrings, consumer);
+            }
+        }
+    }
+
+    private static ZipEntry firstSheet(ZipFile zip) {
+        ZipEntry sheet = zip.getEntry(FIRST_SHEET);
+        if (sheet != null) {
+            return sheet;
+        }
+        return zip.stream()
+            .filter(entry -> entry.getName().startsWith("xl/worksheets/") && entry.getName().endsWith(".xml"))
+            .findFirst()
+            .orElse(null);
+    }
+
+    private static List<String> readSharedStrings(ZipFile zip) throws IOException, XMLStreamException {
+        ZipEntry entry = zip.getEntry(SHARED_STRINGS);
+        if (entry == null) {
+            return Collections.emptyList();
+        }
+        List<String> strings = new ArrayList<>();
+        try (InputStream in = zip.getInputStream(entry)) {
+            XMLStreamReader reader = createFactory().createXMLStreamReader(in);
+            StringBuilder text = null;
+            boolean inText = false;
+            int phoneticDepth = 0;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    String element = reader.getLocalName();
+                    if ("si".equals(element)) {
+                        text = new StringBuilder();
+                    } else if ("rPh".equals(element)) {
+                        phoneticDepth++;  // 拼音注音不属于单元格内容
+                    } else if ("t".equals(element) && phoneticDepth == 0) {
+                        inText = true;
+                    }
+                } else if (event == XMLStreamConstants.CHARACTERS && inText && text != null) {
+                    text.append(reader.getText());
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    String element = reader.getLocalName();
+                    if ("t".equals(element)) {
+                        inText = false;
+                    } else if ("rPh".equals(element)) {
+                        phoneticDepth--;
+                    } else if ("si".equals(element) && text != null) {
+                        strings.add(text.toString());
+                        text = null;
+                    }
+                }
+            }
+            reader.close();
+        }
+        return strings;
+    }
+
+    private static void readSheet(InputStream in, List<String> sharedStrings, Consumer<List<String>> consumer)
+            throws XMLStreamException {
+        XMLStreamReader reader = createFactory().createXMLStreamReader(in);
+        List<String> row = null;
+        String cellType = null;
+        int column = -1;
+        StringBuilder value = null;
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                String element = reader.getLocalName();
+                if ("row".equals(element)) {
+                    row = new ArrayList<>();
+                } else if ("c".equals(element) && row != null) {
+                    cellType = reader.getAttributeValue(null, "t");
+                    String ref = reader.getAttributeValue(null, "r");
+                    column = ref != null ? columnIndex(ref) : row.size();
+                    value = new StringBuilder();
+                } else if (("v".equals(element) || "t".equals(element)) && value != null) {
+                    value.append(reader.getElementText());
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                String element = reader.getLocalName();
+                if ("c".equals(element) && row != null && value != null) {
+                    // 空单元格不会出现在XML中，按列号补齐
+                    while (row.size() < column) {
+                        row.add("");
+                    }
+                    row.add(cellValue(cellType, value.toString(), sharedStrings));
+                    value = null;
+                } else if ("row".equals(element) && row != null) {
+                    consumer.accept(row);
+                    row = null;
+                }
+            }
+        }
+        reader.close();
+    }
+
+    private static String cellValue(String type, String raw, List<String> sharedStrings) {
+        if ("s".equals(type)) {
+            int index = Integer.parseInt(raw.trim());
+            return index < sharedStrings.size() ? sharedStrings.get(index) : "";
+        }
+        if ("b".equals(type)) {
+            return "1".equals(raw) ? "TRUE" : "FALSE";
+        }
+        if (type == null || "n".equals(type)) {
+            // 整数在xlsx中常以 "12.0" 或 "1.2E1" 形式保存
+            if (raw.endsWith(".0")) {
+                return raw.substring(0, raw.length() - 2);
+            }
+        }
+        return raw;
+    }
+
+    /**
+     * 单元格引用（如 AB12）转为从0开始的列号
+     */
+    private static int columnIndex(String ref) {
+        int index = 0;
+        for (int i = 0; i < ref.length(); i++) {
+            char c = ref.charAt(i);
+            if (c < 'A' || c > 'Z') {
+                break;
+            }
+            index = index * 26 + (c - 'A' + 1);
+        }
+        return index - 1;
+    }
+
+    private static XMLInputFactory createFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+}
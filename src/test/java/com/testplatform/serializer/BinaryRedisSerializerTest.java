@@ -0,0 +1,135 @@
+package com.testplatform.serializer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.testplatform.dto.ExecutorDTO;
+import com.testplatform.entity.User;
+import com.testplatform.entity.enums.UserRole;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 二进制Redis序列化器测试：数据头、压缩阈值、旧JSON格式兼容和未注册类型
+ */
+class BinaryRedisSerializerTest {
+
+    private static final int THRESHOLD = 64;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final BinaryRedisSerializer serializer = new BinaryRedisSerializer(
+        StandardCodecs.createRegistry(), legacySerializer(Object.class), objectMapper, THRESHOLD);
+
+    @Test
+    void nullAndEmpty() {
+        assertThat(serializer.serialize(null)).isEmpty();
+        assertThat(serializer.deserialize(null)).isNull();
+        assertThat(serializer.deserialize(new byte[0])).isNull();
+    }
+
+    @Test
+    void writesHeaderWithTypeId() {
+        byte[] bytes = serializer.serialize("abc");
+        assertThat(bytes[0] & 0xFF).isEqualTo(BinaryRedisSerializer.MAGIC);
+        assertThat(bytes[1]).isEqualTo((byte) 0);
+        assertThat(bytes[2]).isEqualTo((byte) StandardCodecs.STRING);
+        assertThat(serializer.deserialize(bytes)).isEqualTo("abc");
+    }
+
+    @Test
+    void compressesOnlyAboveThreshold() {
+        String atThreshold = repeat('a', THRESHOLD - 2);  // 字符串体 = 非空标记 + 长度 + 内容 = THRESHOLD
+        byte[] plain = serializer.serialize(atThreshold);
+        assertThat(plain[1] & BinaryRedisSerializer.FLAG_COMPRESSED).isZero();
+        assertThat(serializer.deserialize(plain)).isEqualTo(atThreshold);
+
+        String aboveThreshold = repeat('a', THRESHOLD * 10);
+        byte[] compressed = serializer.serialize(aboveThreshold);
+        assertThat(compressed[1] & BinaryRedisSerializer.FLAG_COMPRESSED).isNotZero();
+        assertThat(compressed.length).isLessThan(aboveThreshold.length());
+        assertThat(serializer.deserialize(compressed)).isEqualTo(aboveThreshold);
+    }
+
+    @Test
+    void highEntropyTextRoundTrips() {
+        StringBuilder random = new StringBuilder();
+        java.util.Random rnd = new java.util.Random(1);
+        for (int i = 0; i < THRESHOLD * 2; i++) {
+            random.append((char) (0x4E00 + rnd.nextInt(0x5000)));
+        }
+        byte[] bytes = serializer.serialize(random.toString());
+        assertThat(serializer.deserialize(bytes)).isEqualTo(random.toString());
+    }
+
+    @Test
+    void truncatedCompressedDataIsRejected() {
+        byte[] compressed = serializer.serialize(repeat('b', THRESHOLD * 10));
+        byte[] truncated = Arrays.copyOf(compressed, compressed.length - 4);
+        assertThatThrownBy(() -> serializer.deserialize(truncated)).isInstanceOf(SerializationException.class);
+    }
+
+    @Test
+    void readsLegacyJson() {
+        BinaryRedisSerializer userSerializer = new BinaryRedisSerializer(
+            StandardCodecs.createRegistry(), legacySerializer(User.class), objectMapper, THRESHOLD);
+        byte[] legacy = "{\"id\":7,\"username\":\"alice\",\"role\":\"admin\"}".getBytes(StandardCharsets.UTF_8);
+
+        User user = (User) userSerializer.deserialize(legacy);
+
+        assertThat(user.getId()).isEqualTo(7L);
+        assertThat(user.getUsername()).isEqualTo("alice");
+        assertThat(user.getRole()).isEqualTo(UserRole.admin);
+        assertThat(serializer.deserialize("\"token\"".getBytes(StandardCharsets.UTF_8))).isEqualTo("token");
+    }
+
+    @Test
+    void unregisteredTypeFallsBackToJson() {
+        ExecutorDTO dto = new ExecutorDTO();
+        dto.setId(3L);
+        dto.setRealName("李四");
+
+        byte[] bytes = serializer.serialize(dto);
+
+        assertThat(bytes[2]).isEqualTo((byte) CodecRegistry.FALLBACK_TYPE_ID);
+        assertThat(serializer.deserialize(bytes)).isEqualTo(dto);
+    }
+
+    @Test
+    void fallbackRejectsClassesOutsideProject() {
+        CodecOutput body = new CodecOutput();
+        body.writeString("javax.script.ScriptEngineManager");
+        body.writeBytes("{}".getBytes(StandardCharsets.UTF_8));
+        CodecOutput out = new CodecOutput();
+        out.writeByte(BinaryRedisSerializer.MAGIC);
+        out.writeByte(0);
+        out.writeUnsignedVarLong(CodecRegistry.FALLBACK_TYPE_ID);
+        out.writeBytes(body.toByteArray());
+
+        assertThatThrownBy(() -> serializer.deserialize(out.toByteArray()))
+            .isInstanceOf(SerializationException.class);
+    }
+
+    @Test
+    void unknownTypeIdIsRejected() {
+        byte[] bytes = {(byte) BinaryRedisSerializer.MAGIC, 0, 99};
+        assertThatThrownBy(() -> serializer.deserialize(bytes)).isInstanceOf(SerializationException.class);
+    }
+
+    private <T> Jackson2JsonRedisSerializer<T> legacySerializer(Class<T> type) {
+        Jackson2JsonRedisSerializer<T> json = new Jackson2JsonRedisSerializer<>(type);
+        json.setObjectMapper(objectMapper);
+        return json;
+    }
+
+    private static String repeat(char c, int times) {
+        char[] chars = new char[times];
+        Arrays.fill(chars, c);
+        return new String(chars);
+    }
+}
@@ -0,0 +1,113 @@
+package com.testplatform.serializer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.testplatform.entity.ExecutionTask;
+import com.testplatform.entity.User;
+import com.testplatform.entity.enums.TaskStatus;
+import com.testplatform.entity.enums.UserRole;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 序列化器基准测试
+ * 对比当前JSON序列化器与二进制序列化器的数据大小和编解码吞吐量。
+ * 运行方式：mvn -q test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.testplatform.serializer.SerializerBenchmark
+ */
+public class SerializerBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 50_000;
+    private static final int MEASURE_ITERATIONS = 200_000;
+
+    // 保存计算结果，防止JIT消除循环
+    private static volatile long blackhole;
+
+    public static void main(String[] args) {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+
+        Jackson2JsonRedisSerializer<Object> json = new Jackson2JsonRedisSerializer<>(Object.class);
+        json.setObjectMapper(objectMapper);
+        BinaryRedisSerializer binary = new BinaryRedisSerializer(
+            StandardCodecs.createRegistry(), json, objectMapper, 512);
+
+        Map<String, Object> samples = new LinkedHashMap<>();
+        samples.put("User", sampleUser());
+        samples.put("ExecutionTask", sampleTask());
+        samples.put("Token", UUID.randomUUID().toString());
+        samples.put("LargeText", repeat("需求描述 requirement description ", 200));
+
+        System.out.printf("%-15s %-8s %10s %15s %15s%n", "value", "format", "bytes", "encode ops/s", "decode ops/s");
+        for (Map.Entry<String, Object> sample : samples.entrySet()) {
+            run(sample.getKey(), "json", json, sample.getValue());
+            run(sample.getKey(), "binary", binary, sample.getValue());
+        }
+    }
+
+    private static void run(String name, String format, RedisSerializer<Object> serializer, Object value) {
+        byte[] bytes = serializer.serialize(value);
+        measureEncode(serializer, value, WARMUP_ITERATIONS);
+        measureDecode(serializer, bytes, WARMUP_ITERATIONS);
+        double encodeOps = measureEncode(serializer, value, MEASURE_ITERATIONS);
+        double decodeOps = measureDecode(serializer, bytes, MEASURE_ITERATIONS);
+        System.out.printf("%-15s %-8s %10d %15.0f %15.0f%n", name, format, bytes.length, encodeOps, decodeOps);
+    }
+
+    private static double measureEncode(RedisSerializer<Object> serializer, Object value, int iterations) {
+        long sink = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += serializer.serialize(value).length;
+        }
+        blackhole = sink;
+        return opsPerSecond(iterations, System.nanoTime() - start);
+    }
+
+    private static double measureDecode(RedisSerializer<Object> serializer, byte[] bytes, int iterations) {
+        long sink = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += serializer.deserialize(bytes).hashCode();
+        }
+        blackhole = sink;
+        return opsPerSecond(iterations, System.nanoTime() - start);
+    }
+
+    private static double opsPerSecond(int iterations, long elapsedNanos) {
+        return iterations * 1_000_000_000.0 / Math.max(1, elapsedNanos);
+    }
+
+    private static User sampleUser() {
+        User user = new User();
+        user.setId(10086L);
+        user.setUsername("test_manager_01");
+        user.setPassword("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z3v0OJMnZ6Yf8EhGpeHtK7Ya");
+        user.setRealName("张三");
+        user.setRole(UserRole.test_manager);
+        user.setCreatedAt(LocalDateTime.now().minusDays(30));
+        user.setUpdatedAt(LocalDateTime.now());
+        return user;
+    }
+
+    private static ExecutionTask sampleTask() {
+        ExecutionTask task = new ExecutionTask();
+        task.setTaskId(UUID.randomUUID().toString());
+        task.setCaseId("12345");
+        task.setStatus(TaskStatus.RUNNING);
+        task.setTimeout(3600L);
+        return task;
+    }
+
+    private static String repeat(String text, int times) {
+        StringBuilder builder = new StringBuilder(text.length() * times);
+        for (int i = 0; i < times; i++) {
+            builder.append(text);
+        }
+        return builder.toString();
+    }
+}
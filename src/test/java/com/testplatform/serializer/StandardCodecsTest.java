@@ -0,0 +1,135 @@
+package com.testplatform.serializer;
+
+import com.testplatform.entity.ExecutionTask;
+import com.testplatform.entity.User;
+import com.testplatform.entity.enums.TaskStatus;
+import com.testplatform.entity.enums.UserRole;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 内置编解码器及变长整数编码测试
+ */
+class StandardCodecsTest {
+
+    private final CodecRegistry registry = StandardCodecs.createRegistry();
+
+    @Test
+    void varLongRoundTripsAtBounds() {
+        long[] values = {0, 1, -1, 63, -64, 64, -65, 127, 128, Integer.MAX_VALUE, Integer.MIN_VALUE,
+            Long.MAX_VALUE, Long.MIN_VALUE};
+        for (long value : values) {
+            CodecOutput out = new CodecOutput();
+            out.writeVarLong(value);
+            assertThat(new CodecInput(out.toByteArray(), 0).readVarLong()).isEqualTo(value);
+        }
+    }
+
+    @Test
+    void unsignedVarLongUsesOneBytePer7Bits() {
+        assertThat(unsignedLength(0)).isEqualTo(1);
+        assertThat(unsignedLength(127)).isEqualTo(1);
+        assertThat(unsignedLength(128)).isEqualTo(2);
+        assertThat(unsignedLength(16383)).isEqualTo(2);
+        assertThat(unsignedLength(16384)).isEqualTo(3);
+        assertThat(unsignedLength(-1L)).isEqualTo(10);
+
+        CodecOutput out = new CodecOutput();
+        out.writeUnsignedVarLong(-1L);
+        assertThat(new CodecInput(out.toByteArray(), 0).readUnsignedVarLong()).isEqualTo(-1L);
+    }
+
+    @Test
+    void truncatedVarLongIsRejected() {
+        byte[] truncated = {(byte) 0x80, (byte) 0x80};
+        assertThatThrownBy(() -> new CodecInput(truncated, 0).readUnsignedVarLong())
+            .isInstanceOf(SerializationException.class);
+    }
+
+    @Test
+    void overlongVarLongIsRejected() {
+        byte[] overlong = new byte[11];
+        java.util.Arrays.fill(overlong, (byte) 0x80);
+        assertThatThrownBy(() -> new CodecInput(overlong, 0).readUnsignedVarLong())
+            .isInstanceOf(SerializationException.class);
+    }
+
+    @Test
+    void scalarCodecsRoundTrip() {
+        assertThat(roundTrip(StandardCodecs.STRING, "需求 requirement")).isEqualTo("需求 requirement");
+        assertThat(roundTrip(StandardCodecs.STRING, "")).isEqualTo("");
+        assertThat(roundTrip(StandardCodecs.LONG, Long.MIN_VALUE)).isEqualTo(Long.MIN_VALUE);
+        assertThat(roundTrip(StandardCodecs.INTEGER, Integer.MAX_VALUE)).isEqualTo(Integer.MAX_VALUE);
+        assertThat(roundTrip(StandardCodecs.INTEGER, Integer.MIN_VALUE)).isEqualTo(Integer.MIN_VALUE);
+        assertThat(roundTrip(StandardCodecs.BOOLEAN, true)).isEqualTo(true);
+        assertThat(roundTrip(StandardCodecs.BOOLEAN, false)).isEqualTo(false);
+    }
+
+    @Test
+    void userRoundTripsWithoutPassword() {
+        User user = new User();
+        user.setId(10086L);
+        user.setUsername("test_manager_01");
+        user.setPassword("$2a$10$hash");
+        user.setRealName("张三");
+        user.setRole(UserRole.test_manager);
+        user.setCreatedAt(LocalDateTime.of(2024, 1, 2, 3, 4, 5, 123456789));
+        user.setUpdatedAt(LocalDateTime.of(1960, 12, 31, 23, 59, 59));
+
+        User copy = roundTrip(StandardCodecs.USER, user);
+
+        assertThat(copy.getPassword()).isNull();
+        user.setPassword(null);
+        assertThat(copy).isEqualTo(user);
+    }
+
+    @Test
+    void userWithNullFieldsRoundTrips() {
+        User user = new User();
+        assertThat(roundTrip(StandardCodecs.USER, user)).isEqualTo(user);
+    }
+
+    @Test
+    void executionTaskRoundTrips() {
+        ExecutionTask task = new ExecutionTask();
+        task.setTaskId("task-1");
+        task.setCaseId("42");
+        task.setStatus(TaskStatus.RUNNING);
+        task.setTimeout(3600L);
+        task.setAttempts(2);
+        task.setQueuedAt(System.currentTimeMillis());
+        task.setLeaseUntil(Long.MAX_VALUE);
+        task.setMessage("超时");
+        assertThat(roundTrip(StandardCodecs.EXECUTION_TASK, task)).isEqualTo(task);
+
+        ExecutionTask empty = new ExecutionTask();
+        assertThat(roundTrip(StandardCodecs.EXECUTION_TASK, empty)).isEqualTo(empty);
+    }
+
+    @Test
+    void registryRejectsReservedAndDuplicateIds() {
+        assertThatThrownBy(() -> new CodecRegistry().register(CodecRegistry.FALLBACK_TYPE_ID,
+            new StandardCodecs.StringCodec())).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> StandardCodecs.createRegistry().register(StandardCodecs.USER,
+            new StandardCodecs.StringCodec())).isInstanceOf(IllegalArgumentException.class);
+        assertThat(registry.getTypeId(StringBuilder.class)).isEqualTo(CodecRegistry.FALLBACK_TYPE_ID);
+    }
+
+    private <T> T roundTrip(int typeId, T value) {
+        ValueCodec<T> codec = registry.getCodec(typeId);
+        CodecOutput out = new CodecOutput();
+        codec.write(value, out);
+        return codec.read(new CodecInput(out.toByteArray(), 0));
+    }
+
+    private static int unsignedLength(long value) {
+        CodecOutput out = new CodecOutput();
+        out.writeUnsignedVarLong(value);
+        return out.toByteArray().length;
+    }
+}
@@ -0,0 +1,163 @@
+package com.testplatform.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.testplatform.entity.ExecutionTask;
+import com.testplatform.entity.TestCase;
+import com.testplatform.repository.TestCaseRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 接口测试执行器测试，被测接口由本地桩服务提供
+ */
+class ApiTestExecutionHandlerTest {
+
+    private HttpServer server;
+    private String baseUrl;
+    private final CountDownLatch slowRelease = new CountDownLatch(1);
+    private final TestCaseRepository testCaseRepository = mock(TestCaseRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void startStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/login", exchange -> {
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            if ("POST".equals(exchange.getRequestMethod()) && body.contains("\"alice\"")) {
+                respond(exchange, 200, "{\"code\":0,\"data\":{\"token\":\"t-123\"}}");
+            } else {
+                respond(exchange, 401, "{\"code\":401}");
+            }
+        });
+        server.createContext("/profile", exchange -> {
+            String auth = exchange.getRequestHeaders().getFirst("Authorization");
+            exchange.getResponseHeaders().add("X-Trace", "abc");
+            respond(exchange, "Bearer t-123".equals(auth) ? 200 : 403, "{\"name\":\"alice\",\"roles\":[\"admin\"]}");
+        });
+        server.createContext("/slow", exchange -> {
+            try {
+                slowRelease.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, 200, "ok");
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void stopStub() {
+        slowRelease.countDown();
+        server.stop(0);
+    }
+
+    @Test
+    void runsStepsWithExtractedVariables() throws Exception {
+        ApiTestExecutionHandler handler = handler(32, 1000);
+        String result = handler.handle(task(1, "["
+            + "{\"name\":\"登录\",\"method\":\"POST\",\"url\":\"/login\",\"body\":\"{\\\"user\\\":\\\"alice\\\"}\","
+            + "\"assertions\":[{\"type\":\"STATUS\",\"expected\":\"200\"},{\"type\":\"JSON_PATH\",\"path\":\"/code\",\"expected\":\"0\"}],"
+            + "\"extract\":{\"token\":\"/data/token\"}},"
+            + "{\"url\":\"" + baseUrl + "/profile\",\"headers\":{\"Authorization\":\"Bearer ${token}\"},"
+            + "\"assertions\":[{\"type\":\"STATUS\",\"expected\":\"200\"},{\"type\":\"BODY_CONTAINS\",\"expected\":\"alice\"},"
+            + "{\"type\":\"HEADER\",\"path\":\"X-Trace\",\"expected\":\"abc\"},{\"type\":\"MAX_LATENCY\",\"expected\":\"5000\"}]}"
+            + "]"));
+
+        assertThat(result).startsWith("2个步骤全部通过");
+        assertThat(meterRegistry.get("execution.http.requests").tag("target", "base").tag("outcome", "2xx")
+            .timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void reportsFailingStepAndAssertion() {
+        ApiTestExecutionHandler handler = handler(32, 1000);
+        ExecutionTask task = task(2, "[{\"name\":\"登录\",\"method\":\"POST\",\"url\":\"/login\",\"body\":\"{}\","
+            + "\"assertions\":[{\"type\":\"STATUS\",\"expected\":\"200\"}]}]");
+
+        assertThatThrownBy(() -> handler.handle(task))
+            .hasMessageContaining("步骤1[登录]")
+            .hasMessageContaining("期望 200，实际 401");
+    }
+
+    @Test
+    void failsWhenExtractedValueIsMissing() {
+        ApiTestExecutionHandler handler = handler(32, 1000);
+        ExecutionTask task = task(3, "[{\"url\":\"/profile\",\"extract\":{\"id\":\"/data/id\"}}]");
+
+        assertThatThrownBy(() -> handler.handle(task)).hasMessageContaining("/data/id");
+    }
+
+    @Test
+    void limitsConcurrentRequestsPerHost() throws Exception {
+        ApiTestExecutionHandler handler = handler(1, 200);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> first = executor.submit(() -> handler.handle(task(4, "[{\"url\":\"/slow\"}]")));
+            Thread.sleep(100);  // 等第一个请求占用许可
+
+            assertThatThrownBy(() -> handler.handle(task(5, "[{\"url\":\"/profile\"}]")))
+                .hasMessageContaining("等待目标主机并发许可超时");
+
+            slowRelease.countDown();
+            assertThat(first.get(5, TimeUnit.SECONDS)).startsWith("1个步骤全部通过");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void otherHostsShareOneMetricTag() {
+        ApiTestExecutionHandler handler = handler(32, 1000);
+        ExecutionTask task = task(6, "[{\"url\":\"http://localhost:" + server.getAddress().getPort() + "/profile\"}]");
+
+        assertThatCode(() -> handler.handle(task)).doesNotThrowAnyException();
+        assertThat(meterRegistry.get("execution.http.requests").tag("target", "other").timer().count())
+            .isEqualTo(1);
+    }
+
+    private ApiTestExecutionHandler handler(int perHostLimit, long acquireTimeoutMs) {
+        return new ApiTestExecutionHandler(testCaseRepository, new ObjectMapper(), meterRegistry,
+            baseUrl, perHostLimit, acquireTimeoutMs, 1000, 5000);
+    }
+
+    private ExecutionTask task(int caseId, String apiSteps) {
+        TestCase testCase = new TestCase();
+        testCase.setId(caseId);
+        testCase.setApiSteps(apiSteps);
+        when(testCaseRepository.findById(caseId)).thenReturn(Optional.of(testCase));
+        ExecutionTask task = new ExecutionTask();
+        task.setCaseId(String.valueOf(caseId));
+        return task;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
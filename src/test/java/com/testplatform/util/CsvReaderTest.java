@@ -0,0 +1,63 @@
+package com.testplatform.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * CSV读取器的引号、换行和空字段测试
+ */
+class CsvReaderTest {
+
+    @Test
+    void readsPlainRowsWithLfAndCrlf() throws IOException {
+        assertThat(read("a,b\nc,d\r\ne,f"))
+            .containsExactly(Arrays.asList("a", "b"), Arrays.asList("c", "d"), Arrays.asList("e", "f"));
+    }
+
+    @Test
+    void treatsBareCrAsRowEnd() throws IOException {
+        assertThat(read("a,b\rc,d\r"))
+            .containsExactly(Arrays.asList("a", "b"), Arrays.asList("c", "d"));
+    }
+
+    @Test
+    void keepsCommasQuotesAndNewlinesInsideQuotedFields() throws IOException {
+        List<List<String>> rows = read("\"a,b\",\"say \"\"hi\"\"\",\"line1\r\nline2\"\r\nx,y,z\r\n");
+        assertThat(rows).containsExactly(
+            Arrays.asList("a,b", "say \"hi\"", "line1\r\nline2"),
+            Arrays.asList("x", "y", "z"));
+    }
+
+    @Test
+    void keepsEmptyFieldsAndSkipsBlankLines() throws IOException {
+        List<List<String>> rows = read("a,,c,\r\n\r\n\n,\r\n\"\"\r\n");
+        assertThat(rows).containsExactly(
+            Arrays.asList("a", "", "c", ""),
+            Arrays.asList("", ""),
+            Arrays.asList(""));
+    }
+
+    @Test
+    void skipsBomAndHandlesMissingTrailingNewline() throws IOException {
+        assertThat(read("﻿标题,优先级\r\n登录,P0"))
+            .containsExactly(Arrays.asList("标题", "优先级"), Arrays.asList("登录", "P0"));
+    }
+
+    @Test
+    void quoteInsideUnquotedFieldIsLiteral() throws IOException {
+        assertThat(read("a\"b,c")).containsExactly(Arrays.asList("a\"b", "c"));
+    }
+
+    private static List<List<String>> read(String csv) throws IOException {
+        List<List<String>> rows = new ArrayList<>();
+        CsvReader.read(new StringReader(csv), rows::add);
+        return rows;
+    }
+}
@@ -0,0 +1,107 @@
+package com.testplatform.util;
+
+import com.testplatform.dto.TestCaseImportRow;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * XMind读取器对 content.json 和 content.xml 两种格式的解析测试
+ */
+class XMindReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void readsZenContentJson() throws Exception {
+        String json = "[{\"rootTopic\":{\"title\":\"登录模块\",\"children\":{\"attached\":["
+            + "{\"title\":\"TC：密码错误\","
+            + "\"notes\":{\"plain\":{\"content\":\"已注册\\r\\n账号\"}},"
+            + "\"markers\":[{\"markerId\":\"priority-1\"}],"
+            + "\"labels\":[\"REQ-1\",\"REQ-2\"],"
+            + "\"children\":{\"attached\":["
+            + "{\"title\":\"输入错误密码\",\"children\":{\"attached\":[{\"title\":\"提示密码错误\"}]}},"
+            + "{\"title\":\"点击登录\"}]}},"
+            + "{\"title\":\"分组\",\"children\":{\"attached\":[{\"title\":\"tc-退出\","
+            + "\"markers\":[{\"markerId\":\"priority-3\"}]}]}},"
+            + "{\"title\":\"tc:\"}"
+            + "]}}}]";
+        List<TestCaseImportRow> rows = read(xmind("content.json", json));
+
+        assertThat(rows).hasSize(2);
+        TestCaseImportRow first = rows.get(0);
+        assertThat(first.getRowNumber()).isEqualTo(1);
+        assertThat(first.getTitle()).isEqualTo("密码错误");
+        assertThat(first.getPriority()).isEqualTo("P0");
+        assertThat(first.getPrecondition()).isEqualTo("已注册\r\n账号");
+        assertThat(first.getRequirementCodes()).containsExactly("REQ-1", "REQ-2");
+        assertThat(first.getSteps()).isEqualTo("1. 输入错误密码\n   预期: 提示密码错误\n2. 点击登录");
+
+        TestCaseImportRow second = rows.get(1);
+        assertThat(second.getRowNumber()).isEqualTo(2);
+        assertThat(second.getTitle()).isEqualTo("退出");
+        assertThat(second.getPriority()).isEqualTo("P2");
+        assertThat(second.getSteps()).isEmpty();
+    }
+
+    @Test
+    void readsLegacyContentXmlAndIgnoresDetachedTopics() throws Exception {
+        String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+            + "<xmap-content xmlns=\"urn:xmind:xmap:xmlns:content:2.0\"><sheet><topic><title>根</title>"
+            + "<children><topics type=\"attached\">"
+            + "<topic><title>TC:下单</title>"
+            + "<notes><plain>库存充足</plain></notes>"
+            + "<labels><label>REQ-9</label></labels>"
+            + "<marker-refs><marker-ref marker-id=\"priority-2\"/></marker-refs>"
+            + "<children><topics type=\"attached\"><topic><title>提交订单</title>"
+            + "<children><topics type=\"attached\"><topic><title>下单成功</title></topic></topics></children>"
+            + "</topic></topics></children></topic>"
+            + "</topics><topics type=\"detached\"><topic><title>tc:游离</title></topic></topics></children>"
+            + "</topic></sheet></xmap-content>";
+        List<TestCaseImportRow> rows = read(xmind("content.xml", xml));
+
+        assertThat(rows).hasSize(1);
+        TestCaseImportRow row = rows.get(0);
+        assertThat(row.getTitle()).isEqualTo("下单");
+        assertThat(row.getPriority()).isEqualTo("P1");
+        assertThat(row.getPrecondition()).isEqualTo("库存充足");
+        assertThat(row.getRequirementCodes()).containsExactly("REQ-9");
+        assertThat(row.getSteps()).isEqualTo("1. 提交订单\n   预期: 下单成功");
+    }
+
+    @Test
+    void rejectsArchiveWithoutContent() throws Exception {
+        File file = xmind("manifest.json", "{}");
+
+        assertThatThrownBy(() -> read(file)).isInstanceOf(IOException.class).hasMessageContaining("XMind");
+    }
+
+    private File xmind(String entry, String content) throws IOException {
+        File file = tempDir.resolve("cases.xmind").toFile();
+        try (ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+            zip.putNextEntry(new ZipEntry(entry));
+            zip.write(content.getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+        return file;
+    }
+
+    private static List<TestCaseImportRow> read(File file) throws Exception {
+        List<TestCaseImportRow> rows = new ArrayList<>();
+        XMindReader.read(file, rows::add);
+        return rows;
+    }
+}
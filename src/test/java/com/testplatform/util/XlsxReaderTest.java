@@ -0,0 +1,96 @@
+package com.testplatform.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Excel读取器的共享字符串、空单元格和数值格式测试
+ */
+class XlsxReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void readsSharedStringsInlineStringsAndNumbers() throws Exception {
+        String sharedStrings = "<sst xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\">"
+            + "<si><t>标题</t></si>"
+            + "<si><r><t>多行</t></r><r><t xml:space=\"preserve\">\r\n步骤, \"引号\"</t></r></si>"
+            + "<si><t>拼音</t><rPh sb=\"0\" eb=\"2\"><t>pinyin</t></rPh></si>"
+            + "</sst>";
+        String sheet = "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"><sheetData>"
+            + "<row r=\"1\"><c r=\"A1\" t=\"s\"><v>0</v></c><c r=\"B1\" t=\"s\"><v>1</v></c>"
+            + "<c r=\"C1\" t=\"s\"><v>2</v></c></row>"
+            + "<row r=\"2\"><c r=\"A2\"><v>12.0</v></c><c r=\"B2\" t=\"b\"><v>1</v></c>"
+            + "<c r=\"C2\" t=\"inlineStr\"><is><t>内联</t></is></c><c r=\"D2\"><v>1.5</v></c></row>"
+            + "</sheetData></worksheet>";
+        File file = xlsx("xl/sharedStrings.xml", sharedStrings, "xl/worksheets/sheet1.xml", sheet);
+
+        // XML解析会把单元格中的CRLF规范化为LF
+        assertThat(read(file)).containsExactly(
+            Arrays.asList("标题", "多行\n步骤, \"引号\"", "拼音"),
+            Arrays.asList("12", "TRUE", "内联", "1.5"));
+    }
+
+    @Test
+    void padsSkippedCellsByColumnReference() throws Exception {
+        String sheet = "<worksheet><sheetData>"
+            + "<row r=\"1\"><c r=\"A1\" t=\"inlineStr\"><is><t>a</t></is></c>"
+            + "<c r=\"D1\" t=\"inlineStr\"><is><t>d</t></is></c></row>"
+            + "<row r=\"2\"><c r=\"AA2\"><v>7</v></c></row>"
+            + "</sheetData></worksheet>";
+        File file = xlsx("xl/worksheets/sheet1.xml", sheet);
+
+        List<List<String>> rows = read(file);
+        assertThat(rows.get(0)).containsExactly("a", "", "", "d");
+        assertThat(rows.get(1)).hasSize(27);
+        assertThat(rows.get(1).get(26)).isEqualTo("7");
+    }
+
+    @Test
+    void fallsBackToFirstWorksheetWhenSheet1IsMissing() throws Exception {
+        String sheet = "<worksheet><sheetData><row><c><v>3</v></c></row></sheetData></worksheet>";
+        File file = xlsx("xl/worksheets/用例.xml", sheet);
+
+        assertThat(read(file)).containsExactly(Arrays.asList("3"));
+    }
+
+    @Test
+    void rejectsWorkbookWithoutSheet() throws Exception {
+        File file = xlsx("xl/workbook.xml", "<workbook/>");
+
+        assertThatThrownBy(() -> read(file)).isInstanceOf(IOException.class);
+    }
+
+    private File xlsx(String... entries) throws IOException {
+        File file = tempDir.resolve("cases.xlsx").toFile();
+        try (ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+            for (int i = 0; i < entries.length; i += 2) {
+                zip.putNextEntry(new ZipEntry(entries[i]));
+                zip.write(entries[i + 1].getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+        return file;
+    }
+
+    private static List<List<String>> read(File file) throws Exception {
+        List<List<String>> rows = new ArrayList<>();
+        XlsxReader.read(file, rows::add);
+        return rows;
+    }
+}